@@ -0,0 +1,134 @@
+/*
+ * @(#)AdditivePatternHeuristic.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+
+/**
+ * An estimate of the moves needed to solve the puzzle made by adding together the distances from a set of pattern databases.
+ * The tiles are split into separate groups, each with its own database (see PatternDatabase).
+ */
+
+// Each database only counts moves of the tiles in its own group, and each move moves a single tile,
+// so no move is counted twice and the total never overstates the moves needed.
+// This gives a much better estimate than the Manhattan distance because each database allows for the tiles in its group
+// getting in each other's way, which can be a lot of extra moves.
+// The databases must be built (or loaded) before the estimate can be used. Building the large ones takes a while.
+class AdditivePatternHeuristic implements PuzzleHeuristic {
+	PatternDatabase	_databases[];
+	int		_databaseForValue[];	// The index of the database for each value (less 1), or -1 for the blank
+
+	// The largest group (in database entries) which is used when choosing groups for a puzzle without a standard partition.
+	static final long MAX_GROUP_ENTRIES = 1L << 23;
+
+	AdditivePatternHeuristic( PatternDatabase[] databases ) {
+		_databases = databases.clone();
+		int numberOfTiles = databases[0].getRows() * databases[0].getColumns();
+		_databaseForValue = new int[numberOfTiles];
+		java.util.Arrays.fill( _databaseForValue, -1 );
+		for ( int database = 0; database < databases.length; database++ )
+		{
+			for ( int tileValue : databases[database].getTileValues() )
+			{
+				_databaseForValue[tileValue - 1] = database;
+			}
+		}
+	}
+
+	// Build the databases for the standard partition of the puzzle's tiles.
+	static AdditivePatternHeuristic build( PuzzleData tileData ) {
+		return build( tileData, getDefaultPartition( tileData.getRows(), tileData.getColumns() ) );
+	}
+
+	// Build a database for each group of tile values, using all the processors for each one in turn.
+	static AdditivePatternHeuristic build( PuzzleData tileData, int[][] partition ) {
+		PatternDatabase databases[] = new PatternDatabase[partition.length];
+		for ( int group = 0; group < partition.length; group++ )
+		{
+			databases[group] = new ParallelPatternDatabaseBuilder( tileData, partition[group] ).build();
+		}
+		return new AdditivePatternHeuristic( databases );
+	}
+
+	// Open the databases saved in a file (see PatternDatabaseFile). This is quick because the tables are mapped, not read.
+	static AdditivePatternHeuristic load( File file, PuzzleData tileData ) throws IOException {
+		return new AdditivePatternHeuristic( PatternDatabaseFile.open( file, tileData, false ) );
+	}
+
+	// Open the databases saved in a file if there is one, otherwise build them for the standard partition and save them.
+	static AdditivePatternHeuristic loadOrBuild( File file, PuzzleData tileData ) throws IOException {
+		if ( file.exists() )
+		{
+			return load( file, tileData );
+		}
+		AdditivePatternHeuristic heuristic = build( tileData );
+		heuristic.save( file, tileData );
+		return heuristic;
+	}
+
+	// Save the databases so that they can be loaded later instead of built.
+	void save( File file, PuzzleData tileData ) throws IOException {
+		PatternDatabaseFile.write( file, _databases, tileData );
+	}
+
+	PatternDatabase[] getDatabases() { return _databases.clone(); }
+
+	public int estimate( int[] tiles, int[] positions ) {
+		int estimate = 0;
+		for ( PatternDatabase database : _databases )
+		{
+			estimate += database.getDistance( positions );
+		}
+		return estimate;
+	}
+
+	// Only the database for the group containing the moved tile can change.
+	public int update( int estimate, int[] tiles, int[] positions, int tileValue, int fromPosition, int toPosition ) {
+		PatternDatabase database = _databases[_databaseForValue[tileValue - 1]];
+		return estimate - database.getDistance( positions, tileValue, fromPosition ) + database.getDistance( positions );
+	}
+
+	// Choose how to split the tiles into groups.
+	// The 4x4 and 5x5 puzzles use the well known partitions (7-8 and 6-6-6-6) of neighbouring tiles.
+	// Other puzzles are split row by row into groups as large as MAX_GROUP_ENTRIES allows.
+	static int[][] getDefaultPartition( int rows, int columns ) {
+		if ( ( rows == 4 ) && ( columns == 4 ) )
+		{
+			return new int[][] { { 1, 2, 3, 4, 5, 6, 7 },
+					     { 8, 9, 10, 11, 12, 13, 14, 15 } };
+		}
+		if ( ( rows == 5 ) && ( columns == 5 ) )
+		{
+			return new int[][] { { 1, 2, 3, 6, 7, 8 },
+					     { 4, 5, 9, 10, 14, 15 },
+					     { 11, 12, 16, 17, 21, 22 },
+					     { 13, 18, 19, 20, 23, 24 } };
+		}
+
+		int cells = rows * columns;
+		int groupSize = 1;
+		while ( ( groupSize < ( cells - 1 ) ) && ( PatternDatabase.countEntries( cells, groupSize + 1 ) <= MAX_GROUP_ENTRIES ) )
+		{
+			groupSize++;
+		}
+		int numberOfGroups = ( ( cells - 1 ) + groupSize - 1 ) / groupSize;
+		int partition[][] = new int[numberOfGroups][];
+		for ( int group = 0; group < numberOfGroups; group++ )
+		{
+			int firstValue = ( group * groupSize ) + 1;
+			int lastValue = Math.min( firstValue + groupSize - 1, cells - 1 );
+			partition[group] = new int[lastValue - firstValue + 1];
+			for ( int tileValue = firstValue; tileValue <= lastValue; tileValue++ )
+			{
+				partition[group][tileValue - firstValue] = tileValue;
+			}
+		}
+		return partition;
+	}
+
+    }
@@ -7,13 +7,8 @@
  *
  */
 
-import java.awt.*;
-
 import java.util.*;
 import java.text.*;
-import java.applet.Applet;
-
-import java.awt.event.*;
 import java.io.*;
 
 /**
@@ -25,6 +20,11 @@ public class AutoData extends PuzzleData {
 	PuzzleSolution _autoSolution = null;	// Holds the current solution when solving automatically
 	boolean _autoSolving;	// Indicates whether the solution method is manual(false) or automatic (true)
 	int _solvingValue;	// Holds the value of the tile which is being "solved" i.e. moved to its final position.
+	int _solvingOrder[];	// The values in the order in which they are solved (see getSolvingOrder)
+	int _solvingRank[];	// The place of each value (less 1) in that order
+	int _solvedCount;	// The number of values, in that order, which are known to be in their target positions
+	int _hintValue;		// The value of the tile suggested as the next move (see HintEngine), or 0 for none
+	long _hintVersion;	// The version of the puzzle the hint is for : any change to the puzzle leaves it out of date
 
 
 //	The default constructor for the display sets safe initial values for internal variables.
@@ -36,8 +36,8 @@ public class AutoData extends PuzzleData {
 	}
 
 //	The default constructor for the display sets safe initial values for internal variables.
-	AutoData( Dimension puzzleSize) {
-		super(puzzleSize);
+	AutoData( int rows, int columns ) {
+		super( rows, columns );
 		clearAutoSolution();
 		setSolvingValue( 0 );
 		setAutoSolving( false );
@@ -59,6 +59,13 @@ public class AutoData extends PuzzleData {
 	void setSolvingValue( int solvingValue ) { _solvingValue = solvingValue; }
 	int getSolvingValue() { return _solvingValue; }
 
+	// The hint is only for the arrangement it was given for, so it disappears by itself as soon as a tile moves.
+	void setHintValue( int hintValue ) {
+		_hintValue = hintValue;
+		_hintVersion = getVersion();
+	}
+	int getHintValue() { return ( _hintVersion == getVersion() ) ? _hintValue : 0; }
+
 	public void setAutoSolving( boolean autoSolving ) { _autoSolving = autoSolving; }
 	public boolean isAutoSolving( ) { return _autoSolving; }
 	public boolean isSolved( ) {
@@ -71,49 +78,79 @@ public class AutoData extends PuzzleData {
 
 	// The lowest unsolved value will normally be the next one to be solved.
 	// All tiles with lower values are already in their target positions.
+	// Rather than checking every tile each time, we keep a count of the tiles at the start of the solving order which are
+	// known to be in place. Any move of one of those tiles cuts the count back (see setTileValue), so only the tiles from
+	// there on need to be checked. Checking stops at the first tile out of place, so each call does very little work.
 	int getLowestUnsolvedValue () {
-		int lowestUnsolvedValue = 0;
-		int tileValue = 1;
+		while ( ( _solvedCount < _solvingOrder.length ) && isTileSolved( _solvingOrder[_solvedCount] ) )
+		{
+			_solvedCount++;
+		}
+		return ( _solvedCount < _solvingOrder.length ) ? _solvingOrder[_solvedCount] : 0;
+	}
 
-		// Find the next unsolved tile. The last two rows require special treatment : above them,
-		// simply scan each row from top to bottom, left to right. In practice, this means counting
-		// up from 1.
-		while ( ( lowestUnsolvedValue == 0 ) && ( tileValue <= ( ( getRows() - 2 ) * getColumns() ) ) )
+	// Is the tile in its target position ? Checked without making any new positions.
+	boolean isTileSolved( int tileValue ) {
+		PuzzlePosition tilePosition = _tilePositions[tileValue - 1];
+		return ( ( tilePosition.getRow() == ( ( tileValue - 1 ) / getColumns() ) ) &&
+			 ( tilePosition.getColumn() == ( ( tileValue - 1 ) % getColumns() ) ) );
+	}
+
+	// Every change to the puzzle comes through here, so this is where the count of solved tiles is kept up to date.
+	void setTileValue( int tileRow, int tileColumn, int tileValue ) {
+		super.setTileValue( tileRow, tileColumn, tileValue );
+		if ( ( _solvingRank != null ) && ( _solvingRank[tileValue - 1] < _solvedCount ) )
 		{
-			if ( ! ( getPuzzlePosition( tileValue ).equals( getTargetPositionForValue( tileValue ) ) ) )
-			{
-				lowestUnsolvedValue = tileValue;
-			}
-			tileValue++;
+			_solvedCount = _solvingRank[tileValue - 1];
 		}
+	}
 
-                // The last two rows require special treatment : move column by column from the left, checking
-                // the penultimate row, then the last row. Don't need to check the last column.
-		while ( ( lowestUnsolvedValue == 0 ) && ( tileValue < ( ( getRows() - 1 ) * getColumns() ) ) )
+	// The order in which the tiles are solved. The last two rows require special treatment : above them,
+	// simply take each row from top to bottom, left to right. In practice, this means counting up from 1.
+	// The last two rows are taken column by column from the left, the penultimate row then the last row.
+	// The last column doesn't need to be included : once everything else is solved, so is it.
+	// A single row is simply taken from left to right (and a single column, from the rules above, from top to bottom).
+	static int[] getSolvingOrder( int rows, int columns ) {
+		int solvingOrder[] = new int[( rows * columns ) - 1];
+		if ( rows < 2 )
 		{
-			if ( ! ( getPuzzlePosition( tileValue ).equals( getTargetPositionForValue( tileValue ) ) ) )
+			for ( int tileValue = 1; tileValue < columns; tileValue++ )
 			{
-				lowestUnsolvedValue = tileValue;
+				solvingOrder[tileValue - 1] = tileValue;
 			}
-			else if ( ! ( getPuzzlePosition( tileValue + getColumns() ).equals( getTargetPositionForValue( tileValue + getColumns()) ) ) )
-			{
-				lowestUnsolvedValue = tileValue + getColumns();
-			}
-			tileValue++;
+			return solvingOrder;
 		}
-
-		if ( ( lowestUnsolvedValue == 0 ) && ( ! getPuzzlePosition( ( getRows() - 1 ) * getColumns() ).equals( getTargetPositionForValue( ( getRows() - 1 ) * getColumns() ) ) ) )
+		int rank = 0;
+		for ( int tileValue = 1; tileValue <= ( ( rows - 2 ) * columns ); tileValue++ )
 		{
-			lowestUnsolvedValue = ( getRows() - 1 ) * getColumns();
+			solvingOrder[rank++] = tileValue;
 		}
+		for ( int tileValue = ( ( rows - 2 ) * columns ) + 1; tileValue < ( ( rows - 1 ) * columns ); tileValue++ )
+		{
+			solvingOrder[rank++] = tileValue;
+			solvingOrder[rank++] = tileValue + columns;
+		}
+		solvingOrder[rank++] = ( rows - 1 ) * columns;
+		return solvingOrder;
+	}
 
-                return lowestUnsolvedValue;
+	// Set up the solving order for the current size of puzzle, with nothing yet known to be solved.
+	void buildSolvingOrder( ) {
+		_solvingOrder = getSolvingOrder( getRows(), getColumns() );
+		_solvingRank = new int[getRows() * getColumns()];
+		Arrays.fill( _solvingRank, Integer.MAX_VALUE );
+		for ( int rank = 0; rank < _solvingOrder.length; rank++ )
+		{
+			_solvingRank[_solvingOrder[rank] - 1] = rank;
+		}
+		_solvedCount = 0;
 	}
 
 	// Initialise the data to be in "solved" order.
 	public void buildPuzzleData( ) {
 		setAutoSolving(false);
 		clearAutoSolution();
+		buildSolvingOrder();
 		super.buildPuzzleData();
 	}
 
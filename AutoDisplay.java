@@ -41,6 +41,11 @@ abstract public class AutoDisplay extends PuzzleDisplay {
 	// Override this in derived classes to draw the tile which is being "solved".
 	abstract void drawSolvingTile( Graphics g, int tileRow, int tileColumn );
 
+	// The tile suggested as the next move is shown as if it were being "solved". Override this to show it differently.
+	void drawHintTile( Graphics g, int tileRow, int tileColumn ) {
+		drawSolvingTile( g, tileRow, tileColumn );
+	}
+
 //	As in the base class (PuzzleDisplay), this method doesn't do any drawing itself.
 //	It calls the appropriate underlying method depending on the type of tile to be drawn.
 //	This derived version has additioinal processing to handle the tile being "solved".
@@ -52,7 +57,11 @@ abstract public class AutoDisplay extends PuzzleDisplay {
 		 }
 		else
 		 {
-		  if ( ( getData().isTileMovable( tileRow, tileColumn ) ) && ( ! ( (AutoData) getData() ).isAutoSolving() ) && ( ! isMakingNormal() ) )
+		  if ( ( getData().getTileValue ( tileRow, tileColumn ) == ( (AutoData) getData() ).getHintValue() ) && ( ! ( (AutoData) getData() ).isAutoSolving() ) && ( ! isMakingNormal() ) )
+		   {
+		    drawHintTile( g, tileRow, tileColumn );
+		   }
+		  else if ( ( getData().isTileMovable( tileRow, tileColumn ) ) && ( ! ( (AutoData) getData() ).isAutoSolving() ) && ( ! isMakingNormal() ) )
 		   {
 		    drawMovableTile( g, tileRow, tileColumn );
 		   }
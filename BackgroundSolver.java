@@ -0,0 +1,135 @@
+/*
+ * @(#)BackgroundSolver.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Works out the solution of the puzzle in the background whenever it changes, so that when the user asks for it to be
+ * solved, the solution is (usually) already there.
+ */
+
+// Each time the puzzle is shuffled or a tile is moved by hand, the arrangement is handed over as a snapshot (see
+// PuzzleData.getSnapshot), and the moves are worked out on the solver's own thread (see PuzzleSolver.prepareSolution).
+// A newer arrangement cancels the one being worked on, which stops the search at once. Only the solution for the
+// arrangement the puzzle is still in is ever handed out : takeSolution gives nothing if the puzzle has changed since.
+// When a solution is ready, the owner of the puzzle is told on its own thread (see PuzzleData.post). So is a solver which
+// failed (e.g. the rules got stuck), so that the owner can say so rather than wait : getFailure gives the exception.
+class BackgroundSolver {
+
+	PuzzleData		_tileData;
+	Runnable		_readyListener;		// Told (on the puzzle's thread) when a solution is ready
+	ExecutorService		_executor;
+	Future<?>		_currentSolve;
+	PuzzleSnapshot		_requestedSnapshot;	// The arrangement being (or last) worked on
+	PuzzleSnapshot		_solvedSnapshot;	// The arrangement the prepared solution is for
+	Function<PuzzleData, PuzzleSolution>	_preparedSolution;
+	RuntimeException	_failure;		// Why the solution for the solved snapshot couldn't be worked out
+
+	BackgroundSolver( PuzzleData tileData, Runnable readyListener ) {
+		_tileData = tileData;
+		_readyListener = readyListener;
+	}
+
+	// Start working out the solution for the puzzle as it is now, unless that is already in hand.
+	synchronized void prepare() {
+		if ( isCurrent( _requestedSnapshot ) )
+		{
+			return;
+		}
+		cancel();
+		PuzzleSnapshot snapshot = _tileData.getSnapshot();
+		_requestedSnapshot = snapshot;
+		if ( _executor == null )
+		{
+			_executor = Executors.newSingleThreadExecutor( runnable -> {
+				Thread thread = new Thread( runnable, "BackgroundSolver" );
+				thread.setDaemon( true );
+				thread.setPriority( Thread.MIN_PRIORITY );
+				return thread;
+			} );
+		}
+		_currentSolve = _executor.submit( () -> {
+			Function<PuzzleData, PuzzleSolution> preparedSolution;
+			try
+			{
+				preparedSolution = PuzzleSolver.prepareSolution( snapshot.getRows(), snapshot.getColumns(), snapshot.getTileValueArray() );
+			}
+			catch ( CancellationException e )
+			{
+				return;
+			}
+			catch ( RuntimeException e )
+			{
+				synchronized ( this )
+				{
+					if ( snapshot != _requestedSnapshot )
+					{
+						return;
+					}
+					_solvedSnapshot = snapshot;
+					_failure = e;
+				}
+				_tileData.post( _readyListener );
+				return;
+			}
+			synchronized ( this )
+			{
+				if ( snapshot != _requestedSnapshot )
+				{
+					return;
+				}
+				_solvedSnapshot = snapshot;
+				_preparedSolution = preparedSolution;
+			}
+			_tileData.post( _readyListener );
+		} );
+	}
+
+	// Stop working on the solution, and forget any which is ready.
+	synchronized void cancel() {
+		if ( _currentSolve != null )
+		{
+			_currentSolve.cancel( true );
+			_currentSolve = null;
+		}
+		_requestedSnapshot = null;
+		_solvedSnapshot = null;
+		_preparedSolution = null;
+		_failure = null;
+	}
+
+	// Is the solution for the puzzle as it is now ready ?
+	synchronized boolean isReady() {
+		return ( ( _preparedSolution != null ) && isCurrent( _solvedSnapshot ) );
+	}
+
+	// Is the solution for the puzzle as it is now being worked out ?
+	synchronized boolean isPreparing() {
+		return ( ( _currentSolve != null ) && ! _currentSolve.isDone() && isCurrent( _requestedSnapshot ) );
+	}
+
+	// Return why the solution for the puzzle as it is now couldn't be worked out, or null if it hasn't failed.
+	synchronized RuntimeException getFailure() {
+		return ( ( _failure != null ) && isCurrent( _solvedSnapshot ) ) ? _failure : null;
+	}
+
+	// Return the solution for the puzzle as it is now, if it is ready, otherwise null.
+	// Called on the puzzle's own thread, which makes the solution straight away from the moves worked out.
+	synchronized PuzzleSolution takeSolution() {
+		return isReady() ? _preparedSolution.apply( _tileData ) : null;
+	}
+
+	// Is the snapshot of the puzzle as it is now ? Every change to the puzzle (resizing included) gives it a new version,
+	// so the versions alone tell the arrangements apart.
+	boolean isCurrent( PuzzleSnapshot snapshot ) {
+		return ( ( snapshot != null ) && ( snapshot.getVersion() == _tileData.getVersion() ) );
+	}
+
+    }
@@ -0,0 +1,277 @@
+/*
+ * @(#)CompactDistanceTable.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A distance table (see DistanceTable) for puzzles of up to 12 tiles, e.g. 3x4 or 2x6, in a quarter of the space :
+ * two bits for each arrangement which can be solved. It is built into a file by CompactDistanceTableBuilder, which
+ * takes minutes, so it is opened from that file, and added for the solvers to use (see DistanceTable.addTable).
+ */
+
+// Only the arrangements which can be solved are ranked, which halves the table. The rank is made from the position of the
+// blank (counted back from its target, so the solved arrangement is rank 0), then the tiles in order of position, leaving
+// out the blank, as digits in a mixed base as usual, except that the last two tiles are left out too. They are the only
+// two values left, and only one way round can be solved : swapping two tiles, with the blank staying put, always
+// changes that. So 12 tiles have 239,500,800 ranks, in 60 MB.
+// Two bits hold the distance modulo 3, with 3 for an arrangement which hasn't been reached (as the table is being built).
+// As with the nibbles, that is enough for walking to the solution : the neighbours one move closer and one move further
+// away still differ. Four entries share a byte, the lowest bits for the lowest rank.
+class CompactDistanceTable extends DistanceTable {
+
+	static final int MAX_TILES = 12;		// 12! / 2 arrangements, in 60 MB (13 would overflow the ranks)
+	static final int DISTANCE_MODULUS = 3;
+	static final int UNREACHED = 3;
+
+	CompactDistanceTable( int rows, int columns, ByteBuffer entries, long[] distanceCounts ) {
+		super( rows, columns, entries, distanceCounts );
+	}
+
+	// Can a table be built for this size of puzzle ?
+	static boolean isSupported( int rows, int columns ) {
+		return ( ( rows > 0 ) && ( columns > 0 ) && ( ( rows * columns ) <= MAX_TILES ) );
+	}
+
+	// The number of arrangements which can be solved (n! / 2), and so of ranks.
+	static long countSolvableArrangements( int numberOfTiles ) {
+		return ( numberOfTiles < 2 ) ? 1 : ( countArrangements( numberOfTiles ) / 2 );
+	}
+
+	// The number of bytes holding the entries for that many ranks.
+	static long countEntryBytes( long ranks ) {
+		return ( ranks + 3 ) / 4;
+	}
+
+	int rankArrangement( int[] tiles ) { return rankSolvable( tiles, _columns ); }
+	int getModulus() { return DISTANCE_MODULUS; }
+	int getUnreached() { return UNREACHED; }
+
+	int getEntry( int rank ) {
+		return ( _entries.get( rank >>> 2 ) >>> ( ( rank & 3 ) << 1 ) ) & 3;
+	}
+
+	// Only the arrangements which can be solved have ranks, so the others are turned away first.
+	int[] solve( int[] tileValues ) {
+		if ( ! PuzzleData.isSolvable( tileValues, _rows, _columns ) )
+		{
+			return null;
+		}
+		return super.solve( tileValues );
+	}
+
+	// Rank an arrangement which can be solved, given as the tile value at each position (row by row). The blank is the
+	// largest value, as in PuzzleData.
+	static int rankSolvable( int[] tiles, int columns ) {
+		int numberOfTiles = tiles.length;
+		int blankValue = numberOfTiles;
+		int blankPosition = 0;
+		while ( tiles[blankPosition] != blankValue )
+		{
+			blankPosition++;
+		}
+		int rank = numberOfTiles - 1 - blankPosition;
+		int used = 0;
+		int tile = 0;
+		for ( int position = 0; tile < ( numberOfTiles - 3 ); position++ )
+		{
+			if ( position == blankPosition )
+			{
+				continue;
+			}
+			int value = tiles[position] - 1;
+			int digit = value - Integer.bitCount( used & ( ( 1 << value ) - 1 ) );
+			rank = ( rank * ( numberOfTiles - 1 - tile ) ) + digit;
+			used |= 1 << value;
+			tile++;
+		}
+		return rank;
+	}
+
+	// Reverse the ranking : fill in the tile value at each position, and return the position of the blank.
+	static int unrankSolvable( int rank, int[] tiles, int columns ) {
+		int numberOfTiles = tiles.length;
+		int numberOfValues = numberOfTiles - 1;		// Not counting the blank
+		int digits[] = new int[Math.max( 0, numberOfValues - 2 )];
+		for ( int tile = digits.length - 1; tile >= 0; tile-- )
+		{
+			int base = numberOfValues - tile;
+			digits[tile] = rank % base;
+			rank /= base;
+		}
+		int blankPosition = numberOfTiles - 1 - rank;
+		tiles[blankPosition] = numberOfTiles;
+		int used = 0;
+		int inversions = 0;
+		int position = 0;
+		for ( int tile = 0; tile < digits.length; tile++, position++ )
+		{
+			if ( position == blankPosition )
+			{
+				position++;
+			}
+			int free = ~used;
+			for ( int skip = digits[tile]; skip > 0; skip-- )
+			{
+				free &= free - 1;
+			}
+			int value = Integer.numberOfTrailingZeros( free );
+			tiles[position] = value + 1;
+			used |= 1 << value;
+			inversions += digits[tile];
+		}
+		// The last two values, in order, then swapped if that can't be solved.
+		int firstPosition = -1;
+		int free = ~used & ( ( 1 << numberOfValues ) - 1 );
+		for ( ; position < numberOfTiles; position++ )
+		{
+			if ( position == blankPosition )
+			{
+				continue;
+			}
+			int value = Integer.numberOfTrailingZeros( free );
+			tiles[position] = value + 1;
+			free &= free - 1;
+			if ( firstPosition < 0 )
+			{
+				firstPosition = position;
+			}
+			else if ( ! isSolvable( inversions, blankPosition, numberOfTiles, columns ) )
+			{
+				tiles[position] = tiles[firstPosition];
+				tiles[firstPosition] = value + 1;
+			}
+		}
+		return blankPosition;
+	}
+
+	// Can an arrangement be solved, given the inversions among its tiles (leaving out the blank) and where the blank is ?
+	// Every move is a swap with the blank, which moves the blank one step and changes the inversions of the whole
+	// arrangement (the blank as the largest value) by one, so the two keep the same parity as in the solved arrangement.
+	static boolean isSolvable( int inversions, int blankPosition, int numberOfTiles, int columns ) {
+		int blankInversions = numberOfTiles - 1 - blankPosition;	// The tiles after the blank, all smaller
+		return ( ( ( inversions + blankInversions + getBlankDistance( blankPosition, numberOfTiles, columns ) ) & 1 ) == 0 );
+	}
+
+	// The number of steps from the blank's position to its target (the last position). Its parity is that of the
+	// number of moves from the solved arrangement.
+	static int getBlankDistance( int blankPosition, int numberOfTiles, int columns ) {
+		int target = numberOfTiles - 1;
+		return Math.abs( ( target / columns ) - ( blankPosition / columns ) ) + Math.abs( ( target % columns ) - ( blankPosition % columns ) );
+	}
+
+	// The file, as written by CompactDistanceTableBuilder, holds a header (big-endian, as in PatternDatabaseFile) :
+	//	magic number ("TPDC"), format version, rows, columns, target position of the blank,
+	//	the deepest distance completed, whether the build has finished, number of bytes of entries, CRC-32C checksum of them
+	//	(once finished), then the number of arrangements at each distance (MAX_DISTANCES longs)
+	// then the entries, from TABLE_OFFSET. The header is rewritten as each distance is completed, so a build which was
+	// stopped can be carried on from there.
+	static final int MAGIC = 0x54504443;
+	static final int VERSION = 1;
+	static final int MAX_DISTANCES = 128;
+	static final int TABLE_OFFSET = PatternDatabaseFile.TABLE_ALIGNMENT;
+
+	static final int COMPLETED_DISTANCE_OFFSET = 20;
+	static final int FINISHED_OFFSET = 24;
+	static final int CHECKSUM_OFFSET = 32;
+	static final int COUNTS_OFFSET = 36;
+
+	// Write the header into the start of a file (or a buffer mapped over it).
+	static void writeHeader( ByteBuffer header, int rows, int columns, int completedDistance, boolean finished, long[] distanceCounts, int checksum ) {
+		header.putInt( 0, MAGIC );
+		header.putInt( 4, VERSION );
+		header.putInt( 8, rows );
+		header.putInt( 12, columns );
+		header.putInt( 16, ( rows * columns ) - 1 );
+		header.putInt( COMPLETED_DISTANCE_OFFSET, completedDistance );
+		header.putInt( FINISHED_OFFSET, finished ? 1 : 0 );
+		header.putInt( 28, (int) countEntryBytes( countSolvableArrangements( rows * columns ) ) );
+		header.putInt( CHECKSUM_OFFSET, checksum );
+		for ( int distance = 0; distance < MAX_DISTANCES; distance++ )
+		{
+			header.putLong( COUNTS_OFFSET + ( distance * 8 ), ( distance < distanceCounts.length ) ? distanceCounts[distance] : 0 );
+		}
+	}
+
+	// Check the header is for a puzzle of the given size, and return the number of arrangements at each distance completed.
+	static long[] readHeader( ByteBuffer header, File file, int rows, int columns ) throws IOException {
+		if ( ( header.limit() < TABLE_OFFSET ) || ( header.getInt( 0 ) != MAGIC ) || ( header.getInt( 4 ) != VERSION ) )
+		{
+			throw new IOException( file + " is not a compact distance table file of version " + VERSION );
+		}
+		if ( ( header.getInt( 8 ) != rows ) || ( header.getInt( 12 ) != columns ) || ( header.getInt( 16 ) != ( ( rows * columns ) - 1 ) ) )
+		{
+			throw new IOException( file + " is for a different puzzle" );
+		}
+		if ( header.getInt( 28 ) != countEntryBytes( countSolvableArrangements( rows * columns ) ) )
+		{
+			throw new IOException( file + " has the wrong size of table" );
+		}
+		int completedDistance = header.getInt( COMPLETED_DISTANCE_OFFSET );
+		if ( ( completedDistance < 0 ) || ( completedDistance >= MAX_DISTANCES ) )
+		{
+			throw new IOException( file + " has a corrupt header" );
+		}
+		long distanceCounts[] = new long[completedDistance + 1];
+		for ( int distance = 0; distance <= completedDistance; distance++ )
+		{
+			distanceCounts[distance] = header.getLong( COUNTS_OFFSET + ( distance * 8 ) );
+		}
+		return distanceCounts;
+	}
+
+	// Open a finished table, for a puzzle of the size given in the file. The entries are mapped, not read.
+	static CompactDistanceTable open( File file ) throws IOException {
+		try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+		{
+			if ( channel.size() < TABLE_OFFSET )
+			{
+				throw new IOException( file + " has an incomplete header" );
+			}
+			ByteBuffer header = channel.map( FileChannel.MapMode.READ_ONLY, 0, TABLE_OFFSET );
+			int rows = header.getInt( 8 );
+			int columns = header.getInt( 12 );
+			if ( ! isSupported( rows, columns ) )
+			{
+				throw new IOException( file + " is not for a puzzle of up to " + MAX_TILES + " tiles" );
+			}
+			long distanceCounts[] = readHeader( header, file, rows, columns );
+			if ( header.getInt( FINISHED_OFFSET ) == 0 )
+			{
+				throw new IOException( file + " has not finished building : carry on with CompactDistanceTableBuilder" );
+			}
+			int numberOfBytes = (int) countEntryBytes( countSolvableArrangements( rows * columns ) );
+			if ( channel.size() < ( TABLE_OFFSET + numberOfBytes ) )
+			{
+				throw new IOException( file + " is truncated" );
+			}
+			CompactDistanceTable table = new CompactDistanceTable( rows, columns, channel.map( FileChannel.MapMode.READ_ONLY, TABLE_OFFSET, numberOfBytes ), distanceCounts );
+			if ( table.checksum() != header.getInt( CHECKSUM_OFFSET ) )
+			{
+				throw new IOException( file + " is corrupt : the checksum doesn't match" );
+			}
+			return table;
+		}
+	}
+
+	// Save the table in the same form as the builder, e.g. a copy of one which has been opened.
+	void write( File file ) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate( TABLE_OFFSET );
+		writeHeader( header, _rows, _columns, getMaxDistance(), true, _distanceCounts, checksum() );
+		try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) )
+		{
+			PatternDatabaseFile.writeFully( channel, header, 0 );
+			PatternDatabaseFile.writeFully( channel, getEntries(), TABLE_OFFSET );
+		}
+	}
+
+    }
@@ -0,0 +1,447 @@
+/*
+ * @(#)CompactDistanceTableBuilder.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.zip.*;
+
+/**
+ * Build a compact distance table (see CompactDistanceTable) in a file, by a breadth first search of every arrangement
+ * which can be solved, using all the processors. From the command line, e.g.
+ *	java CompactDistanceTableBuilder -threads 8 3 4 3x4.tpdc
+ * which writes the number of arrangements at each distance as it goes. A build which is stopped carries on from the
+ * last distance completed when it is run again.
+ */
+
+// The entries are kept in the file, mapped into memory, rather than on the heap : 60 MB for 12 tiles.
+// The search goes a distance (layer) at a time, over the whole table, split into chunks which the threads take in turn.
+// The entries only hold the distance modulo 3, so the arrangements at the current distance can't be told from those
+// three moves closer by their entries alone. Two things make up for that :
+//	the parity of the distance is that of the blank's distance from its target (see CompactDistanceTable), so the
+//	entries and the parity give the distance modulo 6. Arrangements six moves closer are expanded again, which finds
+//	nothing new, but there are few of them while the layers are still growing.
+//	once there are fewer arrangements left to reach than in the current layer, the search goes backwards instead :
+//	each arrangement not yet reached looks for a neighbour in the current layer. It can't be next to one three moves
+//	closer, or it would have been reached already, so there is no confusion at all.
+// Going forwards, a thread may mark any arrangement, so the entries are marked with a compare and set on the int holding
+// them, and an arrangement is counted by the thread which marked it. Going backwards, each thread only marks
+// arrangements in its own chunks, which never share an int with another chunk.
+// Most passes look for only a few of the entries, so they are looked for a long (32 entries) at a time.
+// When a layer is complete, the entries are forced to the file, then the header records the layer and its count.
+// If the build is stopped part way through a layer, some of the next layer has been marked but not counted. Carrying on
+// repeats that layer, which marks the rest, then counts the next layer afresh : those with its entry and parity, less
+// the layers six, twelve ... moves closer, whose counts are known.
+class CompactDistanceTableBuilder {
+
+	static final int CHUNK_SIZE = 1 << 16;	// Ranks handed to a thread at a time : a multiple of 16 ranks (an int)
+
+	static final VarHandle ENTRY_INTS = MethodHandles.byteBufferViewVarHandle( int[].class, ByteOrder.LITTLE_ENDIAN );
+	static final VarHandle ENTRY_LONGS = MethodHandles.byteBufferViewVarHandle( long[].class, ByteOrder.LITTLE_ENDIAN );
+	static final long LOW_BITS = 0x5555555555555555L;	// The low bit of each entry in a long
+
+	int		_rows;
+	int		_columns;
+	int		_numberOfTiles;
+	int		_neighbours[][];
+	int		_numberOfRanks;
+	File		_file;
+	int		_numberOfThreads = Runtime.getRuntime().availableProcessors();
+	BiConsumer<Integer, Long>	_layerListener;		// Told the count as each distance is completed
+
+	MappedByteBuffer	_header;
+	MappedByteBuffer	_entries;		// Padded to a whole number of longs
+	int		_numberOfBytes;		// The bytes of entries, without the padding
+	long		_distanceCounts[] = new long[CompactDistanceTable.MAX_DISTANCES];
+	int		_completedDistance;
+	boolean		_finished;
+	boolean		_recountNextLayer;		// Carrying on from a layer which may have been left part way through
+	ExecutorService	_executor;
+
+	public static void main( String args[] ) {
+		int numberOfThreads = Runtime.getRuntime().availableProcessors();
+		List<String> values = new ArrayList<String>();
+		for ( int argument = 0; argument < args.length; argument++ )
+		{
+			if ( args[argument].equals( "-threads" ) && ( argument + 1 < args.length ) )
+			{
+				numberOfThreads = Integer.parseInt( args[++argument] );
+			}
+			else
+			{
+				values.add( args[argument] );
+			}
+		}
+		if ( values.size() != 3 )
+		{
+			System.err.println( "Usage: java CompactDistanceTableBuilder [-threads n] rows columns file" );
+			System.exit( 1 );
+		}
+		CompactDistanceTableBuilder builder = new CompactDistanceTableBuilder( Integer.parseInt( values.get( 0 ) ), Integer.parseInt( values.get( 1 ) ), new File( values.get( 2 ) ) );
+		builder.setNumberOfThreads( numberOfThreads );
+		long startTime = System.nanoTime();
+		builder.setLayerListener( ( distance, count ) -> System.out.println( distance + "\t" + count + "\t" + ( ( System.nanoTime() - startTime ) / 1000000 ) + " ms" ) );
+		try
+		{
+			CompactDistanceTable table = builder.build();
+			System.out.println( "Reachable " + table.getReachableArrangements() + ", greatest distance " + table.getMaxDistance() );
+		}
+		catch ( IOException e )
+		{
+			System.err.println( "Failed building the table : " + e.getMessage() );
+			System.exit( 2 );
+		}
+	}
+
+	CompactDistanceTableBuilder( int rows, int columns, File file ) {
+		if ( ! CompactDistanceTable.isSupported( rows, columns ) )
+		{
+			throw new IllegalArgumentException( "Compact distance tables are limited to puzzles of " + CompactDistanceTable.MAX_TILES + " tiles" );
+		}
+		_rows = rows;
+		_columns = columns;
+		_numberOfTiles = rows * columns;
+		_neighbours = DistanceTable.getNeighbours( rows, columns );
+		_numberOfRanks = (int) CompactDistanceTable.countSolvableArrangements( _numberOfTiles );
+		_file = file;
+	}
+
+	void setNumberOfThreads( int numberOfThreads ) { _numberOfThreads = Math.max( 1, numberOfThreads ); }
+	void setLayerListener( BiConsumer<Integer, Long> layerListener ) { _layerListener = layerListener; }
+
+	// Build the table, or carry on building it, and return it once finished. If the thread is interrupted, the search
+	// stops (leaving the file to be carried on with) and a CancellationException is thrown.
+	CompactDistanceTable build() throws IOException {
+		openFile();
+		_executor = Executors.newFixedThreadPool( _numberOfThreads, runnable -> {
+			Thread thread = new Thread( runnable, "CompactDistanceTableBuilder" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		try
+		{
+			while ( ! _finished )
+			{
+				int distance = _completedDistance;
+				long count = expandLayer( distance );
+				if ( _recountNextLayer )
+				{
+					count = countLayer( distance + 1 );
+					_recountNextLayer = false;
+				}
+				_entries.force();
+				if ( count == 0 )
+				{
+					_finished = true;
+				}
+				else
+				{
+					if ( ( distance + 1 ) >= CompactDistanceTable.MAX_DISTANCES )
+					{
+						throw new IllegalStateException( "The search went beyond " + CompactDistanceTable.MAX_DISTANCES + " moves" );
+					}
+					_distanceCounts[distance + 1] = count;
+					_completedDistance = distance + 1;
+				}
+				writeHeader();
+				if ( ( count != 0 ) && ( _layerListener != null ) )
+				{
+					_layerListener.accept( distance + 1, count );
+				}
+			}
+		}
+		finally
+		{
+			_executor.shutdownNow();
+		}
+		return new CompactDistanceTable( _rows, _columns, _entries.slice( 0, _numberOfBytes ), Arrays.copyOf( _distanceCounts, _completedDistance + 1 ) );
+	}
+
+	// Map the file, starting it afresh unless it holds a build of the same puzzle to carry on with.
+	void openFile() throws IOException {
+		int numberOfBytes = (int) CompactDistanceTable.countEntryBytes( _numberOfRanks );
+		_numberOfBytes = numberOfBytes;
+		try ( FileChannel channel = FileChannel.open( _file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE ) )
+		{
+			boolean carryOn = ( channel.size() >= ( CompactDistanceTable.TABLE_OFFSET + numberOfBytes ) );
+			_header = channel.map( FileChannel.MapMode.READ_WRITE, 0, CompactDistanceTable.TABLE_OFFSET );
+			_entries = channel.map( FileChannel.MapMode.READ_WRITE, CompactDistanceTable.TABLE_OFFSET, ( numberOfBytes + 7 ) & ~7 );
+			if ( carryOn && ( _header.getInt( 0 ) == CompactDistanceTable.MAGIC ) )
+			{
+				long distanceCounts[] = CompactDistanceTable.readHeader( _header, _file, _rows, _columns );
+				System.arraycopy( distanceCounts, 0, _distanceCounts, 0, distanceCounts.length );
+				_completedDistance = distanceCounts.length - 1;
+				_finished = ( _header.getInt( CompactDistanceTable.FINISHED_OFFSET ) != 0 );
+				_recountNextLayer = ! _finished;
+				if ( _layerListener != null )
+				{
+					for ( int distance = 0; distance <= _completedDistance; distance++ )
+					{
+						_layerListener.accept( distance, _distanceCounts[distance] );
+					}
+				}
+			}
+			else
+			{
+				// The header is written last, so a file which was stopped while being filled is started afresh.
+				_header.putInt( 0, 0 );
+				_header.force();
+				for ( int index = 0; index < _entries.limit(); index++ )
+				{
+					_entries.put( index, (byte) 0xFF );
+				}
+				setEntry( 0, 0 );
+				_entries.force();
+				_distanceCounts[0] = 1;
+				_completedDistance = 0;
+				_finished = false;
+				writeHeader();
+				if ( _layerListener != null )
+				{
+					_layerListener.accept( 0, 1L );
+				}
+			}
+		}
+	}
+
+	void writeHeader() {
+		int checksum = 0;
+		if ( _finished )
+		{
+			CRC32C crc = new CRC32C();
+			crc.update( _entries.slice( 0, _numberOfBytes ) );
+			checksum = (int) crc.getValue();
+		}
+		CompactDistanceTable.writeHeader( _header, _rows, _columns, _completedDistance, _finished, _distanceCounts, checksum );
+		_header.force();
+	}
+
+	// Mark the arrangements at distance + 1, in whichever direction is less work, and return how many were marked.
+	long expandLayer( int distance ) throws IOException {
+		long reached = 0;
+		for ( int closer = 0; closer <= distance; closer++ )
+		{
+			reached += _distanceCounts[closer];
+		}
+		long candidates = 0;
+		for ( int closer = distance; closer >= 0; closer -= 6 )
+		{
+			candidates += _distanceCounts[closer];
+		}
+		if ( ( _numberOfRanks - reached ) < candidates )
+		{
+			return runPass( ( start, end, tiles ) -> searchBackward( start, end, distance, tiles ) );
+		}
+		return runPass( ( start, end, tiles ) -> searchForward( start, end, distance, tiles ) );
+	}
+
+	// Count the arrangements at the distance, from their entries and parity (see above).
+	long countLayer( int distance ) throws IOException {
+		long count = runPass( ( start, end, tiles ) -> countEntries( start, end, distance, tiles ) );
+		for ( int closer = distance - 6; closer >= 0; closer -= 6 )
+		{
+			count -= _distanceCounts[closer];
+		}
+		return count;
+	}
+
+	// The work done on a chunk of ranks (with a thread's own array for the tiles), returning the arrangements counted.
+	interface ChunkPass {
+		long run( int start, int end, int[] tiles );
+	}
+
+	// Run the work over every chunk, on all the threads, and return the total count.
+	long runPass( ChunkPass pass ) {
+		AtomicInteger nextChunk = new AtomicInteger();
+		int numberOfChunks = (int) ( ( (long) _numberOfRanks + CHUNK_SIZE - 1 ) / CHUNK_SIZE );
+		List<Future<Long>> workers = new ArrayList<Future<Long>>();
+		for ( int worker = 0; worker < _numberOfThreads; worker++ )
+		{
+			workers.add( _executor.submit( () -> {
+				int tiles[] = new int[_numberOfTiles];
+				long count = 0;
+				for ( int chunk = nextChunk.getAndIncrement(); chunk < numberOfChunks; chunk = nextChunk.getAndIncrement() )
+				{
+					if ( Thread.currentThread().isInterrupted() )
+					{
+						throw new CancellationException();
+					}
+					int start = chunk * CHUNK_SIZE;
+					count += pass.run( start, (int) Math.min( (long) start + CHUNK_SIZE, _numberOfRanks ), tiles );
+				}
+				return count;
+			} ) );
+		}
+		long count = 0;
+		try
+		{
+			for ( Future<Long> worker : workers )
+			{
+				count += worker.get();
+			}
+		}
+		catch ( InterruptedException e )
+		{
+			for ( Future<Long> worker : workers )
+			{
+				worker.cancel( true );
+			}
+			Thread.currentThread().interrupt();
+			throw new CancellationException( "Building the distance table was stopped at distance " + _completedDistance );
+		}
+		catch ( ExecutionException e )
+		{
+			if ( e.getCause() instanceof RuntimeException )
+			{
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException( e.getCause() );
+		}
+		return count;
+	}
+
+	// Expand the arrangements at the distance (and any six, twelve ... moves closer, which find nothing new).
+	long searchForward( int start, int end, int distance, int[] tiles ) {
+		int entry = distance % CompactDistanceTable.DISTANCE_MODULUS;
+		int nextEntry = ( distance + 1 ) % CompactDistanceTable.DISTANCE_MODULUS;
+		long count = 0;
+		for ( int rank = start; rank < end; rank++ )
+		{
+			if ( ( ( rank & 31 ) == 0 ) && ( ( rank + 32 ) <= end ) && ! hasEntry( rank, entry ) )
+			{
+				rank += 31;
+				continue;
+			}
+			if ( getEntry( rank ) != entry )
+			{
+				continue;
+			}
+			int blankPosition = CompactDistanceTable.unrankSolvable( rank, tiles, _columns );
+			if ( ( CompactDistanceTable.getBlankDistance( blankPosition, _numberOfTiles, _columns ) & 1 ) != ( distance & 1 ) )
+			{
+				continue;
+			}
+			for ( int tilePosition : _neighbours[blankPosition] )
+			{
+				tiles[blankPosition] = tiles[tilePosition];
+				tiles[tilePosition] = _numberOfTiles;
+				if ( markEntry( CompactDistanceTable.rankSolvable( tiles, _columns ), nextEntry ) )
+				{
+					count++;
+				}
+				tiles[tilePosition] = tiles[blankPosition];
+				tiles[blankPosition] = _numberOfTiles;
+			}
+		}
+		return count;
+	}
+
+	// Mark each arrangement not yet reached which is next to one at the distance.
+	long searchBackward( int start, int end, int distance, int[] tiles ) {
+		int entry = distance % CompactDistanceTable.DISTANCE_MODULUS;
+		int nextEntry = ( distance + 1 ) % CompactDistanceTable.DISTANCE_MODULUS;
+		long count = 0;
+		for ( int rank = start; rank < end; rank++ )
+		{
+			if ( ( ( rank & 31 ) == 0 ) && ( ( rank + 32 ) <= end ) && ! hasEntry( rank, CompactDistanceTable.UNREACHED ) )
+			{
+				rank += 31;
+				continue;
+			}
+			if ( getEntry( rank ) != CompactDistanceTable.UNREACHED )
+			{
+				continue;
+			}
+			int blankPosition = CompactDistanceTable.unrankSolvable( rank, tiles, _columns );
+			for ( int tilePosition : _neighbours[blankPosition] )
+			{
+				tiles[blankPosition] = tiles[tilePosition];
+				tiles[tilePosition] = _numberOfTiles;
+				int neighbourRank = CompactDistanceTable.rankSolvable( tiles, _columns );
+				tiles[tilePosition] = tiles[blankPosition];
+				tiles[blankPosition] = _numberOfTiles;
+				if ( getEntry( neighbourRank ) == entry )
+				{
+					setEntry( rank, nextEntry );
+					count++;
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	// Count the arrangements with the entry and parity of the distance.
+	long countEntries( int start, int end, int distance, int[] tiles ) {
+		int entry = distance % CompactDistanceTable.DISTANCE_MODULUS;
+		long count = 0;
+		for ( int rank = start; rank < end; rank++ )
+		{
+			if ( ( ( rank & 31 ) == 0 ) && ( ( rank + 32 ) <= end ) && ! hasEntry( rank, entry ) )
+			{
+				rank += 31;
+				continue;
+			}
+			if ( getEntry( rank ) != entry )
+			{
+				continue;
+			}
+			int blankPosition = CompactDistanceTable.unrankSolvable( rank, tiles, _columns );
+			if ( ( CompactDistanceTable.getBlankDistance( blankPosition, _numberOfTiles, _columns ) & 1 ) == ( distance & 1 ) )
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	int getEntry( int rank ) {
+		return ( _entries.get( rank >>> 2 ) >>> ( ( rank & 3 ) << 1 ) ) & 3;
+	}
+
+	// Do any of the 32 entries from the rank (a multiple of 32) hold the entry ? Those which do become 0 in the
+	// exclusive or, which the two bits of each are or'd together to find.
+	boolean hasEntry( int rank, int entry ) {
+		long entries = (long) ENTRY_LONGS.get( _entries, rank >>> 2 ) ^ ( LOW_BITS * entry );
+		return ( ( ( entries | ( entries >>> 1 ) ) & LOW_BITS ) != LOW_BITS );
+	}
+
+	// Only for an arrangement in the thread's own chunk (or before the search starts).
+	void setEntry( int rank, int entry ) {
+		int index = ( rank >>> 4 ) << 2;
+		int shift = ( rank & 15 ) << 1;
+		int entries = (int) ENTRY_INTS.get( _entries, index );
+		ENTRY_INTS.set( _entries, index, ( entries & ~( 3 << shift ) ) | ( entry << shift ) );
+	}
+
+	// Mark an arrangement if it hasn't been reached, and return whether this thread marked it.
+	boolean markEntry( int rank, int entry ) {
+		int index = ( rank >>> 4 ) << 2;
+		int shift = ( rank & 15 ) << 1;
+		for ( ;; )
+		{
+			int entries = (int) ENTRY_INTS.getVolatile( _entries, index );
+			if ( ( ( entries >>> shift ) & 3 ) != CompactDistanceTable.UNREACHED )
+			{
+				return false;
+			}
+			if ( ENTRY_INTS.compareAndSet( _entries, index, entries, ( entries & ~( 3 << shift ) ) | ( entry << shift ) ) )
+			{
+				return true;
+			}
+		}
+	}
+
+    }
@@ -7,10 +7,6 @@
  *
  */
 
-
-import java.awt.*;
-import java.awt.event.*;
-
 /**
  * Notify the world of a tile change, indicate by a tile position
  */
@@ -0,0 +1,350 @@
+/*
+ * @(#)DistanceTable.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * The distance to the solution from every arrangement of a small puzzle (up to 10 tiles, e.g. 3x3 or 2x5), so that
+ * a shortest solution is simply read off rather than searched for. It is built by DistanceTableBuilder.
+ */
+
+// Each arrangement is numbered (ranked) by its tile values, position by position, as digits in a mixed base : the first
+// value is any of them, the second any of the rest and so on (as PatternDatabase ranks its placements). The solved
+// arrangement is rank 0. The table holds a nibble (half a byte) for every rank, the low nibble of each byte for the even rank.
+// A nibble can't hold the larger distances (31 moves for 3x3, 55 for 2x5), so it holds the distance modulo 15, with 15
+// marking an arrangement which can't be reached. That is enough, because a move always changes the distance by exactly
+// one (the blank swaps between the two colours of a chessboard), and one less and one more are different modulo 15.
+// So the solution is found by walking from the arrangement to the neighbour one move closer, and on until the solved
+// arrangement, which takes a few ranks per move : no search at all. The walk also gives the exact distance.
+// Like PatternDatabase, the nibbles are read through a buffer, so they may be on the heap or mapped from a file.
+// Larger puzzles (11 or 12 tiles) have too many arrangements to build here : their tables (see CompactDistanceTable)
+// are built beforehand and added, after which they are used in just the same way.
+class DistanceTable {
+	int		_rows;
+	int		_columns;
+	int		_numberOfTiles;
+	int		_neighbours[][];	// The positions next to each position
+	ByteBuffer	_entries;		// Two nibbles to a byte, by rank
+	long		_distanceCounts[];	// The number of arrangements at each distance
+
+	static final int MAX_TILES = 10;		// 10! arrangements, in 1.8 MB
+	static final int DISTANCE_MODULUS = 15;
+	static final int UNREACHED = 0xF;
+
+	// The tables are built (or added) once for each size of puzzle, then shared by every solver.
+	static Map<Integer, DistanceTable> _tables = new HashMap<Integer, DistanceTable>();
+
+	// The buffer holds (number of arrangements + 1) / 2 bytes. Only absolute reads are used, so it can be shared between threads.
+	DistanceTable( int rows, int columns, ByteBuffer entries, long[] distanceCounts ) {
+		_rows = rows;
+		_columns = columns;
+		_numberOfTiles = rows * columns;
+		_entries = entries;
+		_distanceCounts = distanceCounts.clone();
+		_neighbours = getNeighbours( rows, columns );
+	}
+
+	// Can a table be built for this size of puzzle ?
+	static boolean isSupported( int rows, int columns ) {
+		return ( ( rows > 0 ) && ( columns > 0 ) && ( ( rows * columns ) <= MAX_TILES ) );
+	}
+
+	// Is there a table for this size of puzzle, either built when asked for or added ?
+	static synchronized boolean hasTable( int rows, int columns ) {
+		return ( isSupported( rows, columns ) || _tables.containsKey( getSizeKey( rows, columns ) ) );
+	}
+
+	// Return the table for this size of puzzle, building it the first time it is asked for.
+	static synchronized DistanceTable getTable( int rows, int columns ) {
+		Integer size = getSizeKey( rows, columns );
+		DistanceTable table = _tables.get( size );
+		if ( table == null )
+		{
+			if ( ! isSupported( rows, columns ) )
+			{
+				throw new IllegalArgumentException( "There is no distance table for " + rows + "x" + columns );
+			}
+			table = new DistanceTableBuilder( rows, columns ).build();
+			_tables.put( size, table );
+		}
+		return table;
+	}
+
+	// Use the table for its size of puzzle from now on, e.g. one opened from a file.
+	static synchronized void addTable( DistanceTable table ) {
+		_tables.put( getSizeKey( table.getRows(), table.getColumns() ), table );
+	}
+
+	static Integer getSizeKey( int rows, int columns ) {
+		return Integer.valueOf( ( rows << 16 ) | columns );
+	}
+
+	int getRows() { return _rows; }
+	int getColumns() { return _columns; }
+
+	// The number of arrangements of the tiles, reachable or not (n!).
+	static long countArrangements( int numberOfTiles ) {
+		return PatternDatabase.countEntries( numberOfTiles, numberOfTiles );
+	}
+
+	// The number of arrangements which can be reached by moving tiles : half of them, except on a puzzle one tile wide
+	// (or high), where the tiles stay in order and only the blank moves along the line.
+	static long countReachableArrangements( int rows, int columns ) {
+		int numberOfTiles = rows * columns;
+		if ( ( rows == 1 ) || ( columns == 1 ) )
+		{
+			return numberOfTiles;
+		}
+		return countArrangements( numberOfTiles ) / 2;
+	}
+
+	// Return a read only view of the nibbles, e.g. for writing them to a file.
+	ByteBuffer getEntries() { return _entries.asReadOnlyBuffer(); }
+
+	// The number of arrangements at each distance, from 0 (only the solved arrangement) to the greatest.
+	long[] getDistanceCounts() { return _distanceCounts.clone(); }
+	int getMaxDistance() { return _distanceCounts.length - 1; }
+
+	long getReachableArrangements() {
+		long reachable = 0;
+		for ( long count : _distanceCounts )
+		{
+			reachable += count;
+		}
+		return reachable;
+	}
+
+	int checksum() {
+		CRC32C checksum = new CRC32C();
+		checksum.update( getEntries() );
+		return (int) checksum.getValue();
+	}
+
+	// Return the nibble for the arrangement with the given rank : its distance modulo 15, or UNREACHED.
+	int getEntry( int rank ) {
+		int entries = _entries.get( rank >>> 1 );
+		return ( ( rank & 1 ) == 0 ) ? ( entries & 0xF ) : ( ( entries >>> 4 ) & 0xF );
+	}
+
+	// The rank of an arrangement in this table, and how its entries count the distance. Overridden by CompactDistanceTable.
+	int rankArrangement( int[] tiles ) { return rank( tiles ); }
+	int getModulus() { return DISTANCE_MODULUS; }
+	int getUnreached() { return UNREACHED; }
+
+	// Rank the arrangement, given as the tile value at each position (row by row, as PuzzleData.getTileValueArray).
+	static int rank( int[] tiles ) {
+		int numberOfTiles = tiles.length;
+		int used = 0;
+		int rank = 0;
+		for ( int position = 0; position < numberOfTiles; position++ )
+		{
+			int value = tiles[position] - 1;
+			// The digit is the value counted among those not used at the earlier positions.
+			int digit = value - Integer.bitCount( used & ( ( 1 << value ) - 1 ) );
+			rank = ( rank * ( numberOfTiles - position ) ) + digit;
+			used |= 1 << value;
+		}
+		return rank;
+	}
+
+	// Reverse the ranking : fill in the tile value at each position for the given rank.
+	static void unrank( int rank, int[] tiles ) {
+		int numberOfTiles = tiles.length;
+		for ( int position = numberOfTiles - 1; position >= 0; position-- )
+		{
+			int base = numberOfTiles - position;
+			tiles[position] = rank % base;
+			rank /= base;
+		}
+		int used = 0;
+		for ( int position = 0; position < numberOfTiles; position++ )
+		{
+			int free = ~used;
+			for ( int skip = tiles[position]; skip > 0; skip-- )
+			{
+				free &= free - 1;
+			}
+			int value = Integer.numberOfTrailingZeros( free );
+			tiles[position] = value + 1;
+			used |= 1 << value;
+		}
+	}
+
+	// The positions next to each position, as in OptimalSearch.
+	static int[][] getNeighbours( int rows, int columns ) {
+		int neighbours[][] = new int[rows * columns][];
+		for ( int position = 0; position < ( rows * columns ); position++ )
+		{
+			int row = position / columns;
+			int column = position % columns;
+			int count = 0;
+			int positionNeighbours[] = new int[4];
+			if ( row > 0 ) { positionNeighbours[count++] = position - columns; }
+			if ( column > 0 ) { positionNeighbours[count++] = position - 1; }
+			if ( column < ( columns - 1 ) ) { positionNeighbours[count++] = position + 1; }
+			if ( row < ( rows - 1 ) ) { positionNeighbours[count++] = position + columns; }
+			neighbours[position] = Arrays.copyOf( positionNeighbours, count );
+		}
+		return neighbours;
+	}
+
+	// Return the fewest moves which solve the arrangement (given as for rank), or -1 if it can't be solved.
+	int getDistance( int[] tileValues ) {
+		int moves[] = solve( tileValues );
+		return ( moves == null ) ? -1 : moves.length;
+	}
+
+	int getDistance( PuzzleData tileData ) {
+		return getDistance( tileData.getTileValueArray() );
+	}
+
+	// Return the positions of the tiles to move, in order, to solve the arrangement in the fewest moves (as OptimalSearch),
+	// or null if it can't be solved. Each move is found by looking at the neighbours of the one before.
+	int[] solve( int[] tileValues ) {
+		int tiles[] = tileValues.clone();
+		int rank = rankArrangement( tiles );
+		int entry = getEntry( rank );
+		if ( entry == getUnreached() )
+		{
+			return null;
+		}
+		int blankPosition = 0;
+		while ( tiles[blankPosition] != _numberOfTiles )
+		{
+			blankPosition++;
+		}
+		int moves[] = new int[32];
+		int numberOfMoves = 0;
+		while ( rank != 0 )
+		{
+			int closerEntry = ( entry + getModulus() - 1 ) % getModulus();
+			int tilePosition = -1;
+			for ( int neighbour : _neighbours[blankPosition] )
+			{
+				tiles[blankPosition] = tiles[neighbour];
+				tiles[neighbour] = _numberOfTiles;
+				int neighbourRank = rankArrangement( tiles );
+				if ( getEntry( neighbourRank ) == closerEntry )
+				{
+					tilePosition = neighbour;
+					rank = neighbourRank;
+					break;
+				}
+				tiles[neighbour] = tiles[blankPosition];
+				tiles[blankPosition] = _numberOfTiles;
+			}
+			if ( tilePosition < 0 )
+			{
+				throw new IllegalStateException( "The distance table for " + _rows + "x" + _columns + " is inconsistent" );
+			}
+			if ( numberOfMoves == moves.length )
+			{
+				moves = Arrays.copyOf( moves, moves.length * 2 );
+			}
+			moves[numberOfMoves++] = tilePosition;
+			blankPosition = tilePosition;
+			entry = closerEntry;
+		}
+		return Arrays.copyOf( moves, numberOfMoves );
+	}
+
+	int[] solve( PuzzleData tileData ) {
+		return solve( tileData.getTileValueArray() );
+	}
+
+	// The file holds a header (big-endian, as in PatternDatabaseFile) :
+	//	magic number ("TPDT"), format version, rows, columns, target position of the blank,
+	//	number of distances, the count at each distance (longs), number of bytes of nibbles, CRC-32C checksum of them
+	// then the nibbles, from TABLE_OFFSET.
+	static final int MAGIC = 0x54504454;
+	static final int VERSION = 1;
+	static final int TABLE_OFFSET = PatternDatabaseFile.TABLE_ALIGNMENT;
+
+	// Save the table so that it can be opened later instead of built.
+	void write( File file ) throws IOException {
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream( headerBytes );
+		header.writeInt( MAGIC );
+		header.writeInt( VERSION );
+		header.writeInt( _rows );
+		header.writeInt( _columns );
+		header.writeInt( _numberOfTiles - 1 );
+		header.writeInt( _distanceCounts.length );
+		for ( long count : _distanceCounts )
+		{
+			header.writeLong( count );
+		}
+		header.writeInt( _entries.limit() );
+		header.writeInt( checksum() );
+		header.flush();
+		if ( headerBytes.size() > TABLE_OFFSET )
+		{
+			throw new IOException( "The distance table header is too large" );
+		}
+		try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) )
+		{
+			PatternDatabaseFile.writeFully( channel, ByteBuffer.wrap( headerBytes.toByteArray() ), 0 );
+			PatternDatabaseFile.writeFully( channel, getEntries(), TABLE_OFFSET );
+		}
+	}
+
+	// Open a saved table for a puzzle of the given size. The nibbles are mapped, not read, and checked against the checksum.
+	static DistanceTable open( File file, int rows, int columns ) throws IOException {
+		try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+		{
+			ByteBuffer header = channel.map( FileChannel.MapMode.READ_ONLY, 0, Math.min( channel.size(), TABLE_OFFSET ) );
+			if ( ( header.getInt() != MAGIC ) || ( header.getInt() != VERSION ) )
+			{
+				throw new IOException( file + " is not a distance table file of version " + VERSION );
+			}
+			if ( ( header.getInt() != rows ) || ( header.getInt() != columns ) || ( header.getInt() != ( ( rows * columns ) - 1 ) ) )
+			{
+				throw new IOException( file + " is for a different puzzle" );
+			}
+			long distanceCounts[] = new long[header.getInt()];
+			for ( int distance = 0; distance < distanceCounts.length; distance++ )
+			{
+				distanceCounts[distance] = header.getLong();
+			}
+			int numberOfBytes = header.getInt();
+			int checksum = header.getInt();
+			if ( numberOfBytes != ( ( countArrangements( rows * columns ) + 1 ) / 2 ) )
+			{
+				throw new IOException( file + " has the wrong size of table" );
+			}
+			DistanceTable table = new DistanceTable( rows, columns, channel.map( FileChannel.MapMode.READ_ONLY, TABLE_OFFSET, numberOfBytes ), distanceCounts );
+			if ( table.checksum() != checksum )
+			{
+				throw new IOException( file + " is corrupt : the checksum doesn't match" );
+			}
+			return table;
+		}
+		catch ( BufferUnderflowException | IllegalArgumentException e )
+		{
+			throw new IOException( file + " has an incomplete header" );
+		}
+	}
+
+	// Open the table saved in a file if there is one, otherwise build it and save it.
+	static DistanceTable loadOrBuild( File file, int rows, int columns ) throws IOException {
+		if ( file.exists() )
+		{
+			return open( file, rows, columns );
+		}
+		DistanceTable table = new DistanceTableBuilder( rows, columns ).build();
+		table.write( file );
+		return table;
+	}
+
+    }
@@ -0,0 +1,108 @@
+/*
+ * @(#)DistanceTableBuilder.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.nio.*;
+import java.util.*;
+
+/**
+ * Build the distance table (see DistanceTable) for a small puzzle by a breadth first search of every arrangement
+ * which can be reached from the solved one.
+ */
+
+// The search starts with the solved arrangement and makes every possible move, then every possible move from those,
+// and so on. The first time an arrangement is reached gives its distance. Every move can be undone, so the distance
+// from the solved arrangement is also the distance to it.
+// The arrangements still to be expanded are kept (by rank) in a queue, which never holds more than all of the reachable
+// ones (see DistanceTable.countReachableArrangements), in the order they were reached : so they are expanded a distance at a time.
+class DistanceTableBuilder {
+	int	_rows;
+	int	_columns;
+	int	_numberOfTiles;
+	int	_neighbours[][];
+	byte	_entries[];
+	long	_distanceCounts[] = new long[64];
+	int	_maxDistance;
+
+	DistanceTableBuilder( int rows, int columns ) {
+		if ( ! DistanceTable.isSupported( rows, columns ) )
+		{
+			throw new IllegalArgumentException( "Distance tables are limited to puzzles of " + DistanceTable.MAX_TILES + " tiles" );
+		}
+		_rows = rows;
+		_columns = columns;
+		_numberOfTiles = rows * columns;
+		_neighbours = DistanceTable.getNeighbours( rows, columns );
+	}
+
+	DistanceTable build() {
+		long arrangements = DistanceTable.countArrangements( _numberOfTiles );
+		_entries = new byte[(int) ( ( arrangements + 1 ) / 2 )];
+		Arrays.fill( _entries, (byte) ( ( DistanceTable.UNREACHED << 4 ) | DistanceTable.UNREACHED ) );
+		int queue[] = new int[(int) DistanceTable.countReachableArrangements( _rows, _columns )];
+		int head = 0;
+		int tail = 0;
+
+		int tiles[] = new int[_numberOfTiles];
+		setEntry( 0, 0 );
+		countDistance( 0 );
+		queue[tail++] = 0;
+		int distance = 0;
+		int layerEnd = tail;
+		while ( head < tail )
+		{
+			if ( head == layerEnd )
+			{
+				distance++;
+				layerEnd = tail;
+			}
+			int rank = queue[head++];
+			DistanceTable.unrank( rank, tiles );
+			int blankPosition = 0;
+			while ( tiles[blankPosition] != _numberOfTiles )
+			{
+				blankPosition++;
+			}
+			for ( int tilePosition : _neighbours[blankPosition] )
+			{
+				tiles[blankPosition] = tiles[tilePosition];
+				tiles[tilePosition] = _numberOfTiles;
+				int nextRank = DistanceTable.rank( tiles );
+				if ( getEntry( nextRank ) == DistanceTable.UNREACHED )
+				{
+					setEntry( nextRank, ( distance + 1 ) % DistanceTable.DISTANCE_MODULUS );
+					countDistance( distance + 1 );
+					queue[tail++] = nextRank;
+				}
+				tiles[tilePosition] = tiles[blankPosition];
+				tiles[blankPosition] = _numberOfTiles;
+			}
+		}
+		return new DistanceTable( _rows, _columns, ByteBuffer.wrap( _entries ), Arrays.copyOf( _distanceCounts, _maxDistance + 1 ) );
+	}
+
+	int getEntry( int rank ) {
+		int entries = _entries[rank >>> 1];
+		return ( ( rank & 1 ) == 0 ) ? ( entries & 0xF ) : ( ( entries >>> 4 ) & 0xF );
+	}
+
+	void setEntry( int rank, int entry ) {
+		int shift = ( ( rank & 1 ) == 0 ) ? 0 : 4;
+		_entries[rank >>> 1] = (byte) ( ( _entries[rank >>> 1] & ~( 0xF << shift ) ) | ( entry << shift ) );
+	}
+
+	void countDistance( int distance ) {
+		if ( distance == _distanceCounts.length )
+		{
+			_distanceCounts = Arrays.copyOf( _distanceCounts, distance * 2 );
+		}
+		_distanceCounts[distance]++;
+		_maxDistance = Math.max( _maxDistance, distance );
+	}
+
+    }
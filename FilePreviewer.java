@@ -29,22 +29,40 @@ import java.beans.*;
 class FilePreviewer extends JComponent implements PropertyChangeListener {
 	ImageIcon _thumbnail = null;
 	File _fileHandle = null;
+	File _requestedFile = null;	// The file last asked for, loaded or not
+	ImageLoader _imageLoader = new ImageLoader();	// Loads the highlighted file in the background
+
+	static final int THUMBNAIL_WIDTH = 90;
 
 	public FilePreviewer(JFileChooser fileChooser) {
 		setPreferredSize(new Dimension(100, 50));
 		fileChooser.addPropertyChangeListener(this);
 	}
 
+	// Start loading the highlighted file, read no larger than needed for the thumbnail.
+	// Moving on to another file before it arrives drops it, so scrolling through large photos doesn't queue them up.
 	public void loadImage() {
+		_thumbnail = null;
+		_requestedFile = _fileHandle;
 		if ( _fileHandle != null ) {
-			ImageIcon tmpIcon = new ImageIcon(_fileHandle.getPath());
-			if ( tmpIcon.getIconWidth() > 90 ) {
+			_imageLoader.load(_fileHandle.getPath(), THUMBNAIL_WIDTH, 1, image -> imageLoaded(image));
+		} else {
+			_imageLoader.cancel();
+		}
+	}
+
+	// The image has arrived (on the event thread) : scale it for the thumbnail and show it.
+	void imageLoaded(Image image) {
+		if ( image != null ) {
+			ImageIcon tmpIcon = new ImageIcon(image);
+			if ( tmpIcon.getIconWidth() > THUMBNAIL_WIDTH ) {
 			    _thumbnail = new ImageIcon(
-				tmpIcon.getImage().getScaledInstance(90, -1, Image.SCALE_DEFAULT));
+				tmpIcon.getImage().getScaledInstance(THUMBNAIL_WIDTH, -1, Image.SCALE_DEFAULT));
 			} else {
 			    _thumbnail = tmpIcon;
 			}
 		}
+		repaint();
 	}
 
 	public void propertyChange(PropertyChangeEvent propertyChangeEvent) {
@@ -59,7 +77,7 @@ class FilePreviewer extends JComponent implements PropertyChangeListener {
 	}
 
 	public void paint(Graphics g) {
-		if ( _thumbnail == null ) {
+		if ( _requestedFile != _fileHandle ) {
 			loadImage();
 		}
 
@@ -0,0 +1,305 @@
+/*
+ * @(#)HintEngine.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+
+/**
+ * Suggests the best next move for someone solving the puzzle by hand, quickly enough to be worked out as they ask.
+ */
+
+// The hint is found by looking ahead : for each tile which can move, the moves after it are searched to a given depth,
+// valuing each arrangement reached by the moves made plus the estimate of the moves still needed (see PuzzleHeuristic).
+// The tile whose moves reach the lowest value is the hint. The depth is raised one move at a time, until the time allowed
+// (5 ms by default) runs out, when the hint from the deepest search finished is given. Within a search, a line of moves is
+// dropped once its value is no better than the best found so far, which (since the estimate never overstates the moves
+// needed) can't lose a better hint. If the search finds the puzzle solved within the depth, the hint is on a shortest
+// solution and the search stops there : small puzzles are usually solved outright well within the time.
+// The hints are remembered by the arrangement's Zobrist hash (see PuzzleState), so asking again for the same arrangement
+// is answered straight from the table. Asking again about a puzzle which hasn't changed since (the same version,
+// see PuzzleData.getVersion) doesn't even need the hash.
+// A puzzle with a table of distances (see DistanceTable) needs no search : the hint is the first move of its shortest solution.
+// The 4x4 and 5x5 puzzles are estimated with their pattern databases once those are open (see PuzzleSolver.getOpenPatternHeuristic),
+// which are asked for as soon as the engine is made. Until then the linear conflicts are used.
+// Like OptimalSearch, the search works on its own copy of the puzzle, numbering the positions row by row from 0.
+class HintEngine {
+
+	static final int NO_HINT = -1;				// The puzzle is already solved
+	static final long DEFAULT_BUDGET_NANOS = 5000000L;	// The time allowed for a hint
+	static final int MEMO_BITS = 12;			// The hints remembered (4096), by the top bits of the hash
+	static final long TIME_CHECK_MASK = 0xff;		// Look at the clock every 256 arrangements
+	static final int MAX_TABLE_TILES = 1024;		// The largest puzzle given LinearConflictHeuristic's tables (4 MB)
+
+	int		_rows;
+	int		_columns;
+	int		_blankValue;
+	PuzzleHeuristic	_heuristic;
+	long		_budgetNanos = DEFAULT_BUDGET_NANOS;
+	long		_memoHashes[] = new long[1 << MEMO_BITS];	// The hash of the arrangement for each remembered hint (0 for none)
+	int		_memoHints[] = new int[1 << MEMO_BITS];
+	long		_hits;
+	long		_misses;
+	PuzzleData	_lastData;		// The puzzle last asked about, its version then, and the hint given
+	long		_lastVersion;
+	int		_lastHint;
+
+	// The search's copy of the puzzle, as in OptimalSearch
+	int		_tiles[];
+	int		_positions[];
+	int		_neighbours[][];
+	long		_deadline;
+	boolean		_outOfTime;
+	long		_nodesExpanded;
+	int		_searchDepth;		// The depth of the deepest search finished for the last hint searched for
+
+	boolean		_awaitingPatternHeuristic;	// Is the estimate to be replaced by the pattern databases once they are open ?
+
+	HintEngine( int rows, int columns ) {
+		this( rows, columns, ( ( rows * columns ) <= MAX_TABLE_TILES ) ? new LinearConflictHeuristic( rows, columns ) : new ManhattanHeuristic( rows, columns ) );
+		_awaitingPatternHeuristic = PuzzleSolver.hasPatternDatabases( rows, columns );
+		PuzzleSolver.preparePatternHeuristic( rows, columns );
+	}
+
+	// A better estimate (e.g. from pattern databases) gives better hints for larger puzzles, in the same time.
+	HintEngine( int rows, int columns, PuzzleHeuristic heuristic ) {
+		_rows = rows;
+		_columns = columns;
+		_blankValue = rows * columns;
+		_heuristic = heuristic;
+		_tiles = new int[_blankValue];
+		_positions = new int[_blankValue];
+		_neighbours = new int[_blankValue][];
+		for ( int position = 0; position < _blankValue; position++ )
+		{
+			int row = position / columns;
+			int column = position % columns;
+			int count = 0;
+			int neighbours[] = new int[4];
+			if ( row > 0 ) { neighbours[count++] = position - columns; }
+			if ( column > 0 ) { neighbours[count++] = position - 1; }
+			if ( column < ( columns - 1 ) ) { neighbours[count++] = position + 1; }
+			if ( row < ( rows - 1 ) ) { neighbours[count++] = position + columns; }
+			_neighbours[position] = Arrays.copyOf( neighbours, count );
+		}
+	}
+
+	// Is this the engine for a puzzle of this size ?
+	boolean isFor( int rows, int columns ) { return ( ( rows == _rows ) && ( columns == _columns ) ); }
+
+	void setBudgetNanos( long budgetNanos ) { _budgetNanos = budgetNanos; }
+	long getBudgetNanos() { return _budgetNanos; }
+	long getHits() { return _hits; }
+	long getMisses() { return _misses; }
+	long getNodesExpanded() { return _nodesExpanded; }
+	int getSearchDepth() { return _searchDepth; }
+
+	// Return the position (numbered row by row) of the tile to move next, or NO_HINT if the puzzle is solved.
+	int getHint( PuzzleData tileData ) {
+		long version = tileData.getVersion();
+		if ( ( tileData == _lastData ) && ( version == _lastVersion ) )
+		{
+			_hits++;
+			return _lastHint;
+		}
+		_lastHint = getHint( tileData.getTileValueArray() );
+		_lastData = tileData;
+		_lastVersion = version;
+		return _lastHint;
+	}
+
+	// As above, with the tile values given row by row, as returned by PuzzleData.getTileValueArray.
+	int getHint( int[] tileValues ) {
+		if ( DistanceTable.hasTable( _rows, _columns ) )
+		{
+			int moves[] = DistanceTable.getTable( _rows, _columns ).solve( tileValues );
+			if ( moves != null )
+			{
+				return ( moves.length == 0 ) ? NO_HINT : moves[0];
+			}
+		}
+		if ( _awaitingPatternHeuristic )
+		{
+			AdditivePatternHeuristic patternHeuristic = PuzzleSolver.getOpenPatternHeuristic( _rows, _columns );
+			if ( patternHeuristic != null )
+			{
+				_heuristic = patternHeuristic;
+				_awaitingPatternHeuristic = false;
+			}
+		}
+		_deadline = System.nanoTime() + _budgetNanos;
+		long hash = new PuzzleState( _rows, _columns, tileValues ).getHash() | 1;	// Never 0, which marks an empty slot
+		int slot = (int) ( hash >>> ( 64 - MEMO_BITS ) );
+		if ( _memoHashes[slot] == hash )
+		{
+			_hits++;
+			return _memoHints[slot];
+		}
+		_misses++;
+		int hint = search( tileValues );
+		_memoHashes[slot] = hash;
+		_memoHints[slot] = hint;
+		return hint;
+	}
+
+	// Look ahead from the arrangement, one move deeper each time, until the time runs out or a shortest solution is found.
+	int search( int[] tileValues ) {
+		for ( int position = 0; position < _blankValue; position++ )
+		{
+			_tiles[position] = tileValues[position];
+			_positions[tileValues[position] - 1] = position;
+		}
+		int estimate = _heuristic.estimate( _tiles, _positions );
+		if ( ( estimate == 0 ) && isSolved() )
+		{
+			return NO_HINT;
+		}
+		int blankPosition = _positions[_blankValue - 1];
+		int moves[] = getMovesInOrder( blankPosition, estimate );
+		_outOfTime = false;
+		_nodesExpanded = 0;
+		int hint = moves[0];
+		for ( int depth = 1; depth < Integer.MAX_VALUE; depth++ )
+		{
+			int bestMove = NO_HINT;
+			int bestValue = Integer.MAX_VALUE;
+			for ( int tilePosition : moves )
+			{
+				int value = lookAheadFrom( tilePosition, blankPosition, depth, estimate, bestValue );
+				if ( _outOfTime )
+				{
+					return hint;
+				}
+				if ( value < bestValue )
+				{
+					bestValue = value;
+					bestMove = tilePosition;
+				}
+			}
+			hint = bestMove;
+			_searchDepth = depth;
+			// The search only stops short of the depth at a solution (the estimate is 0 only when the puzzle is solved).
+			if ( bestValue <= depth )
+			{
+				return hint;
+			}
+		}
+		return hint;
+	}
+
+	// The tiles which can move, those leaving the lowest estimate first, so that a tie goes to the move which looks best now.
+	int[] getMovesInOrder( int blankPosition, int estimate ) {
+		int moves[] = _neighbours[blankPosition].clone();
+		int estimates[] = new int[moves.length];
+		for ( int move = 0; move < moves.length; move++ )
+		{
+			int tileValue = _tiles[moves[move]];
+			moveTile( tileValue, moves[move], blankPosition );
+			estimates[move] = _heuristic.update( estimate, _tiles, _positions, tileValue, moves[move], blankPosition );
+			moveTile( tileValue, blankPosition, moves[move] );
+			for ( int earlier = move; ( earlier > 0 ) && ( estimates[earlier] < estimates[earlier - 1] ); earlier-- )
+			{
+				int swap = estimates[earlier]; estimates[earlier] = estimates[earlier - 1]; estimates[earlier - 1] = swap;
+				swap = moves[earlier]; moves[earlier] = moves[earlier - 1]; moves[earlier - 1] = swap;
+			}
+		}
+		return moves;
+	}
+
+	// Make the move of the tile into the blank, look ahead from there, then take the move back.
+	int lookAheadFrom( int tilePosition, int blankPosition, int depth, int estimate, int bound ) {
+		int tileValue = _tiles[tilePosition];
+		moveTile( tileValue, tilePosition, blankPosition );
+		int value = lookAhead( tilePosition, blankPosition, 1, depth,
+				_heuristic.update( estimate, _tiles, _positions, tileValue, tilePosition, blankPosition ), bound );
+		moveTile( tileValue, blankPosition, tilePosition );
+		return value;
+	}
+
+	// Return the lowest value (moves made plus estimate) reachable within the depth, or a value of at least the bound
+	// if none is lower. The previous position of the blank is passed so that the search never simply undoes the last move.
+	int lookAhead( int blankPosition, int previousBlankPosition, int moves, int depth, int estimate, int bound ) {
+		if ( ( ( ++_nodesExpanded & TIME_CHECK_MASK ) == 0 ) && ( System.nanoTime() > _deadline ) )
+		{
+			_outOfTime = true;
+		}
+		int total = moves + estimate;
+		if ( ( estimate == 0 ) || ( moves == depth ) || ( total >= bound ) )
+		{
+			return total;
+		}
+		int best = Integer.MAX_VALUE;
+		for ( int tilePosition : _neighbours[blankPosition] )
+		{
+			if ( _outOfTime )
+			{
+				break;
+			}
+			if ( tilePosition != previousBlankPosition )
+			{
+				int tileValue = _tiles[tilePosition];
+				moveTile( tileValue, tilePosition, blankPosition );
+				int value = lookAhead( tilePosition, blankPosition, moves + 1, depth,
+						_heuristic.update( estimate, _tiles, _positions, tileValue, tilePosition, blankPosition ), Math.min( bound, best ) );
+				moveTile( tileValue, blankPosition, tilePosition );
+				if ( value < best )
+				{
+					best = value;
+				}
+			}
+		}
+		return best;
+	}
+
+	// Move a tile value into the (blank) position, keeping both arrays consistent.
+	void moveTile( int tileValue, int fromPosition, int toPosition ) {
+		_tiles[toPosition] = tileValue;
+		_tiles[fromPosition] = _blankValue;
+		_positions[tileValue - 1] = toPosition;
+		_positions[_blankValue - 1] = fromPosition;
+	}
+
+	boolean isSolved() {
+		for ( int position = 0; position < _blankValue; position++ )
+		{
+			if ( _tiles[position] != ( position + 1 ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// The plain Manhattan distance, worked out as it goes rather than from tables, for puzzles too large for the tables.
+	static class ManhattanHeuristic implements PuzzleHeuristic {
+		int	_columns;
+		int	_blankValue;
+
+		ManhattanHeuristic( int rows, int columns ) {
+			_columns = columns;
+			_blankValue = rows * columns;
+		}
+
+		int distance( int tileValue, int position ) {
+			return Math.abs( ( position / _columns ) - ( ( tileValue - 1 ) / _columns ) ) + Math.abs( ( position % _columns ) - ( ( tileValue - 1 ) % _columns ) );
+		}
+
+		public int estimate( int[] tiles, int[] positions ) {
+			int estimate = 0;
+			for ( int tileValue = 1; tileValue < _blankValue; tileValue++ )
+			{
+				estimate += distance( tileValue, positions[tileValue - 1] );
+			}
+			return estimate;
+		}
+
+		public int update( int estimate, int[] tiles, int[] positions, int tileValue, int fromPosition, int toPosition ) {
+			return estimate - distance( tileValue, fromPosition ) + distance( tileValue, toPosition );
+		}
+	}
+
+    }
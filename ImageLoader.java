@@ -0,0 +1,143 @@
+/*
+ * @(#)ImageLoader.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import javax.imageio.*;
+import javax.imageio.stream.*;
+import javax.swing.*;
+
+/**
+ * Loads image files in the background, decoding them no larger than they will be shown, so that choosing a very
+ * large photo neither freezes the display nor fills the memory.
+ */
+
+// Each loader has a thread of its own and works on one image at a time. Asking for another image cancels the one
+// being loaded (if any), so only the image asked for last is ever delivered.
+// The image is read by ImageIO, taking only every n-th pixel of every n-th row (the largest n which still leaves the
+// image at least the target size), so a 40 megapixel photo shown in a window is never held at full size.
+// The image is handed over on the event thread, so the receiver can use it straight away in the display.
+// If ImageIO can't read the file (e.g. an unusual JPEG), it is loaded at full size by the toolkit as it always was,
+// still on the loader's thread.
+class ImageLoader {
+
+	ExecutorService		_executor;
+	Future<?>		_currentLoad;
+	volatile long		_currentGeneration;	// Incremented for each load, so a superseded load knows to stop
+	volatile ImageReader	_currentReader;		// The reader in use, so that it can be told to stop
+
+	// Start loading the image, cancelling any load still in progress.
+	// The image is decoded at (at least) the target size if it is larger, and given to the receiver on the event thread.
+	// If the file can't be read at all, the receiver is given null.
+	synchronized void load( String fileName, int targetWidth, int targetHeight, Consumer<Image> receiver ) {
+		cancel();
+		long generation = ++_currentGeneration;
+		if ( _executor == null )
+		{
+			_executor = Executors.newSingleThreadExecutor( runnable -> {
+				Thread thread = new Thread( runnable, "ImageLoader" );
+				thread.setDaemon( true );
+				thread.setPriority( Thread.MIN_PRIORITY );
+				return thread;
+			} );
+		}
+		_currentLoad = _executor.submit( () -> {
+			Image image = readImage( new File( fileName ), targetWidth, targetHeight, generation );
+			if ( generation == _currentGeneration )
+			{
+				EventQueue.invokeLater( () -> {
+					if ( generation == _currentGeneration )
+					{
+						receiver.accept( image );
+					}
+				} );
+			}
+		} );
+	}
+
+	// Stop any load in progress. Its image will not be delivered.
+	synchronized void cancel() {
+		_currentGeneration++;
+		if ( _currentLoad != null )
+		{
+			_currentLoad.cancel( true );
+			_currentLoad = null;
+		}
+		ImageReader reader = _currentReader;
+		if ( reader != null )
+		{
+			reader.abort();
+		}
+	}
+
+	// Read the image, skipping pixels to bring it down towards the target size.
+	// Returns null if the load has been cancelled.
+	Image readImage( File file, int targetWidth, int targetHeight, long generation ) {
+		try ( ImageInputStream input = ImageIO.createImageInputStream( file ) )
+		{
+			Iterator<ImageReader> readers = ( input == null ) ? null : ImageIO.getImageReaders( input );
+			if ( ( readers != null ) && readers.hasNext() )
+			{
+				ImageReader reader = readers.next();
+				_currentReader = reader;
+				try
+				{
+					if ( generation != _currentGeneration )
+					{
+						return null;
+					}
+					reader.setInput( input, true, true );
+					ImageReadParam param = reader.getDefaultReadParam();
+					int subsampling = getSubsampling( reader.getWidth( 0 ), reader.getHeight( 0 ), targetWidth, targetHeight );
+					param.setSourceSubsampling( subsampling, subsampling, 0, 0 );
+					BufferedImage image = reader.read( 0, param );
+					return ( generation == _currentGeneration ) ? image : null;
+				}
+				finally
+				{
+					_currentReader = null;
+					reader.dispose();
+				}
+			}
+		}
+		catch ( IOException | RuntimeException e )
+		{
+//			Fall back on the toolkit, below. A cancelled read may also end up here, and is dropped.
+		}
+		if ( ( generation != _currentGeneration ) || ! file.canRead() )
+		{
+			return null;
+		}
+		ImageIcon icon = new ImageIcon( file.getPath() );	// Waits here, rather than on the event thread, for the whole image
+		return ( icon.getImageLoadStatus() == MediaTracker.COMPLETE ) ? icon.getImage() : null;
+	}
+
+	// Has the whole of the image been loaded ? An image from ImageIO always has, a toolkit image may still be arriving.
+	static boolean isComplete( Image image ) {
+		if ( image instanceof BufferedImage )
+		{
+			return true;
+		}
+		return ( ( Toolkit.getDefaultToolkit().checkImage( image, -1, -1, null ) & ImageObserver.ALLBITS ) != 0 );
+	}
+
+	// The largest step between the pixels read which still leaves the image at least the target size.
+	static int getSubsampling( int imageWidth, int imageHeight, int targetWidth, int targetHeight ) {
+		if ( ( targetWidth <= 0 ) || ( targetHeight <= 0 ) )
+		{
+			return 1;
+		}
+		return Math.max( 1, Math.min( imageWidth / targetWidth, imageHeight / targetHeight ) );
+	}
+
+    }
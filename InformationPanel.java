@@ -43,7 +43,7 @@ class InformationPanel extends Panel implements PuzzleListener
 //		Store the reference to the puzzle data
 		setData( data );
 
-		getData().addPuzzleListener( this );
+		getData().addPuzzleListener( this, EnumSet.of( PuzzleEventKind.MESSAGE ), false );	// Only the messages are of interest
 
 //		Build the controls
 		buildControls();
@@ -127,11 +127,8 @@ class InformationPanel extends Panel implements PuzzleListener
 
 //	This is the method from the PuzzleListener interface. When the puzzle needs to change, this method should be told about it (i.e called)
 	public void puzzleChange(PuzzleEvent puzzleEvent) {
-//		The associated event passes the position where the puzzle may change : extract it for later use.
-		String puzzleCommand = puzzleEvent.getActionCommand();
-
-//		Display the resize controls
-		if ( puzzleCommand.equals("Message") )
+//		Display the message
+		if ( puzzleEvent.getKind() == PuzzleEventKind.MESSAGE )
 		{
 			String infoMessage = ((MessageEvent) puzzleEvent).getMessage();
 			setInformation( infoMessage );
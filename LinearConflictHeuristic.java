@@ -0,0 +1,177 @@
+/*
+ * @(#)LinearConflictHeuristic.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * The standard estimate for the sliding tile puzzle : the Manhattan distance of every tile from its target position
+ * plus two moves for each tile which must leave its target row (or column) to let others past.
+ */
+
+// The Manhattan distance is the number of rows plus the number of columns between a tile and its target position.
+// A "linear conflict" occurs when two tiles are in the row (or column) they belong in, but in the wrong order.
+// One of them must step out of the line and back again, which the Manhattan distance doesn't count.
+// For each line, the smallest number of tiles which must step out is the number of tiles in their target line
+// less the longest run (not necessarily adjacent) of them which is already in the right order.
+// The object holds no search state, so one can be shared by any number of searches.
+class LinearConflictHeuristic implements PuzzleHeuristic {
+	int	_rows;
+	int	_columns;
+	int	_blankValue;
+	int	_distances[][];		// The Manhattan distance for each value (less 1) at each position
+
+	// Conflicts are only counted for lines of up to this many tiles (see longestRunBefore).
+	static final int MAX_CONFLICT_LINE = 8;
+
+	LinearConflictHeuristic( int rows, int columns ) {
+		_rows = rows;
+		_columns = columns;
+		_blankValue = rows * columns;
+		_distances = new int[_blankValue][_blankValue];
+
+		// The distances never change, so calculate them all up front.
+		for ( int tileValue = 1; tileValue < _blankValue; tileValue++ )
+		{
+			int targetRow = ( tileValue - 1 ) / columns;
+			int targetColumn = ( tileValue - 1 ) % columns;
+			for ( int position = 0; position < _blankValue; position++ )
+			{
+				_distances[tileValue - 1][position] = Math.abs( ( position / columns ) - targetRow ) + Math.abs( ( position % columns ) - targetColumn );
+			}
+		}
+	}
+
+	LinearConflictHeuristic( PuzzleData tileData ) {
+		this( tileData.getRows(), tileData.getColumns() );
+	}
+
+	public int estimate( int[] tiles, int[] positions ) {
+		int estimate = 0;
+		for ( int tileValue = 1; tileValue < _blankValue; tileValue++ )
+		{
+			estimate += _distances[tileValue - 1][positions[tileValue - 1]];
+		}
+		for ( int row = 0; row < _rows; row++ )
+		{
+			estimate += rowConflicts( tiles, row, -1, 0 );
+		}
+		for ( int column = 0; column < _columns; column++ )
+		{
+			estimate += columnConflicts( tiles, column, -1, 0 );
+		}
+		return estimate;
+	}
+
+	// Only the lines the tile has left or entered can change. A tile moving up or down stays in the same column,
+	// and the order of the tiles in that column is unchanged, so only the two rows need to be recounted (and vice versa).
+	// A line only needs recounting if it is the target line for the tile, otherwise the tile takes no part in its conflicts.
+	// The "before" counts are made by pretending the arrays have not changed at the relevant position.
+	public int update( int estimate, int[] tiles, int[] positions, int tileValue, int fromPosition, int toPosition ) {
+		estimate += _distances[tileValue - 1][toPosition] - _distances[tileValue - 1][fromPosition];
+
+		int targetPosition = tileValue - 1;
+		int fromRow = fromPosition / _columns;
+		int toRow = toPosition / _columns;
+		if ( fromRow != toRow )
+		{
+			int targetRow = targetPosition / _columns;
+			if ( targetRow == fromRow )
+			{
+				estimate += rowConflicts( tiles, fromRow, -1, 0 ) - rowConflicts( tiles, fromRow, fromPosition, tileValue );
+			}
+			else if ( targetRow == toRow )
+			{
+				estimate += rowConflicts( tiles, toRow, -1, 0 ) - rowConflicts( tiles, toRow, toPosition, _blankValue );
+			}
+		}
+		else
+		{
+			int targetColumn = targetPosition % _columns;
+			int fromColumn = fromPosition % _columns;
+			int toColumn = toPosition % _columns;
+			if ( targetColumn == fromColumn )
+			{
+				estimate += columnConflicts( tiles, fromColumn, -1, 0 ) - columnConflicts( tiles, fromColumn, fromPosition, tileValue );
+			}
+			else if ( targetColumn == toColumn )
+			{
+				estimate += columnConflicts( tiles, toColumn, -1, 0 ) - columnConflicts( tiles, toColumn, toPosition, _blankValue );
+			}
+		}
+		return estimate;
+	}
+
+	// Count the conflicts in a row. The tile at the override position (if any) is read as the override value instead.
+	int rowConflicts( int[] tiles, int row, int overridePosition, int overrideValue ) {
+		if ( _columns > MAX_CONFLICT_LINE )
+		{
+			return 0;
+		}
+		int runs = 0;	// The longest ordered run ending at each target column, packed four bits per column
+		int inLine = 0;
+		int longestRun = 0;
+		for ( int position = row * _columns; position < ( row + 1 ) * _columns; position++ )
+		{
+			int tileValue = ( position == overridePosition ) ? overrideValue : tiles[position];
+			if ( ( tileValue != _blankValue ) && ( ( ( tileValue - 1 ) / _columns ) == row ) )
+			{
+				inLine++;
+				int targetColumn = ( tileValue - 1 ) % _columns;
+				int run = longestRunBefore( runs, targetColumn ) + 1;
+				runs |= run << ( 4 * targetColumn );
+				if ( run > longestRun )
+				{
+					longestRun = run;
+				}
+			}
+		}
+		return 2 * ( inLine - longestRun );
+	}
+
+	// Count the conflicts in a column. The tile at the override position (if any) is read as the override value instead.
+	int columnConflicts( int[] tiles, int column, int overridePosition, int overrideValue ) {
+		if ( _rows > MAX_CONFLICT_LINE )
+		{
+			return 0;
+		}
+		int runs = 0;	// The longest ordered run ending at each target row, packed four bits per row
+		int inLine = 0;
+		int longestRun = 0;
+		for ( int position = column; position < _blankValue; position += _columns )
+		{
+			int tileValue = ( position == overridePosition ) ? overrideValue : tiles[position];
+			if ( ( tileValue != _blankValue ) && ( ( ( tileValue - 1 ) % _columns ) == column ) )
+			{
+				inLine++;
+				int targetRow = ( tileValue - 1 ) / _columns;
+				int run = longestRunBefore( runs, targetRow ) + 1;
+				runs |= run << ( 4 * targetRow );
+				if ( run > longestRun )
+				{
+					longestRun = run;
+				}
+			}
+		}
+		return 2 * ( inLine - longestRun );
+	}
+
+	// The longest ordered run among the tiles seen so far which belong before the given place in the line.
+	// The runs are packed four bits to a place, so no array is needed (the lines are at most eight tiles long).
+	static int longestRunBefore( int runs, int place ) {
+		int longestRun = 0;
+		for ( int earlierPlace = 0; earlierPlace < place; earlierPlace++ )
+		{
+			int run = ( runs >>> ( 4 * earlierPlace ) ) & 0xF;
+			if ( run > longestRun )
+			{
+				longestRun = run;
+			}
+		}
+		return longestRun;
+	}
+
+    }
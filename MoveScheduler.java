@@ -0,0 +1,118 @@
+/*
+ * @(#)MoveScheduler.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.function.*;
+
+/**
+ * Paces the automatic moves of the puzzle at a steady rate, from one move every few seconds to as fast as the
+ * display can keep up, making them on the event thread so that they never clash with the drawing.
+ */
+
+// The moves are made by a timer which ticks once a frame (or once a move, if the moves are slower than that).
+// Each tick makes as many moves as have fallen due since the last, at the current rate, so at high rates several
+// moves are made per frame and the display is painted once for all of them : 1000 moves a second come out as about
+// 17 moves in each of 60 frames. Running at the maximum rate, each tick makes moves for half a frame, leaving the
+// rest of the frame for painting and the user.
+// Since the moves and the painting both happen on the event thread, a frame never shows a move half made.
+// If the moves stop (nothing to solve) or the ticks are held up, the moves don't pile up to be made in a rush later.
+class MoveScheduler {
+
+	static final double MAXIMUM_RATE = Double.POSITIVE_INFINITY;	// As fast as possible
+	static final int FRAME_MILLIS = 16;				// About 60 frames a second
+	static final long MAXIMUM_RATE_BUDGET_NANOS = ( FRAME_MILLIS * 1000000L ) / 2;	// The time per frame for moves at the maximum rate
+	static final int MAXIMUM_FRAMES_OWED = 2;			// The most frames of moves to catch up on at once
+	static final double HALF_A_MOVE = 0.5;				// Starting half a move in hand, a late tick doesn't miss its move
+
+	BooleanSupplier		_move;			// Makes a move, returning false if there was no move to make
+	javax.swing.Timer	_timer;
+	double			_movesPerSecond = 2;
+	double			_movesOwed;		// The moves due but not yet made (the fraction of one, usually)
+	long			_lastTickNanos;
+	long			_movesMade;		// The total moves made, for anyone measuring the rate
+	long			_frames;		// The ticks which made at least one move
+
+	MoveScheduler( BooleanSupplier move ) {
+		_move = move;
+		_timer = new javax.swing.Timer( FRAME_MILLIS, event -> tick() );
+		_timer.setCoalesce( true );
+	}
+
+	// Set the rate in moves per second, or MAXIMUM_RATE for as fast as possible.
+	void setRate( double movesPerSecond ) {
+		_movesPerSecond = movesPerSecond;
+		_movesOwed = HALF_A_MOVE;
+		int delay = ( movesPerSecond >= ( 1000.0 / FRAME_MILLIS ) ) ? FRAME_MILLIS : (int) Math.round( 1000.0 / movesPerSecond );
+		_timer.setDelay( delay );
+		_timer.setInitialDelay( delay );
+		if ( _timer.isRunning() )
+		{
+			_timer.restart();
+		}
+		_lastTickNanos = System.nanoTime();
+	}
+
+	double getRate() { return _movesPerSecond; }
+
+	void start() {
+		_movesOwed = HALF_A_MOVE;
+		_lastTickNanos = System.nanoTime();
+		_timer.start();
+	}
+
+	void stop() {
+		_timer.stop();
+	}
+
+	boolean isRunning() { return _timer.isRunning(); }
+	long getMovesMade() { return _movesMade; }
+	long getFrames() { return _frames; }
+
+	// Make the moves which have fallen due since the last tick.
+	void tick() {
+		long now = System.nanoTime();
+		long elapsedNanos = now - _lastTickNanos;
+		_lastTickNanos = now;
+		int movesThisFrame = 0;
+
+		if ( _movesPerSecond == MAXIMUM_RATE )
+		{
+			long deadline = now + MAXIMUM_RATE_BUDGET_NANOS;
+			while ( _move.getAsBoolean() )
+			{
+				movesThisFrame++;
+				if ( System.nanoTime() >= deadline )
+				{
+					break;
+				}
+			}
+		}
+		else
+		{
+			double framesOwed = Math.min( elapsedNanos / ( _timer.getDelay() * 1e6 ), MAXIMUM_FRAMES_OWED );
+			_movesOwed += framesOwed * _movesPerSecond * ( _timer.getDelay() / 1000.0 );
+			while ( _movesOwed >= 1 )
+			{
+				if ( ! _move.getAsBoolean() )
+				{
+					_movesOwed = HALF_A_MOVE;
+					break;
+				}
+				_movesOwed--;
+				movesThisFrame++;
+			}
+		}
+
+		if ( movesThisFrame > 0 )
+		{
+			_movesMade += movesThisFrame;
+			_frames++;
+		}
+	}
+
+    }
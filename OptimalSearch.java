@@ -0,0 +1,165 @@
+/*
+ * @(#)OptimalSearch.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * Find the shortest possible solution for the puzzle using an iterative deepening A* (IDA*) search.
+ * The search works on its own copy of the puzzle, so the puzzle itself is not changed.
+ */
+
+// IDA* is a depth first search which abandons any path once the moves so far plus the estimate of the moves still needed
+// exceeds a bound. If no solution is found, the bound is raised to the smallest total which exceeded it and the search is repeated.
+// As long as the estimate never overstates the moves needed (see PuzzleHeuristic), the first solution found is a shortest one.
+// The only memory used is the copy of the puzzle and the path, so it never runs out of memory however long it searches.
+// Moves are recorded as the position of the tile which moved, numbered row by row from the top left (from 0).
+class OptimalSearch {
+	int		_rows;
+	int		_columns;
+	int		_blankValue;
+	int		_tiles[];		// The tile value at each position
+	int		_positions[];		// The position of each value (less 1)
+	int		_neighbours[][];	// The positions next to each position
+	PuzzleHeuristic	_heuristic;
+
+	int		_path[];		// The moves made so far in the current attempt
+	int		_nextBound;		// The smallest total estimate which exceeded the current bound
+	long		_nodesExpanded;		// The number of arrangements examined (across all attempts)
+
+	static final int NO_BOUND = Integer.MAX_VALUE;
+	static final long INTERRUPT_CHECK_MASK = 0xfff;	// See whether the search has been interrupted every 4096 arrangements
+
+	OptimalSearch( PuzzleData tileData, PuzzleHeuristic heuristic ) {
+		this( tileData.getRows(), tileData.getColumns(), tileData.getTileValueArray(), heuristic );
+	}
+
+	// The tile values are given row by row, as returned by PuzzleData.getTileValueArray. The array is copied.
+	OptimalSearch( int rows, int columns, int[] tiles, PuzzleHeuristic heuristic ) {
+		_rows = rows;
+		_columns = columns;
+		_blankValue = rows * columns;
+		_heuristic = heuristic;
+		_tiles = new int[_blankValue];
+		_positions = new int[_blankValue];
+		for ( int position = 0; position < _blankValue; position++ )
+		{
+			_tiles[position] = tiles[position];
+			_positions[tiles[position] - 1] = position;
+		}
+
+		// Work out the neighbours once, so that the search doesn't need to check the edges of the puzzle.
+		_neighbours = new int[_blankValue][];
+		for ( int position = 0; position < _blankValue; position++ )
+		{
+			int row = position / columns;
+			int column = position % columns;
+			int count = 0;
+			int neighbours[] = new int[4];
+			if ( row > 0 ) { neighbours[count++] = position - columns; }
+			if ( column > 0 ) { neighbours[count++] = position - 1; }
+			if ( column < ( columns - 1 ) ) { neighbours[count++] = position + 1; }
+			if ( row < ( rows - 1 ) ) { neighbours[count++] = position + columns; }
+			_neighbours[position] = java.util.Arrays.copyOf( neighbours, count );
+		}
+		_path = new int[64];
+	}
+
+	// Return the number of arrangements examined by the search.
+	long getNodesExpanded() { return _nodesExpanded; }
+
+	// Search for a shortest solution and return the positions of the tiles to move, in order.
+	// If the puzzle can't be solved (which can only happen if it was not built by moving tiles), null is returned.
+	// A search on a thread which is interrupted (e.g. a background search no longer wanted) stops with a CancellationException.
+	int[] solve() {
+		if ( ! PuzzleData.isSolvable( _tiles, _rows, _columns ) )
+		{
+			return null;
+		}
+
+		int estimate = _heuristic.estimate( _tiles, _positions );
+		int bound = estimate;
+		while ( true )
+		{
+			_nextBound = NO_BOUND;
+			int length = search( _positions[_blankValue - 1], -1, 0, bound, estimate );
+			if ( length >= 0 )
+			{
+				return java.util.Arrays.copyOf( _path, length );
+			}
+			bound = _nextBound;
+		}
+	}
+
+	// Search below the current arrangement, having already made the given number of moves.
+	// The previous position of the blank is passed so that the search never simply undoes the last move.
+	// Returns the length of the solution when one is found, otherwise -1.
+	int search( int blankPosition, int previousBlankPosition, int moves, int bound, int estimate ) {
+		_nodesExpanded++;
+		if ( ( ( _nodesExpanded & INTERRUPT_CHECK_MASK ) == 0 ) && Thread.currentThread().isInterrupted() )
+		{
+			throw new java.util.concurrent.CancellationException( "The search was interrupted" );
+		}
+		int total = moves + estimate;
+		if ( total > bound )
+		{
+			if ( total < _nextBound )
+			{
+				_nextBound = total;
+			}
+			return -1;
+		}
+		if ( ( estimate == 0 ) && isSolved() )
+		{
+			return moves;
+		}
+
+		if ( moves == _path.length )
+		{
+			_path = java.util.Arrays.copyOf( _path, _path.length * 2 );
+		}
+
+		for ( int tilePosition : _neighbours[blankPosition] )
+		{
+			if ( tilePosition != previousBlankPosition )
+			{
+				// Slide the tile into the blank, search from there, then slide it back.
+				int tileValue = _tiles[tilePosition];
+				moveTile( tileValue, tilePosition, blankPosition );
+				_path[moves] = tilePosition;
+				int length = search( tilePosition, blankPosition, moves + 1, bound,
+						_heuristic.update( estimate, _tiles, _positions, tileValue, tilePosition, blankPosition ) );
+				moveTile( tileValue, blankPosition, tilePosition );
+				if ( length >= 0 )
+				{
+					return length;
+				}
+			}
+		}
+		return -1;
+	}
+
+	// Move a tile value into the (blank) position, keeping both arrays consistent.
+	void moveTile( int tileValue, int fromPosition, int toPosition ) {
+		_tiles[toPosition] = tileValue;
+		_tiles[fromPosition] = _blankValue;
+		_positions[tileValue - 1] = toPosition;
+		_positions[_blankValue - 1] = fromPosition;
+	}
+
+	// The heuristic can only tell us how far there is still to go, so check the arrangement when it says there's nothing left.
+	boolean isSolved() {
+		for ( int position = 0; position < _blankValue; position++ )
+		{
+			if ( _tiles[position] != ( position + 1 ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+    }
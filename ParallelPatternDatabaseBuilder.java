@@ -0,0 +1,173 @@
+/*
+ * @(#)ParallelPatternDatabaseBuilder.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Build a pattern database using all of the available processors.
+ * The result is exactly the same as the single threaded PatternDatabaseBuilder, just sooner.
+ */
+
+// The search still works one distance at a time, but the placements at each distance are shared out over a fork/join pool.
+// The bit sets are held in atomic arrays so that a state can be marked without locking : a thread sets the bit with
+// compare-and-set, and only the thread which actually changed the bit goes on to add the state to the next frontier.
+// Every state added while expanding one distance is given the next distance, whichever thread finds it first,
+// so the distances (and hence the database) don't depend on the order the threads run in.
+class ParallelPatternDatabaseBuilder extends PatternDatabaseBuilder {
+	ForkJoinPool		_pool;
+	AtomicLongArray		_atomicVisited;
+	AtomicLongArray		_atomicFrontier;
+	AtomicLongArray		_atomicNextFrontier;
+	LongAdder		_nextFrontierCount = new LongAdder();
+
+	// The number of placements (or bit set words) each task handles before it is worth splitting the work.
+	static final int TASK_SIZE = 1 << 14;
+
+	ParallelPatternDatabaseBuilder( PuzzleData tileData, int[] tileValues ) {
+		this( tileData, tileValues, ForkJoinPool.commonPool() );
+	}
+
+	ParallelPatternDatabaseBuilder( PuzzleData tileData, int[] tileValues, ForkJoinPool pool ) {
+		super( tileData, tileValues );
+		_pool = pool;
+	}
+
+	void allocateStates( int bitSetSize ) {
+		_atomicVisited = new AtomicLongArray( bitSetSize );
+		_atomicFrontier = new AtomicLongArray( bitSetSize );
+		_atomicNextFrontier = new AtomicLongArray( bitSetSize );
+	}
+
+	void releaseStates() {
+		_atomicVisited = null;
+		_atomicFrontier = null;
+		_atomicNextFrontier = null;
+	}
+
+	boolean swapFrontiers() {
+		AtomicLongArray swap = _atomicFrontier;
+		_atomicFrontier = _atomicNextFrontier;
+		_atomicNextFrontier = swap;
+		_pool.invoke( new ClearTask( _atomicNextFrontier, 0, _atomicNextFrontier.length() ) );
+		return ( _nextFrontierCount.sumThenReset() > 0 );
+	}
+
+	void expandLayer( PatternDatabase database, int distance ) {
+		_pool.invoke( new ExpandTask( database, 0, _numberOfEntries, distance ) );
+	}
+
+	// Mark the state as visited, unless another thread got there first.
+	void addState( int rank, long blankRegion, int distance ) {
+		long bit = ( (long) rank * _cells ) + Long.numberOfTrailingZeros( blankRegion );
+		int word = (int) ( bit >>> 6 );
+		long mask = 1L << bit;
+		long visited = _atomicVisited.get( word );
+		while ( ( visited & mask ) == 0 )
+		{
+			if ( _atomicVisited.compareAndSet( word, visited, visited | mask ) )
+			{
+				setBit( _atomicNextFrontier, word, mask );
+				_nextFrontierCount.increment();
+				// Only states at the same distance can race here, so any thread writing the distance writes the same value.
+				if ( ( _distances[rank] & 0xFF ) == PatternDatabase.UNKNOWN_DISTANCE )
+				{
+					_distances[rank] = (byte) Math.min( distance, PatternDatabase.MAX_DISTANCE );
+				}
+				return;
+			}
+			visited = _atomicVisited.get( word );
+		}
+	}
+
+	// Set a bit in an atomic array without losing bits set at the same time by other threads.
+	static void setBit( AtomicLongArray bits, int word, long mask ) {
+		long value = bits.get( word );
+		while ( ( ( value & mask ) == 0 ) && ! bits.compareAndSet( word, value, value | mask ) )
+		{
+			value = bits.get( word );
+		}
+	}
+
+	long frontierRegions( int rank ) {
+		long firstBit = (long) rank * _cells;
+		int word = (int) ( firstBit >>> 6 );
+		int offset = (int) ( firstBit & 63 );
+		long regions = _atomicFrontier.get( word ) >>> offset;
+		if ( ( offset != 0 ) && ( ( offset + _cells ) > 64 ) )
+		{
+			regions |= _atomicFrontier.get( word + 1 ) << ( 64 - offset );
+		}
+		return regions & _allCells;
+	}
+
+	// Expand a range of placements, splitting the range in two while it is large enough to be worth sharing out.
+	class ExpandTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		PatternDatabase	_database;
+		int		_firstRank;
+		int		_lastRank;	// One past the last rank in the range
+		int		_distance;
+
+		ExpandTask( PatternDatabase database, int firstRank, int lastRank, int distance ) {
+			_database = database;
+			_firstRank = firstRank;
+			_lastRank = lastRank;
+			_distance = distance;
+		}
+
+		protected void compute() {
+			if ( ( _lastRank - _firstRank ) <= TASK_SIZE )
+			{
+				int tilePositions[] = new int[_tileValues.length];
+				for ( int rank = _firstRank; rank < _lastRank; rank++ )
+				{
+					expandPlacement( _database, rank, tilePositions, _distance );
+				}
+			}
+			else
+			{
+				int middleRank = ( _firstRank + _lastRank ) >>> 1;
+				invokeAll( new ExpandTask( _database, _firstRank, middleRank, _distance ),
+					   new ExpandTask( _database, middleRank, _lastRank, _distance ) );
+			}
+		}
+	}
+
+	// Clear a range of an atomic array, splitting the range in the same way.
+	static class ClearTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		AtomicLongArray	_bits;
+		int		_firstWord;
+		int		_lastWord;	// One past the last word in the range
+
+		ClearTask( AtomicLongArray bits, int firstWord, int lastWord ) {
+			_bits = bits;
+			_firstWord = firstWord;
+			_lastWord = lastWord;
+		}
+
+		protected void compute() {
+			if ( ( _lastWord - _firstWord ) <= TASK_SIZE )
+			{
+				for ( int word = _firstWord; word < _lastWord; word++ )
+				{
+					_bits.lazySet( word, 0L );
+				}
+			}
+			else
+			{
+				int middleWord = ( _firstWord + _lastWord ) >>> 1;
+				invokeAll( new ClearTask( _bits, _firstWord, middleWord ),
+					   new ClearTask( _bits, middleWord, _lastWord ) );
+			}
+		}
+	}
+
+    }
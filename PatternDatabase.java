@@ -0,0 +1,150 @@
+/*
+ * @(#)PatternDatabase.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.nio.*;
+import java.util.zip.*;
+
+/**
+ * A pattern database records, for every possible placement of a group of tiles, the number of moves of those tiles
+ * needed to get them all to their target positions. It is built by PatternDatabaseBuilder.
+ */
+
+// The other tiles are ignored (as if they were all blank) and only moves of the tiles in the group are counted.
+// This means that the values from databases for separate groups can be added together and still never overstate
+// the number of moves needed to solve the puzzle (see AdditivePatternHeuristic).
+// Each placement of the group is numbered (ranked) by treating the positions of the tiles, in the order of the group,
+// as digits in a mixed base : the first tile can be in any of the positions, the second in any of the rest and so on.
+// The distance for each placement is held in a single byte. The bytes are read through a buffer, so they can either be
+// on the heap (after a build) or mapped straight from a file (see PatternDatabaseFile) without being copied.
+class PatternDatabase {
+	int	_rows;
+	int	_columns;
+	int	_tileValues[];		// The values of the tiles in the group
+	ByteBuffer	_distances;	// The distance for each placement, indexed by its rank
+
+	// The maximum distance which can be stored. The byte value 0xFF is used for placements which haven't been reached.
+	static final int MAX_DISTANCE = 254;
+	static final int UNKNOWN_DISTANCE = 0xFF;
+
+	PatternDatabase( int rows, int columns, int[] tileValues, byte[] distances ) {
+		this( rows, columns, tileValues, ByteBuffer.wrap( distances ) );
+	}
+
+	// The buffer holds one byte for each placement, from its start to its limit. Only absolute reads are used,
+	// so the buffer can be shared by any number of threads.
+	PatternDatabase( int rows, int columns, int[] tileValues, ByteBuffer distances ) {
+		_rows = rows;
+		_columns = columns;
+		_tileValues = tileValues.clone();
+		_distances = distances;
+	}
+
+	int getRows() { return _rows; }
+	int getColumns() { return _columns; }
+	int[] getTileValues() { return _tileValues.clone(); }
+	int getNumberOfTiles() { return _tileValues.length; }
+	int getNumberOfEntries() { return _distances.limit(); }
+
+	// Return a read only view of the distances, e.g. for writing them to a file.
+	ByteBuffer getDistances() { return _distances.asReadOnlyBuffer(); }
+
+	// The number of placements of the given number of tiles in the given number of positions.
+	static long countEntries( int positions, int tiles ) {
+		long entries = 1;
+		for ( int tile = 0; tile < tiles; tile++ )
+		{
+			entries *= ( positions - tile );
+		}
+		return entries;
+	}
+
+	// Compare the distances with another database, e.g. to check a build made in a different way.
+	boolean hasSameDistances( PatternDatabase otherDatabase ) {
+		return getDistances().equals( otherDatabase.getDistances() );
+	}
+
+	// Calculate a checksum of the distances, so that a stored copy can be checked.
+	int checksum() {
+		CRC32C checksum = new CRC32C();
+		checksum.update( getDistances() );
+		return (int) checksum.getValue();
+	}
+
+	// Return the distance for the placement with the given rank.
+	int getDistance( int rank ) { return _distances.get( rank ) & 0xFF; }
+
+	// Return the distance for the group, given the position of every value (indexed by value - 1) as the searches hold them.
+	int getDistance( int[] positions ) {
+		return getDistance( rankPositions( positions, 0, -1 ) );
+	}
+
+	// As above, but pretend that one tile value is at a different position (used to find the distance before a move).
+	int getDistance( int[] positions, int overrideValue, int overridePosition ) {
+		return getDistance( rankPositions( positions, overrideValue, overridePosition ) );
+	}
+
+	// Calculate the rank of the group's placement from the position of every value. The override works as in getDistance.
+	int rankPositions( int[] positions, int overrideValue, int overridePosition ) {
+		int cells = _rows * _columns;
+		long used = 0;
+		int rank = 0;
+		for ( int tile = 0; tile < _tileValues.length; tile++ )
+		{
+			int tileValue = _tileValues[tile];
+			int position = ( tileValue == overrideValue ) ? overridePosition : positions[tileValue - 1];
+			// The digit is the position counted among those not taken by the earlier tiles.
+			int digit = position - Long.bitCount( used & ( ( 1L << position ) - 1 ) );
+			rank = ( rank * ( cells - tile ) ) + digit;
+			used |= 1L << position;
+		}
+		return rank;
+	}
+
+	// Calculate the rank of a placement given as the position of each tile in the group, in the order of the group.
+	int rank( int[] tilePositions ) {
+		int cells = _rows * _columns;
+		long used = 0;
+		int rank = 0;
+		for ( int tile = 0; tile < tilePositions.length; tile++ )
+		{
+			int position = tilePositions[tile];
+			int digit = position - Long.bitCount( used & ( ( 1L << position ) - 1 ) );
+			rank = ( rank * ( cells - tile ) ) + digit;
+			used |= 1L << position;
+		}
+		return rank;
+	}
+
+	// Reverse the ranking : fill in the position of each tile in the group for the given rank.
+	void unrank( int rank, int[] tilePositions ) {
+		int cells = _rows * _columns;
+		int tiles = tilePositions.length;
+		// Pull the digits out of the rank, last tile first.
+		for ( int tile = tiles - 1; tile >= 0; tile-- )
+		{
+			int base = cells - tile;
+			tilePositions[tile] = rank % base;
+			rank /= base;
+		}
+		// Convert each digit back to a position by skipping over the positions taken by the earlier tiles.
+		long used = 0;
+		for ( int tile = 0; tile < tiles; tile++ )
+		{
+			long free = ~used;
+			for ( int skip = tilePositions[tile]; skip > 0; skip-- )
+			{
+				free &= free - 1;
+			}
+			int position = Long.numberOfTrailingZeros( free );
+			tilePositions[tile] = position;
+			used |= 1L << position;
+		}
+	}
+
+    }
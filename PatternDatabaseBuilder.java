@@ -0,0 +1,217 @@
+/*
+ * @(#)PatternDatabaseBuilder.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * Build a pattern database (see PatternDatabase) for a group of tiles by working backwards from the solved puzzle.
+ */
+
+// The build is a breadth first search which starts with the group in its target positions and makes every possible move,
+// then every possible move from those, and so on. The first time a placement is reached gives its distance.
+// Only the moves of tiles in the group count. The blank can move through the positions not taken by the group for free,
+// so the blank is only tracked by the "region" of free positions it is in. As the blank can reach any position in
+// its region without cost, the region is identified by its lowest position.
+// Sets of positions are held as bit masks (bit n for position n), so puzzles of up to 64 positions can be handled.
+// The searched states are marked in bit sets with a bit for each combination of placement and blank position.
+class PatternDatabaseBuilder {
+	int	_rows;
+	int	_columns;
+	int	_cells;
+	int	_tileValues[];		// The values of the tiles in the group
+	int	_targetPositions[];	// The target position of each tile in the group
+	int	_blankTargetPosition;
+	long	_allCells;		// A mask of every position in the puzzle
+	long	_leftColumn;		// A mask of the positions in the leftmost column
+	long	_rightColumn;		// A mask of the positions in the rightmost column
+	int	_numberOfEntries;
+
+	long	_visited[];		// The states (placement and blank region) which have been reached
+	long	_frontier[];		// The states reached at the current distance, still to be expanded
+	long	_nextFrontier[];	// The states reached at the next distance
+	long	_nextFrontierSize;	// The number of states reached at the next distance
+	byte	_distances[];
+
+	// The target positions are taken from the puzzle data, so the builder works for any shape of puzzle.
+	PatternDatabaseBuilder( PuzzleData tileData, int[] tileValues ) {
+		_rows = tileData.getRows();
+		_columns = tileData.getColumns();
+		_cells = _rows * _columns;
+		if ( _cells > 64 )
+		{
+			throw new IllegalArgumentException( "Pattern databases are limited to puzzles of 64 tiles" );
+		}
+		long entries = PatternDatabase.countEntries( _cells, tileValues.length );
+		if ( ( entries * _cells ) > ( 64L * Integer.MAX_VALUE ) )
+		{
+			throw new IllegalArgumentException( "Too many tiles in the group : " + tileValues.length );
+		}
+		_numberOfEntries = (int) entries;
+		_tileValues = tileValues.clone();
+		_targetPositions = new int[tileValues.length];
+		for ( int tile = 0; tile < tileValues.length; tile++ )
+		{
+			_targetPositions[tile] = getIndex( tileData.getTargetPositionForValue( tileValues[tile] ) );
+		}
+		_blankTargetPosition = getIndex( tileData.getTargetPositionForValue( tileData.blankTileValue() ) );
+
+		_allCells = ( _cells == 64 ) ? -1L : ( 1L << _cells ) - 1;
+		for ( int row = 0; row < _rows; row++ )
+		{
+			_leftColumn |= 1L << ( row * _columns );
+			_rightColumn |= 1L << ( ( row * _columns ) + _columns - 1 );
+		}
+	}
+
+	// Convert a puzzle position to the index of the position, numbered row by row from the top left.
+	int getIndex( PuzzlePosition tilePosition ) {
+		return ( tilePosition.getRow() * _columns ) + tilePosition.getColumn();
+	}
+
+	// Search from the target placement until every reachable placement has its distance.
+	PatternDatabase build() {
+		_distances = new byte[_numberOfEntries];
+		java.util.Arrays.fill( _distances, (byte) PatternDatabase.UNKNOWN_DISTANCE );
+		allocateStates( (int) ( ( ( (long) _numberOfEntries * _cells ) + 63 ) / 64 ) );
+
+		PatternDatabase database = new PatternDatabase( _rows, _columns, _tileValues, _distances );
+		int tilePositions[] = _targetPositions.clone();
+		long freeCells = _allCells & ~placementMask( tilePositions );
+		addState( database.rank( tilePositions ), region( 1L << _blankTargetPosition, freeCells ), 0 );
+
+		int distance = 0;
+		while ( swapFrontiers() )
+		{
+			expandLayer( database, distance );
+			distance++;
+		}
+
+		releaseStates();
+		return database;
+	}
+
+	// The bit sets are allocated and released by these methods so that other builders can hold them differently.
+	void allocateStates( int bitSetSize ) {
+		_visited = new long[bitSetSize];
+		_frontier = new long[bitSetSize];
+		_nextFrontier = new long[bitSetSize];
+	}
+
+	void releaseStates() {
+		_visited = null;
+		_frontier = null;
+		_nextFrontier = null;
+	}
+
+	// Make the states found at the next distance the ones to expand. Returns false if there are none.
+	boolean swapFrontiers() {
+		long swap[] = _frontier;
+		_frontier = _nextFrontier;
+		_nextFrontier = swap;
+		java.util.Arrays.fill( _nextFrontier, 0L );
+		boolean found = ( _nextFrontierSize > 0 );
+		_nextFrontierSize = 0;
+		return found;
+	}
+
+	// Expand every state at the current distance, one placement at a time.
+	void expandLayer( PatternDatabase database, int distance ) {
+		int tilePositions[] = new int[_tileValues.length];
+		for ( int rank = 0; rank < _numberOfEntries; rank++ )
+		{
+			expandPlacement( database, rank, tilePositions, distance );
+		}
+	}
+
+	// Expand all the states for one placement which are on the frontier.
+	// Every tile in the group which is next to the blank's region can move into any free position it touches.
+	// The position it leaves joins the free positions, so the blank's new region is worked out afresh.
+	void expandPlacement( PatternDatabase database, int rank, int[] tilePositions, int distance ) {
+		long regions = frontierRegions( rank );
+		if ( regions == 0 )
+		{
+			return;
+		}
+		database.unrank( rank, tilePositions );
+		long freeCells = _allCells & ~placementMask( tilePositions );
+		for ( ; regions != 0; regions &= regions - 1 )
+		{
+			long blankRegion = region( Long.lowestOneBit( regions ), freeCells );
+			for ( int tile = 0; tile < tilePositions.length; tile++ )
+			{
+				int fromPosition = tilePositions[tile];
+				for ( long moves = neighbours( 1L << fromPosition ) & blankRegion; moves != 0; moves &= moves - 1 )
+				{
+					int toPosition = Long.numberOfTrailingZeros( moves );
+					tilePositions[tile] = toPosition;
+					long newFreeCells = ( freeCells & ~( 1L << toPosition ) ) | ( 1L << fromPosition );
+					addState( database.rank( tilePositions ), region( 1L << fromPosition, newFreeCells ), distance + 1 );
+					tilePositions[tile] = fromPosition;
+				}
+			}
+		}
+	}
+
+	// Record a state if it hasn't been reached before. The first time a placement is reached gives its distance.
+	void addState( int rank, long blankRegion, int distance ) {
+		long bit = ( (long) rank * _cells ) + Long.numberOfTrailingZeros( blankRegion );
+		int word = (int) ( bit >>> 6 );
+		long mask = 1L << bit;
+		if ( ( _visited[word] & mask ) == 0 )
+		{
+			_visited[word] |= mask;
+			_nextFrontier[word] |= mask;
+			_nextFrontierSize++;
+			if ( ( _distances[rank] & 0xFF ) == PatternDatabase.UNKNOWN_DISTANCE )
+			{
+				_distances[rank] = (byte) Math.min( distance, PatternDatabase.MAX_DISTANCE );
+			}
+		}
+	}
+
+	// Collect the frontier states for a placement as a mask of the lowest position of each blank region.
+	// The bits for a placement may run over from one word of the bit set into the next.
+	long frontierRegions( int rank ) {
+		long firstBit = (long) rank * _cells;
+		int word = (int) ( firstBit >>> 6 );
+		int offset = (int) ( firstBit & 63 );
+		long regions = _frontier[word] >>> offset;
+		if ( ( offset != 0 ) && ( ( offset + _cells ) > 64 ) )
+		{
+			regions |= _frontier[word + 1] << ( 64 - offset );
+		}
+		return regions & _allCells;
+	}
+
+	// A mask of the positions taken by the group.
+	long placementMask( int[] tilePositions ) {
+		long mask = 0;
+		for ( int position : tilePositions )
+		{
+			mask |= 1L << position;
+		}
+		return mask;
+	}
+
+	// A mask of the positions next to any of the given positions.
+	long neighbours( long cells ) {
+		return ( ( cells >>> _columns ) | ( cells << _columns ) | ( ( cells & ~_leftColumn ) >>> 1 ) | ( ( cells & ~_rightColumn ) << 1 ) ) & _allCells;
+	}
+
+	// Grow the starting positions into all of the free positions which can be reached from them.
+	long region( long start, long freeCells ) {
+		long region = start;
+		long grown = ( region | neighbours( region ) ) & ( freeCells | start );
+		while ( grown != region )
+		{
+			region = grown;
+			grown = ( region | neighbours( region ) ) & ( freeCells | start );
+		}
+		return region;
+	}
+
+    }
@@ -0,0 +1,166 @@
+/*
+ * @(#)PatternDatabaseFile.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * Store a set of pattern databases (one for each group of tiles) in a file, and open them again without reading them in.
+ */
+
+// The large databases take minutes to build, so they are built once and saved. Opening a saved file maps the tables
+// into memory instead of reading them : the operating system only reads the pages which are actually looked at,
+// and every program which opens the same file shares the same copy of it in memory.
+//
+// The file starts with a header (all numbers are big-endian ints unless noted) :
+//	magic number ("TPDB"), format version, rows, columns, target position of the blank, number of groups
+//	then, for each group : number of tiles, the tile values, their target positions,
+//	                       offset of the table in the file (long), number of entries, CRC-32C checksum of the table
+// The tables follow the header, each starting on a TABLE_ALIGNMENT boundary.
+// The target positions are recorded so that a file can't be used with a puzzle whose solved arrangement is different.
+class PatternDatabaseFile {
+	static final int MAGIC = 0x54504442;
+	static final int VERSION = 1;
+	static final int TABLE_ALIGNMENT = 4096;
+
+	// Write the databases to the file, replacing anything already there.
+	static void write( File file, PatternDatabase[] databases, PuzzleData tileData ) throws IOException {
+		// The header size depends only on the groups, so work out where the tables go first.
+		int headerSize = 6 * 4;
+		for ( PatternDatabase database : databases )
+		{
+			headerSize += ( 4 + ( 8 * database.getNumberOfTiles() ) + 8 + 4 + 4 );
+		}
+		long tableOffsets[] = new long[databases.length];
+		long offset = align( headerSize );
+		for ( int group = 0; group < databases.length; group++ )
+		{
+			tableOffsets[group] = offset;
+			offset = align( offset + databases[group].getNumberOfEntries() );
+		}
+
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream( headerSize );
+		DataOutputStream header = new DataOutputStream( headerBytes );
+		header.writeInt( MAGIC );
+		header.writeInt( VERSION );
+		header.writeInt( tileData.getRows() );
+		header.writeInt( tileData.getColumns() );
+		header.writeInt( getIndex( tileData, tileData.blankTileValue() ) );
+		header.writeInt( databases.length );
+		for ( int group = 0; group < databases.length; group++ )
+		{
+			int tileValues[] = databases[group].getTileValues();
+			header.writeInt( tileValues.length );
+			for ( int tileValue : tileValues )
+			{
+				header.writeInt( tileValue );
+			}
+			for ( int tileValue : tileValues )
+			{
+				header.writeInt( getIndex( tileData, tileValue ) );
+			}
+			header.writeLong( tableOffsets[group] );
+			header.writeInt( databases[group].getNumberOfEntries() );
+			header.writeInt( databases[group].checksum() );
+		}
+		header.flush();
+
+		try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) )
+		{
+			writeFully( channel, ByteBuffer.wrap( headerBytes.toByteArray() ), 0 );
+			for ( int group = 0; group < databases.length; group++ )
+			{
+				writeFully( channel, databases[group].getDistances(), tableOffsets[group] );
+			}
+		}
+	}
+
+	// Open the databases in the file for use with the puzzle. The tables are mapped, not read.
+	// Checking the tables against their checksums means reading them all, so it is optional.
+	static PatternDatabase[] open( File file, PuzzleData tileData, boolean verify ) throws IOException {
+		try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+		{
+			// The header is small, so just map the start of the file and read it as a stream.
+			int headerLimit = (int) Math.min( channel.size(), TABLE_ALIGNMENT * 4L );
+			ByteBuffer header = channel.map( FileChannel.MapMode.READ_ONLY, 0, headerLimit );
+			if ( ( header.getInt() != MAGIC ) || ( header.getInt() != VERSION ) )
+			{
+				throw new IOException( file + " is not a pattern database file of version " + VERSION );
+			}
+			int rows = header.getInt();
+			int columns = header.getInt();
+			int blankTargetPosition = header.getInt();
+			if ( ( rows != tileData.getRows() ) || ( columns != tileData.getColumns() ) ||
+			     ( blankTargetPosition != getIndex( tileData, tileData.blankTileValue() ) ) )
+			{
+				throw new IOException( file + " is for a different puzzle (" + rows + " rows, " + columns + " columns)" );
+			}
+
+			int groups = header.getInt();
+			PatternDatabase databases[] = new PatternDatabase[groups];
+			for ( int group = 0; group < groups; group++ )
+			{
+				int tileValues[] = new int[header.getInt()];
+				for ( int tile = 0; tile < tileValues.length; tile++ )
+				{
+					tileValues[tile] = header.getInt();
+				}
+				for ( int tile = 0; tile < tileValues.length; tile++ )
+				{
+					if ( header.getInt() != getIndex( tileData, tileValues[tile] ) )
+					{
+						throw new IOException( file + " has a different target position for tile " + tileValues[tile] );
+					}
+				}
+				long tableOffset = header.getLong();
+				int numberOfEntries = header.getInt();
+				int checksum = header.getInt();
+				if ( numberOfEntries != PatternDatabase.countEntries( rows * columns, tileValues.length ) )
+				{
+					throw new IOException( file + " has the wrong size of table for group " + group );
+				}
+
+				// The mapping stays valid after the channel is closed.
+				ByteBuffer distances = channel.map( FileChannel.MapMode.READ_ONLY, tableOffset, numberOfEntries );
+				databases[group] = new PatternDatabase( rows, columns, tileValues, distances );
+				if ( verify && ( databases[group].checksum() != checksum ) )
+				{
+					throw new IOException( file + " is corrupt : the checksum for group " + group + " doesn't match" );
+				}
+			}
+			return databases;
+		}
+		catch ( BufferUnderflowException e )
+		{
+			throw new IOException( file + " has an incomplete header" );
+		}
+	}
+
+	// Round the offset up to the start of the next table.
+	static long align( long offset ) {
+		return ( ( offset + TABLE_ALIGNMENT - 1 ) / TABLE_ALIGNMENT ) * TABLE_ALIGNMENT;
+	}
+
+	// The target position of a value, numbered row by row from the top left.
+	static int getIndex( PuzzleData tileData, int tileValue ) {
+		PuzzlePosition targetPosition = tileData.getTargetPositionForValue( tileValue );
+		return ( targetPosition.getRow() * tileData.getColumns() ) + targetPosition.getColumn();
+	}
+
+	// A channel may write less than it is given, so keep going until the buffer is empty.
+	static void writeFully( FileChannel channel, ByteBuffer buffer, long position ) throws IOException {
+		while ( buffer.hasRemaining() )
+		{
+			position += channel.write( buffer, position );
+		}
+	}
+
+    }
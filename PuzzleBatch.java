@@ -0,0 +1,303 @@
+/*
+ * @(#)PuzzleBatch.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Solves a file of puzzles from the command line, using all the processors, e.g.
+ *	java PuzzleBatch -threads 8 -strategy planned puzzles.txt > solutions.txt
+ * The puzzles are in either of the formats written by PuzzleCorpus, read from a file or (given as -) the standard input.
+ * Tables built by CompactDistanceTableBuilder (e.g. for 3x4) can be given with -table, for the solvers to use.
+ * The pattern databases for the 4x4 and 5x5 searches are opened from (or built and saved in) the directory given with -pdb.
+ */
+
+// The puzzles are read one at a time and handed to a pool of threads, each with its own strategy (see PuzzleStrategy).
+// Only a few puzzles per thread are allowed to be waiting or in progress at once, so the reading waits for the solving
+// and the memory needed doesn't grow with the size of the input.
+// A result is written as soon as its puzzle is solved, so the results come out in the order the puzzles finish rather than
+// the order they were read : each line starts with the puzzle's number in the input (from 0) so they can be matched up.
+// A result line holds the number, the outcome (solved, unsolvable, stuck or error), the number of moves, the time taken
+// in microseconds, the arrangements examined by a searching strategy, then the positions of the tiles to move.
+// A summary of the whole run is written to the standard error.
+class PuzzleBatch {
+
+	static final int PUZZLES_PER_THREAD = 4;	// The puzzles each thread may have waiting or in progress
+	static final int FLUSH_LINES = 1024;		// The result lines written between flushes, so a long run shows its progress
+
+	int	_numberOfThreads = Runtime.getRuntime().availableProcessors();
+	String	_strategyName = PuzzleSolver.DEFAULT_STRATEGY;
+	boolean	_binary = false;
+	boolean	_printMoves = true;
+	String	_inputName = "-";
+	List<String>	_tableNames = new ArrayList<String>();
+	String	_patternDatabaseName;
+
+	PrintWriter	_output;
+	ThreadLocal<PuzzleStrategy> _strategies;
+	Semaphore	_pendingPuzzles;
+
+	// Totals for the summary, and the lines written since the output was flushed. They are only updated while holding the output's lock.
+	long	_unflushedLines;
+	long	_solvedCount;
+	long	_failedCount;
+	long	_totalMoves;
+
+	public static void main( String args[] ) {
+		PuzzleBatch batch = new PuzzleBatch();
+		try
+		{
+			batch.parseArguments( args );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			System.err.println( e.getMessage() );
+			System.err.println( "Usage: java PuzzleBatch [-threads n] [-strategy " + String.join( "|", PuzzleSolver.getStrategyNames() )
+					    + "] [-table file] [-pdb directory] [-binary] [-nomoves] [file | -]" );
+			System.exit( 1 );
+		}
+		try
+		{
+			batch.addTables();
+		}
+		catch ( IOException e )
+		{
+			System.err.println( "Failed opening the tables : " + e.getMessage() );
+			System.exit( 2 );
+		}
+		try
+		{
+			batch.run();
+		}
+		catch ( IOException e )
+		{
+			System.err.println( "Failed reading the puzzles : " + e.getMessage() );
+			System.exit( 2 );
+		}
+	}
+
+	void parseArguments( String args[] ) {
+		for ( int argument = 0; argument < args.length; argument++ )
+		{
+			String option = args[argument];
+			switch ( option )
+			{
+			case "-threads":	_numberOfThreads = Integer.parseInt( getValue( args, ++argument, option ) ); break;
+			case "-strategy":	_strategyName = getValue( args, ++argument, option ); break;
+			case "-binary":		_binary = true; break;
+			case "-nomoves":	_printMoves = false; break;
+			case "-table":		_tableNames.add( getValue( args, ++argument, option ) ); break;
+			case "-pdb":		_patternDatabaseName = getValue( args, ++argument, option ); break;
+			default:
+				if ( option.startsWith( "-" ) && ( option.length() > 1 ) )
+				{
+					throw new IllegalArgumentException( "Unknown option " + option );
+				}
+				_inputName = option;
+			}
+		}
+		if ( _numberOfThreads < 1 )
+		{
+			throw new IllegalArgumentException( "At least one thread is needed" );
+		}
+		if ( PuzzleSolver.createStrategy( _strategyName ) == null )
+		{
+			throw new IllegalArgumentException( "Unknown strategy " + _strategyName );
+		}
+	}
+
+	String getValue( String args[], int argument, String option ) {
+		if ( argument >= args.length )
+		{
+			throw new IllegalArgumentException( "Missing value for " + option );
+		}
+		return args[argument];
+	}
+
+	// Open the distance tables given, and have the solvers use them (see DistanceTable.addTable).
+	// The pattern databases are only opened when a puzzle of their size is searched (see PuzzleSolver.getPatternHeuristic).
+	void addTables() throws IOException {
+		for ( String tableName : _tableNames )
+		{
+			DistanceTable.addTable( CompactDistanceTable.open( new File( tableName ) ) );
+		}
+		if ( _patternDatabaseName != null )
+		{
+			File directory = new File( _patternDatabaseName );
+			if ( ! directory.isDirectory() )
+			{
+				throw new FileNotFoundException( _patternDatabaseName + " is not a directory" );
+			}
+			PuzzleSolver.setPatternDatabaseDirectory( directory );
+		}
+	}
+
+	// Read and solve all the puzzles, then write the summary.
+	void run() throws IOException {
+		_output = new PrintWriter( new BufferedWriter( new OutputStreamWriter( System.out ), 1 << 16 ) );
+		_strategies = ThreadLocal.withInitial( () -> PuzzleSolver.createStrategy( _strategyName ) );
+		_pendingPuzzles = new Semaphore( _numberOfThreads * PUZZLES_PER_THREAD );
+		ExecutorService pool = Executors.newFixedThreadPool( _numberOfThreads );
+		_output.println( "# puzzle outcome moves microseconds nodes positions" );
+
+		long startNanos = System.nanoTime();
+		long numberOfPuzzles = 0;
+		InputStream input = _inputName.equals( "-" ) ? System.in : new FileInputStream( _inputName );
+		try
+		{
+			if ( _binary )
+			{
+				DataInputStream dataInput = new DataInputStream( new BufferedInputStream( input, 1 << 16 ) );
+				PuzzleState puzzle;
+				while ( ( puzzle = PuzzleCorpus.readBinary( dataInput ) ) != null )
+				{
+					submit( pool, numberOfPuzzles++, puzzle );
+				}
+			}
+			else
+			{
+				BufferedReader reader = new BufferedReader( new InputStreamReader( input ), 1 << 16 );
+				String line;
+				while ( ( line = reader.readLine() ) != null )
+				{
+					PuzzleState puzzle;
+					try
+					{
+						puzzle = PuzzleCorpus.parse( line );
+					}
+					catch ( IllegalArgumentException e )
+					{
+						writeFailure( numberOfPuzzles++, "error", e.getMessage() );
+						continue;
+					}
+					if ( puzzle != null )
+					{
+						submit( pool, numberOfPuzzles++, puzzle );
+					}
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+			awaitPool( pool );
+			if ( input != System.in )
+			{
+				input.close();
+			}
+			_output.flush();
+		}
+
+		double seconds = ( System.nanoTime() - startNanos ) / 1e9;
+		System.err.println( String.format( "%d puzzles (%d solved, %d not) with %s on %d threads in %.3f s : %.1f puzzles/s, %d moves",
+						   numberOfPuzzles, _solvedCount, _failedCount, _strategyName, _numberOfThreads,
+						   seconds, numberOfPuzzles / seconds, _totalMoves ) );
+	}
+
+	// Hand the puzzle to the pool once there is room for it.
+	void submit( ExecutorService pool, long index, PuzzleState puzzle ) {
+		_pendingPuzzles.acquireUninterruptibly();
+		pool.execute( () -> {
+			try
+			{
+				solve( index, puzzle );
+			}
+			finally
+			{
+				_pendingPuzzles.release();
+			}
+		} );
+	}
+
+	void awaitPool( ExecutorService pool ) {
+		boolean interrupted = false;
+		while ( ! pool.isTerminated() )
+		{
+			try
+			{
+				pool.awaitTermination( 1, TimeUnit.DAYS );
+			}
+			catch ( InterruptedException e )
+			{
+				interrupted = true;
+			}
+		}
+		if ( interrupted )
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Solve one puzzle on this thread's strategy and write the result.
+	void solve( long index, PuzzleState puzzle ) {
+		PuzzleStrategy strategy = _strategies.get();
+		int tileValues[] = puzzle.getTileValueArray();
+		long startNanos = System.nanoTime();
+		int moves[];
+		try
+		{
+			moves = strategy.solve( puzzle.getRows(), puzzle.getColumns(), tileValues );
+		}
+		catch ( IllegalStateException e )
+		{
+			writeFailure( index, "stuck", e.getMessage() );
+			return;
+		}
+		catch ( RuntimeException e )
+		{
+			writeFailure( index, "error", e.toString() );
+			return;
+		}
+		long elapsedMicros = ( System.nanoTime() - startNanos ) / 1000;
+		if ( moves == null )
+		{
+			writeFailure( index, "unsolvable", null );
+			return;
+		}
+
+		// Build the line before taking the lock, so the threads only wait for each other while it is written.
+		StringBuilder line = new StringBuilder( 32 + ( _printMoves ? ( moves.length * 4 ) : 0 ) );
+		line.append( index ).append( " solved " ).append( moves.length ).append( ' ' ).append( elapsedMicros )
+		    .append( ' ' ).append( strategy.getNodesExpanded() );
+		if ( _printMoves )
+		{
+			for ( int move : moves )
+			{
+				line.append( ' ' ).append( move );
+			}
+		}
+		synchronized ( _output )
+		{
+			writeLine( line );
+			_solvedCount++;
+			_totalMoves += moves.length;
+		}
+	}
+
+	void writeFailure( long index, String outcome, String reason ) {
+		synchronized ( _output )
+		{
+			writeLine( index + " " + outcome + ( ( reason == null ) ? "" : ( " # " + reason ) ) );
+			_failedCount++;
+		}
+	}
+
+	// Write a result line to the buffered output, only flushing it every so often (and at the end of the run).
+	// The caller must hold the output's lock.
+	void writeLine( CharSequence line ) {
+		_output.println( line );
+		if ( ++_unflushedLines == FLUSH_LINES )
+		{
+			_output.flush();
+			_unflushedLines = 0;
+		}
+	}
+
+    }
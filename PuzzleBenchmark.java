@@ -0,0 +1,540 @@
+/*
+ * @(#)PuzzleBenchmark.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.awt.*;
+import java.awt.image.*;
+import java.lang.management.*;
+import java.util.*;
+
+/**
+ * Times the things the puzzle spends its time on - moving tiles, shuffling, solving and painting - over a range of
+ * puzzle sizes, so that changes to them can be measured rather than guessed at.
+ * Run it from the command line, e.g.
+ *	java PuzzleBenchmark -sizes 4x4,10x10 -filter solve
+ */
+
+// Each benchmark is run repeatedly, first to warm up (so the code has been compiled before it is timed) and then for
+// a number of measured iterations of a fixed length. The result is the average time per operation over the measured
+// iterations, with the spread between them, and the bytes allocated per operation where the JVM can count them.
+// The puzzles come from PuzzleCorpus, so every run (and every change being compared) works on the same arrangements.
+// The results of the operations are folded into a "sink" which is printed at the end, so the JIT can't discard the work.
+class PuzzleBenchmark {
+
+	static final String DEFAULT_SIZES = "3x3,4x4,5x5,10x10,20x20,50x50,100x100";
+	static final int CORPUS_SIZE = 64;		// The number of puzzles of each size to cycle through
+	static final int MOVES_PER_OPERATION = 1000;	// The moves made in each operation of the move benchmarks
+	static final int MAX_LEGACY_SOLVE_TILES = 900;	// The legacy solver takes too long (and too much garbage) above 30x30
+	static final int PAINT_SIZE = 800;		// The width and height of the offscreen image which is painted
+
+	int	_warmupIterations = 3;
+	int	_measurementIterations = 5;
+	long	_iterationNanos = 500000000L;
+	long	_seed = 20011018L;
+	String	_filter = null;
+	ArrayList<Dimension> _sizes = new ArrayList<Dimension>();
+
+	long	_sink;
+	ThreadMXBean	_threadBean;
+	boolean	_canCountAllocation;
+
+	// A benchmark prepares its puzzle (and anything else it needs) in setUp, then run performs one invocation,
+	// returning the number of operations that made up.
+	abstract static class Benchmark {
+		String	_name;
+
+		Benchmark( String name ) { _name = name; }
+
+		String getName() { return _name; }
+
+		// Can the benchmark handle a puzzle of this size ?
+		boolean isSupported( int rows, int columns ) { return true; }
+
+		abstract void setUp( int rows, int columns, long seed );
+		abstract int run();
+
+		// Anything the benchmark has worked out which shouldn't be optimised away.
+		long result() { return 0; }
+	}
+
+	public static void main( String args[] ) {
+		PuzzleBenchmark benchmark = new PuzzleBenchmark();
+		try
+		{
+			benchmark.parseArguments( args );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			System.err.println( e.getMessage() );
+			System.err.println( "Usage: java PuzzleBenchmark [-sizes 3x3,4x4,...] [-warmup n] [-iterations n] [-time milliseconds] [-seed n] [-filter name]" );
+			System.exit( 1 );
+		}
+		benchmark.runAll();
+	}
+
+	void parseArguments( String args[] ) {
+		String sizes = DEFAULT_SIZES;
+		for ( int argument = 0; argument < args.length; argument++ )
+		{
+			String option = args[argument];
+			if ( argument + 1 >= args.length )
+			{
+				throw new IllegalArgumentException( "Missing value for " + option );
+			}
+			String value = args[++argument];
+			switch ( option )
+			{
+			case "-sizes":		sizes = value; break;
+			case "-warmup":		_warmupIterations = Integer.parseInt( value ); break;
+			case "-iterations":	_measurementIterations = Integer.parseInt( value ); break;
+			case "-time":		_iterationNanos = Long.parseLong( value ) * 1000000L; break;
+			case "-seed":		_seed = Long.parseLong( value ); break;
+			case "-filter":		_filter = value; break;
+			default:		throw new IllegalArgumentException( "Unknown option " + option );
+			}
+		}
+		for ( String size : sizes.split( "," ) )
+		{
+			String dimensions[] = size.trim().split( "x" );
+			if ( dimensions.length != 2 )
+			{
+				throw new IllegalArgumentException( "Sizes are given as rows x columns, e.g. 4x4, not " + size );
+			}
+			int rows = Integer.parseInt( dimensions[0] );
+			int columns = Integer.parseInt( dimensions[1] );
+			if ( ( rows < 2 ) || ( columns < 2 ) )
+			{
+				throw new IllegalArgumentException( "Puzzles must have at least 2 rows and 2 columns, not " + size );
+			}
+			_sizes.add( new Dimension( columns, rows ) );
+		}
+		if ( _measurementIterations < 1 )
+		{
+			throw new IllegalArgumentException( "At least one measured iteration is needed" );
+		}
+	}
+
+	// Run every benchmark (which matches the filter) on every size.
+	void runAll() {
+		setUpAllocationCounting();
+		System.out.println( "# Warmup " + _warmupIterations + " and " + _measurementIterations + " measured iterations of "
+				    + ( _iterationNanos / 1000000L ) + " ms, seed " + _seed
+				    + ( _canCountAllocation ? "" : " (allocation can't be counted on this JVM)" ) );
+		System.out.println( String.format( "%-22s %9s %16s %12s %14s", "Benchmark", "Size", "ns/op", "+/-", "bytes/op" ) );
+		for ( Benchmark benchmark : createBenchmarks() )
+		{
+			if ( ( _filter != null ) && ( benchmark.getName().indexOf( _filter ) < 0 ) )
+			{
+				continue;
+			}
+			for ( Dimension size : _sizes )
+			{
+				if ( benchmark.isSupported( size.height, size.width ) )
+				{
+					measure( benchmark, size.height, size.width );
+				}
+			}
+		}
+		System.out.println( "# Sink " + _sink );
+	}
+
+	ArrayList<Benchmark> createBenchmarks() {
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add( new MoveBlankBenchmark() );
+		benchmarks.add( new MoveTileBenchmark() );
+		benchmarks.add( new UniformShuffleBenchmark() );
+		benchmarks.add( new RandomWalkShuffleBenchmark() );
+		benchmarks.add( new LegacySolveBenchmark() );
+		benchmarks.add( new PlannedSolveBenchmark() );
+		benchmarks.add( new DrawnPaintBenchmark() );
+		benchmarks.add( new ImagePaintBenchmark() );
+		benchmarks.add( new MovePaintBenchmark() );
+		// The buttons are real components, which can't be made without a display.
+		if ( ! GraphicsEnvironment.isHeadless() )
+		{
+			benchmarks.add( new ButtonPaintBenchmark() );
+		}
+		return benchmarks;
+	}
+
+	// The standard ThreadMXBean can't count allocation but the one in HotSpot based JVMs can.
+	void setUpAllocationCounting() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if ( threadBean instanceof com.sun.management.ThreadMXBean )
+		{
+			com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+			if ( allocationBean.isThreadAllocatedMemorySupported() )
+			{
+				allocationBean.setThreadAllocatedMemoryEnabled( true );
+				_threadBean = threadBean;
+				_canCountAllocation = true;
+			}
+		}
+	}
+
+	long allocatedBytes() {
+		if ( ! _canCountAllocation )
+		{
+			return 0;
+		}
+		return ( (com.sun.management.ThreadMXBean) _threadBean ).getThreadAllocatedBytes( Thread.currentThread().getId() );
+	}
+
+	// Warm up, then time the measured iterations and print the average and spread.
+	void measure( Benchmark benchmark, int rows, int columns ) {
+		benchmark.setUp( rows, columns, _seed );
+		for ( int iteration = 0; iteration < _warmupIterations; iteration++ )
+		{
+			runIteration( benchmark );
+		}
+		double nanosPerOperation[] = new double[_measurementIterations];
+		double totalBytesPerOperation = 0;
+		for ( int iteration = 0; iteration < _measurementIterations; iteration++ )
+		{
+			long startBytes = allocatedBytes();
+			long startNanos = System.nanoTime();
+			long operations = runIteration( benchmark );
+			long elapsedNanos = System.nanoTime() - startNanos;
+			long bytes = allocatedBytes() - startBytes;
+			nanosPerOperation[iteration] = (double) elapsedNanos / operations;
+			totalBytesPerOperation += (double) bytes / operations;
+		}
+		_sink += benchmark.result();
+
+		double mean = 0;
+		for ( double nanos : nanosPerOperation )
+		{
+			mean += nanos;
+		}
+		mean /= nanosPerOperation.length;
+		double variance = 0;
+		for ( double nanos : nanosPerOperation )
+		{
+			variance += ( nanos - mean ) * ( nanos - mean );
+		}
+		double spread = ( nanosPerOperation.length > 1 ) ? Math.sqrt( variance / ( nanosPerOperation.length - 1 ) ) : 0;
+		String bytesPerOperation = _canCountAllocation ? String.format( "%14.1f", totalBytesPerOperation / _measurementIterations ) : String.format( "%14s", "-" );
+		System.out.println( String.format( "%-22s %9s %16.1f %12.1f %s", benchmark.getName(), rows + "x" + columns, mean, spread, bytesPerOperation ) );
+	}
+
+	// Keep invoking the benchmark until the iteration time is up (always at least once). Return the operations performed.
+	long runIteration( Benchmark benchmark ) {
+		long operations = 0;
+		long startNanos = System.nanoTime();
+		do
+		{
+			operations += benchmark.run();
+		} while ( ( System.nanoTime() - startNanos ) < _iterationNanos );
+		return operations;
+	}
+
+	// A puzzle from the corpus for the size, shuffled uniformly.
+	// It is AutoData, as in the program, because the displays expect that.
+	static PuzzleData createPuzzle( int rows, int columns, long seed ) {
+		PuzzleData tileData = new AutoData();
+		tileData.setPuzzleState( PuzzleCorpus.getPuzzle( seed, rows, columns, 0 ) );
+		tileData.setShuffleSeed( seed );
+		return tileData;
+	}
+
+	// Random choices made up front, so the moves benchmarks time moving rather than random number generation.
+	static int[] createChoices( long seed ) {
+		PuzzleRandom random = new PuzzleRandom( seed );
+		int choices[] = new int[4096];
+		for ( int choice = 0; choice < choices.length; choice++ )
+		{
+			choices[choice] = random.nextIntFromRange( 12 );	// 12 can be divided by 2, 3 and 4, the possible numbers of moves
+		}
+		return choices;
+	}
+
+	// Pick one of the possible directions (a bit mask as from PuzzleData.getMovableDirections) using a random choice.
+	static int chooseDirection( int directions, int choice ) {
+		choice = choice % Integer.bitCount( directions );
+		// Step over the directions which aren't possible to the chosen one which is.
+		int direction = Integer.numberOfTrailingZeros( directions );
+		for ( ; choice > 0; choice-- )
+		{
+			directions &= ~( 1 << direction );
+			direction = Integer.numberOfTrailingZeros( directions );
+		}
+		return direction;
+	}
+
+	// Random moves of the blank using the direction API (see PuzzleData.moveBlank).
+	static class MoveBlankBenchmark extends Benchmark {
+		PuzzleData	_tileData;
+		int		_choices[];
+		int		_nextChoice;
+
+		MoveBlankBenchmark() { super( "move.blank" ); }
+
+		void setUp( int rows, int columns, long seed ) {
+			_tileData = createPuzzle( rows, columns, seed );
+			_choices = createChoices( seed );
+			_nextChoice = 0;
+		}
+
+		int run() {
+			for ( int move = 0; move < MOVES_PER_OPERATION; move++ )
+			{
+				_tileData.moveBlank( chooseDirection( _tileData.getMovableDirections(), _choices[_nextChoice] ) );
+				_nextChoice = ( _nextChoice + 1 ) & ( _choices.length - 1 );
+			}
+			return MOVES_PER_OPERATION;
+		}
+
+		long result() { return _tileData.getBlankIndex(); }
+	}
+
+	// The same random moves using the original object based API (as the display does when a tile is clicked).
+	static class MoveTileBenchmark extends Benchmark {
+		PuzzleData	_tileData;
+		int		_choices[];
+		int		_nextChoice;
+
+		MoveTileBenchmark() { super( "move.tile" ); }
+
+		void setUp( int rows, int columns, long seed ) {
+			_tileData = createPuzzle( rows, columns, seed );
+			_choices = createChoices( seed );
+			_nextChoice = 0;
+		}
+
+		int run() {
+			for ( int move = 0; move < MOVES_PER_OPERATION; move++ )
+			{
+				ArrayList<PuzzlePosition> movablePositions = _tileData.getMovablePuzzlePositions();
+				PuzzlePosition tilePosition = movablePositions.get( _choices[_nextChoice] % movablePositions.size() );
+				_nextChoice = ( _nextChoice + 1 ) & ( _choices.length - 1 );
+				_tileData.moveTile( tilePosition );
+			}
+			return MOVES_PER_OPERATION;
+		}
+
+		long result() { return _tileData.getBlankIndex(); }
+	}
+
+	// The default shuffle : any solvable arrangement, all equally likely.
+	static class UniformShuffleBenchmark extends Benchmark {
+		PuzzleData	_tileData;
+
+		UniformShuffleBenchmark() { super( "shuffle.uniform" ); }
+
+		void setUp( int rows, int columns, long seed ) {
+			_tileData = createPuzzle( rows, columns, seed );
+		}
+
+		int run() {
+			_tileData.shufflePuzzleUniformly();
+			return 1;
+		}
+
+		long result() { return _tileData.getBlankIndex(); }
+	}
+
+	// The random walk shuffle, with the default number of steps (the square of the number of tiles) for small puzzles.
+	// That is far too many for large puzzles, so they are limited to 100,000 steps, and the result is per shuffle.
+	static class RandomWalkShuffleBenchmark extends Benchmark {
+		PuzzleData	_tileData;
+		int		_steps;
+
+		RandomWalkShuffleBenchmark() { super( "shuffle.walk" ); }
+
+		void setUp( int rows, int columns, long seed ) {
+			_tileData = createPuzzle( rows, columns, seed );
+			long numberOfTiles = rows * columns;
+			_steps = (int) Math.min( numberOfTiles * numberOfTiles, 100000L );
+		}
+
+		int run() {
+			_tileData.shufflePuzzle( _steps );
+			return 1;
+		}
+
+		long result() { return _tileData.getBlankIndex(); }
+	}
+
+	// A complete solution by the original rules, worked out a move at a time as the tiles are moved.
+	// Each invocation solves the next puzzle in the corpus.
+	static class LegacySolveBenchmark extends Benchmark {
+		AutoData	_tileData;
+		PuzzleState	_puzzles[];
+		int		_nextPuzzle;
+		long		_totalMoves;
+
+		LegacySolveBenchmark() { super( "solve.legacy" ); }
+
+		boolean isSupported( int rows, int columns ) { return ( rows * columns ) <= MAX_LEGACY_SOLVE_TILES; }
+
+		void setUp( int rows, int columns, long seed ) {
+			_tileData = new AutoData();
+			_puzzles = PuzzleCorpus.generate( seed, rows, columns, CORPUS_SIZE );
+			_nextPuzzle = 0;
+		}
+
+		int run() {
+			_tileData.setPuzzleState( _puzzles[_nextPuzzle] );
+			_nextPuzzle = ( _nextPuzzle + 1 ) % _puzzles.length;
+			SolveTilePuzzle solution = new SolveTilePuzzle( _tileData );
+			while ( ! solution.isComplete() )
+			{
+				PuzzlePosition tilePosition = solution.getTileToMove();
+				// The rules can get stuck on some shapes of puzzle; give up on this one if so.
+				if ( ! _tileData.isTileMovable( tilePosition ) )
+				{
+					break;
+				}
+				_tileData.moveTile( tilePosition );
+				_totalMoves++;
+			}
+			return 1;
+		}
+
+		long result() { return _totalMoves; }
+	}
+
+	// The same solution planned up front as a list of moves (see SolutionPlanner).
+	static class PlannedSolveBenchmark extends Benchmark {
+		PuzzleState	_puzzles[];
+		int		_tileValues[][];
+		int		_nextPuzzle;
+		long		_totalMoves;
+
+		PlannedSolveBenchmark() { super( "solve.planned" ); }
+
+		void setUp( int rows, int columns, long seed ) {
+			_puzzles = PuzzleCorpus.generate( seed, rows, columns, CORPUS_SIZE );
+			_tileValues = new int[_puzzles.length][];
+			for ( int puzzle = 0; puzzle < _puzzles.length; puzzle++ )
+			{
+				_tileValues[puzzle] = _puzzles[puzzle].getTileValueArray();
+			}
+			_nextPuzzle = 0;
+		}
+
+		int run() {
+			PuzzleState puzzle = _puzzles[_nextPuzzle];
+			SolutionPlanner planner = new SolutionPlanner( puzzle.getRows(), puzzle.getColumns(), _tileValues[_nextPuzzle] );
+			_nextPuzzle = ( _nextPuzzle + 1 ) % _puzzles.length;
+			try
+			{
+				planner.plan();
+			}
+			catch ( IllegalStateException e )
+			{
+				// The rules got stuck : count the moves planned anyway.
+			}
+			_totalMoves += planner.getNumberOfMoves();
+			return 1;
+		}
+
+		long result() { return _totalMoves; }
+	}
+
+	// Paint the whole puzzle into an offscreen image, as the display does when it is repainted.
+	abstract static class PaintBenchmark extends Benchmark {
+		PuzzleData	_tileData;
+		PuzzleDisplay	_display;
+		BufferedImage	_offscreenImage;
+		Graphics	_offscreenGraphics;
+
+		PaintBenchmark( String name ) { super( name ); }
+
+		abstract PuzzleDisplay createDisplay( PuzzleData tileData );
+
+		void setUp( int rows, int columns, long seed ) {
+			_tileData = createPuzzle( rows, columns, seed );
+			_display = createDisplay( _tileData );
+			_display.setSize( PAINT_SIZE, PAINT_SIZE );
+			_display.setData( _tileData );
+			if ( _offscreenGraphics != null )
+			{
+				_offscreenGraphics.dispose();
+			}
+			_offscreenImage = new BufferedImage( PAINT_SIZE, PAINT_SIZE, BufferedImage.TYPE_INT_RGB );
+			_offscreenGraphics = _offscreenImage.getGraphics();
+			_offscreenGraphics.setFont( new Font( "SansSerif", Font.PLAIN, 12 ) );
+		}
+
+		int run() {
+			_display.drawTiles( _offscreenGraphics );
+			return 1;
+		}
+
+		long result() { return _offscreenImage.getRGB( PAINT_SIZE / 2, PAINT_SIZE / 2 ); }
+	}
+
+	static class DrawnPaintBenchmark extends PaintBenchmark {
+		DrawnPaintBenchmark() { super( "paint.drawn" ); }
+
+		PuzzleDisplay createDisplay( PuzzleData tileData ) { return new PuzzleDrawnDisplay(); }
+	}
+
+	// A move as the display shows it : the two tiles are redrawn into the back buffer and only they are copied to the "screen".
+	static class MovePaintBenchmark extends PaintBenchmark {
+		int	_choices[];
+		int	_nextChoice;
+
+		MovePaintBenchmark() { super( "paint.move" ); }
+
+		PuzzleDisplay createDisplay( PuzzleData tileData ) { return new PuzzleDrawnDisplay(); }
+
+		void setUp( int rows, int columns, long seed ) {
+			super.setUp( rows, columns, seed );
+			_choices = createChoices( seed );
+			_nextChoice = 0;
+			_display.update( _offscreenGraphics );
+		}
+
+		int run() {
+			PuzzleDrawnDisplay display = (PuzzleDrawnDisplay) _display;
+			for ( int move = 0; move < MOVES_PER_OPERATION; move++ )
+			{
+				int blankIndex = _tileData.getBlankIndex();
+				int tileIndex = _tileData.moveBlank( chooseDirection( _tileData.getMovableDirections(), _choices[_nextChoice] ) );
+				_nextChoice = ( _nextChoice + 1 ) & ( _choices.length - 1 );
+				display.drawTile( new PuzzlePosition( _tileData.getRowOfIndex( blankIndex ), _tileData.getColumnOfIndex( blankIndex ) ) );
+				display.drawTile( new PuzzlePosition( _tileData.getRowOfIndex( tileIndex ), _tileData.getColumnOfIndex( tileIndex ) ) );
+				_offscreenGraphics.setClip( display.getDirtyBounds() );
+				display.update( _offscreenGraphics );
+				_offscreenGraphics.setClip( null );
+			}
+			return MOVES_PER_OPERATION;
+		}
+	}
+
+	// The image style, using a generated picture so that no file is needed.
+	static class ImagePaintBenchmark extends PaintBenchmark {
+		ImagePaintBenchmark() { super( "paint.image" ); }
+
+		PuzzleDisplay createDisplay( PuzzleData tileData ) {
+			BufferedImage picture = new BufferedImage( PAINT_SIZE, PAINT_SIZE, BufferedImage.TYPE_INT_RGB );
+			for ( int y = 0; y < PAINT_SIZE; y++ )
+			{
+				for ( int x = 0; x < PAINT_SIZE; x++ )
+				{
+					picture.setRGB( x, y, ( ( x * 255 / PAINT_SIZE ) << 16 ) | ( ( y * 255 / PAINT_SIZE ) << 8 ) | ( ( x ^ y ) & 0xFF ) );
+				}
+			}
+			PuzzleImageDisplay display = new PuzzleImageDisplay();
+			display.setImage( picture );
+			return display;
+		}
+	}
+
+	static class ButtonPaintBenchmark extends PaintBenchmark {
+		ButtonPaintBenchmark() { super( "paint.buttons" ); }
+
+		// The buttons are only made for puzzles of a sensible size.
+		boolean isSupported( int rows, int columns ) { return ( rows * columns ) <= 400; }
+
+		PuzzleDisplay createDisplay( PuzzleData tileData ) { return new PuzzleButtonDisplay(); }
+	}
+
+    }
@@ -0,0 +1,266 @@
+/*
+ * @(#)PuzzleChecks.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Checks that the solvers agree with each other, and that the puzzle behaves on the awkward shapes, so that a change
+ * which breaks them is caught before the puzzle is played. Run it from the command line, e.g.
+ *	java PuzzleChecks -filter pattern
+ */
+
+// Each check prints a line saying whether it passed (and if not, why), and the program exits with 1 if any check failed.
+// The puzzles are made from the seed, so every run (and every change being compared) works on the same arrangements.
+// The pattern database check opens the 4x4 databases as the solvers do (see PuzzleSolver.getPatternHeuristic),
+// so the first run may spend a while building them (about a quarter of an hour on a single processor, in 4 GB of memory).
+class PuzzleChecks {
+
+	static final int PATTERN_PUZZLES = 20;		// The 4x4 puzzles solved with each estimate
+	static final int PATTERN_SHUFFLE_MOVES = 100;	// Short enough shuffles for the linear conflict search to finish quickly
+	static final int BACKGROUND_PUZZLES = 5;	// The 4x4 puzzles solved in the background
+	static final long TAKE_LIMIT_NANOS = 16000000L;	// Taking a prepared solution must fit in a frame
+
+	long	_seed = 20011018L;
+	String	_filter = null;
+	int	_failures;
+
+	public static void main( String args[] ) {
+		PuzzleChecks checks = new PuzzleChecks();
+		try
+		{
+			checks.parseArguments( args );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			System.err.println( e.getMessage() );
+			System.err.println( "Usage: java PuzzleChecks [-seed n] [-filter name]" );
+			System.exit( 1 );
+		}
+		checks.runAll();
+		System.exit( ( checks._failures == 0 ) ? 0 : 1 );
+	}
+
+	void parseArguments( String args[] ) {
+		for ( int argument = 0; argument < args.length; argument++ )
+		{
+			String option = args[argument];
+			if ( ( argument + 1 ) >= args.length )
+			{
+				throw new IllegalArgumentException( "Missing value for " + option );
+			}
+			String value = args[++argument];
+			switch ( option )
+			{
+			case "-seed":	_seed = Long.parseLong( value ); break;
+			case "-filter":	_filter = value; break;
+			default:	throw new IllegalArgumentException( "Unknown option " + option );
+			}
+		}
+	}
+
+	void runAll() {
+		check( "pattern database lengths 4x4", this::checkPatternDatabaseLengths );
+		check( "background solve 4x4", this::checkBackgroundSolve );
+		check( "solved single row", () -> checkSolvedTracking( 1, 5 ) );
+		check( "solved single column", () -> checkSolvedTracking( 5, 1 ) );
+		System.out.println( ( _failures == 0 ) ? "All checks passed" : ( _failures + " checks failed" ) );
+	}
+
+	// Run the check if it passes the filter. The check returns null if it passed, otherwise the reason it failed.
+	void check( String name, Supplier<String> check ) {
+		if ( ( _filter != null ) && ! name.contains( _filter ) )
+		{
+			return;
+		}
+		String failure;
+		try
+		{
+			failure = check.get();
+		}
+		catch ( RuntimeException e )
+		{
+			failure = e.toString();
+		}
+		if ( failure != null )
+		{
+			_failures++;
+		}
+		System.out.println( name + " : " + ( ( failure == null ) ? "passed" : ( "FAILED - " + failure ) ) );
+	}
+
+	// The pattern databases must give the same (fewest) moves as the linear conflicts, and their moves must solve the puzzle.
+	String checkPatternDatabaseLengths() {
+		AdditivePatternHeuristic patternHeuristic = PuzzleSolver.getPatternHeuristic( 4, 4 );
+		if ( patternHeuristic == null )
+		{
+			return "the 4x4 pattern databases couldn't be opened or built";
+		}
+		LinearConflictHeuristic linearConflictHeuristic = new LinearConflictHeuristic( 4, 4 );
+		PuzzleRandom random = new PuzzleRandom( _seed );
+		for ( int puzzle = 0; puzzle < PATTERN_PUZZLES; puzzle++ )
+		{
+			int tileValues[] = getShuffledTileValues( 4, 4, PATTERN_SHUFFLE_MOVES, random );
+			int linearConflictMoves[] = new OptimalSearch( 4, 4, tileValues, linearConflictHeuristic ).solve();
+			int patternMoves[] = new OptimalSearch( 4, 4, tileValues, patternHeuristic ).solve();
+			if ( patternMoves.length != linearConflictMoves.length )
+			{
+				return "puzzle " + puzzle + " took " + patternMoves.length + " moves rather than " + linearConflictMoves.length;
+			}
+			if ( ! isSolvedBy( 4, 4, tileValues, patternMoves ) )
+			{
+				return "puzzle " + puzzle + " wasn't solved by the pattern database moves";
+			}
+		}
+		return null;
+	}
+
+	// The background solver must work out the 4x4 puzzle in the fewest moves (with the pattern databases), and hand it over within a frame.
+	String checkBackgroundSolve() {
+		AdditivePatternHeuristic patternHeuristic = PuzzleSolver.getPatternHeuristic( 4, 4 );
+		if ( patternHeuristic == null )
+		{
+			return "the 4x4 pattern databases couldn't be opened or built";
+		}
+		AutoData tileData = new AutoData( 4, 4 );
+		for ( int puzzle = 0; puzzle < BACKGROUND_PUZZLES; puzzle++ )
+		{
+			PuzzleState puzzleState = PuzzleCorpus.getPuzzle( _seed, 4, 4, puzzle );
+			tileData.setPuzzleState( puzzleState );
+			Semaphore ready = new Semaphore( 0 );
+			BackgroundSolver backgroundSolver = new BackgroundSolver( tileData, ready::release );
+			backgroundSolver.prepare();
+			try
+			{
+				if ( ! ready.tryAcquire( 1, TimeUnit.MINUTES ) )
+				{
+					backgroundSolver.cancel();
+					return "puzzle " + puzzle + " wasn't solved within a minute";
+				}
+			}
+			catch ( InterruptedException e )
+			{
+				return "interrupted";
+			}
+			long startNanos = System.nanoTime();
+			PuzzleSolution solution = backgroundSolver.takeSolution();
+			long takeNanos = System.nanoTime() - startNanos;
+			if ( ! ( solution instanceof SolveOptimal ) )
+			{
+				return "puzzle " + puzzle + " was given " + ( ( solution == null ) ? "no solution" : solution.getClass().getName() );
+			}
+			int fewestMoves = new OptimalSearch( 4, 4, puzzleState.getTileValueArray(), patternHeuristic ).solve().length;
+			if ( ( (SolveOptimal) solution ).getSolutionLength() != fewestMoves )
+			{
+				return "puzzle " + puzzle + " took " + ( (SolveOptimal) solution ).getSolutionLength() + " moves rather than " + fewestMoves;
+			}
+			if ( takeNanos > TAKE_LIMIT_NANOS )
+			{
+				return "taking the solution to puzzle " + puzzle + " took " + ( takeNanos / 1000 ) + " us";
+			}
+		}
+		return null;
+	}
+
+	// The puzzle's record of which tiles are solved (see AutoData.getLowestUnsolvedValue) must agree with looking at every tile,
+	// for every arrangement of the tiles : an unsolved puzzle must have a tile to solve next, and it must be out of place.
+	String checkSolvedTracking( int rows, int columns ) {
+		AutoData tileData = new AutoData( rows, columns );
+		int tileValues[] = new PuzzleState( rows, columns ).getTileValueArray();
+		do
+		{
+			tileData.setPuzzleState( new PuzzleState( rows, columns, tileValues ) );
+			boolean solved = new PuzzleState( rows, columns, tileValues ).isSolved();
+			String arrangement = Arrays.toString( tileValues );
+			if ( tileData.isSolved() != solved )
+			{
+				return arrangement + ( solved ? " isn't" : " is" ) + " taken as solved";
+			}
+			int unsolvedValue = tileData.getLowestUnsolvedValue();
+			if ( ! solved && ( ( unsolvedValue < 1 ) || tileData.isTileSolved( unsolvedValue ) ) )
+			{
+				return arrangement + " gives " + unsolvedValue + " as the tile to solve next";
+			}
+		}
+		while ( nextPermutation( tileValues ) );
+		return null;
+	}
+
+	// Rearrange the values into the next permutation in order, returning false (and leaving them alone) after the last.
+	static boolean nextPermutation( int[] values ) {
+		int pivot = values.length - 2;
+		while ( ( pivot >= 0 ) && ( values[pivot] >= values[pivot + 1] ) )
+		{
+			pivot--;
+		}
+		if ( pivot < 0 )
+		{
+			return false;
+		}
+		int successor = values.length - 1;
+		while ( values[successor] <= values[pivot] )
+		{
+			successor--;
+		}
+		int swap = values[pivot]; values[pivot] = values[successor]; values[successor] = swap;
+		for ( int left = pivot + 1, right = values.length - 1; left < right; left++, right-- )
+		{
+			swap = values[left]; values[left] = values[right]; values[right] = swap;
+		}
+		return true;
+	}
+
+	// Shuffle the solved puzzle by sliding the blank at random, never straight back.
+	static int[] getShuffledTileValues( int rows, int columns, int moves, PuzzleRandom random ) {
+		PuzzleState puzzle = new PuzzleState( rows, columns );
+		int previousBlankPosition = -1;
+		for ( int move = 0; move < moves; move++ )
+		{
+			int blankPosition = puzzle.getBlankPosition();
+			int tilePosition;
+			do
+			{
+				tilePosition = getNeighbour( rows, columns, blankPosition, random.nextIntFromRange( 4 ) );
+			}
+			while ( ( tilePosition < 0 ) || ( tilePosition == previousBlankPosition ) );
+			puzzle.moveTile( tilePosition );
+			previousBlankPosition = blankPosition;
+		}
+		return puzzle.getTileValueArray();
+	}
+
+	// The position next to the given one in the direction (as PuzzleData numbers them), or -1 if it is off the edge.
+	static int getNeighbour( int rows, int columns, int position, int direction ) {
+		int row = position / columns;
+		int column = position % columns;
+		switch ( direction )
+		{
+		case 0:		return ( column > 0 ) ? ( position - 1 ) : -1;
+		case 1:		return ( column < ( columns - 1 ) ) ? ( position + 1 ) : -1;
+		case 2:		return ( row > 0 ) ? ( position - columns ) : -1;
+		default:	return ( row < ( rows - 1 ) ) ? ( position + columns ) : -1;
+		}
+	}
+
+	// Do the moves (the positions of the tiles to move, in order) solve the puzzle ?
+	static boolean isSolvedBy( int rows, int columns, int[] tileValues, int[] moves ) {
+		PuzzleState puzzle = new PuzzleState( rows, columns, tileValues );
+		for ( int tilePosition : moves )
+		{
+			if ( ! puzzle.isTileMovable( tilePosition ) )
+			{
+				return false;
+			}
+			puzzle.moveTile( tilePosition );
+		}
+		return puzzle.isSolved();
+	}
+
+    }
@@ -0,0 +1,223 @@
+/*
+ * @(#)PuzzleCorpus.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A fixed set of shuffled puzzles, for timing and checking the solvers on the same arrangements every time.
+ * The puzzles are made from a seed, so the same seed always gives the same puzzles, and they can be written to
+ * and read from a simple text file so that other programs can use exactly the same ones.
+ */
+
+// Each puzzle is shuffled uniformly (see PuzzleData.getUniformTileValues) by its own random source, seeded from the
+// corpus seed, the size and the puzzle's number. So the fifth 4x4 puzzle is the same whether 5 or 500 are asked for,
+// and whatever other sizes are made alongside it.
+// The file format is a line per puzzle : the rows, the columns, then the tile values row by row (the blank being
+// rows * columns), all separated by spaces. Blank lines and lines starting with # are ignored.
+// There is also a binary format which is quicker to read for large puzzles : a record per puzzle of the rows and
+// the columns (each an int), then the tile values (each an unsigned short), all as written by a DataOutputStream.
+// Running the class writes a corpus, e.g.
+//	java PuzzleCorpus 4x4 10000 [seed] [-binary] > puzzles.txt
+class PuzzleCorpus {
+
+	// Return the given number of solvable puzzles of the given size, made from the seed.
+	static PuzzleState[] generate( long seed, int rows, int columns, int numberOfPuzzles ) {
+		PuzzleState puzzles[] = new PuzzleState[numberOfPuzzles];
+		for ( int index = 0; index < numberOfPuzzles; index++ )
+		{
+			puzzles[index] = getPuzzle( seed, rows, columns, index );
+		}
+		return puzzles;
+	}
+
+	// Return a single puzzle, the one with the given number in the corpus for this seed and size.
+	static PuzzleState getPuzzle( long seed, int rows, int columns, int index ) {
+		PuzzleRandom random = new PuzzleRandom( puzzleSeed( seed, rows, columns, index ) );
+		return new PuzzleState( rows, columns, PuzzleData.getUniformTileValues( rows, columns, random ) );
+	}
+
+	// Mix the details of the puzzle into a seed of its own.
+	static long puzzleSeed( long seed, int rows, int columns, int index ) {
+		long puzzleSeed = seed;
+		puzzleSeed = ( puzzleSeed * 0x9E3779B97F4A7C15L ) + rows;
+		puzzleSeed = ( puzzleSeed * 0x9E3779B97F4A7C15L ) + columns;
+		puzzleSeed = ( puzzleSeed * 0x9E3779B97F4A7C15L ) + index;
+		return puzzleSeed;
+	}
+
+	// Format a puzzle as a line of the file.
+	static String format( PuzzleState puzzle ) {
+		StringBuilder line = new StringBuilder();
+		line.append( puzzle.getRows() ).append( ' ' ).append( puzzle.getColumns() );
+		for ( int position = 0; position < puzzle.getNumberOfTiles(); position++ )
+		{
+			line.append( ' ' ).append( puzzle.getTileValue( position ) );
+		}
+		return line.toString();
+	}
+
+	// Read a puzzle from a line of the file. Returns null for a blank line or a comment.
+	// The line must hold every tile value once, but the puzzle needn't be solvable (the caller can check with PuzzleData.isSolvable).
+	static PuzzleState parse( String line ) {
+		String trimmedLine = line.trim();
+		if ( ( trimmedLine.length() == 0 ) || trimmedLine.startsWith( "#" ) )
+		{
+			return null;
+		}
+		String fields[] = trimmedLine.split( "\\s+" );
+		int rows = Integer.parseInt( fields[0] );
+		int columns = ( fields.length > 1 ) ? Integer.parseInt( fields[1] ) : 0;
+		if ( ( rows < 1 ) || ( columns < 1 ) || ( fields.length != ( ( rows * columns ) + 2 ) ) )
+		{
+			throw new IllegalArgumentException( "Expected the rows, the columns and then each tile value : " + trimmedLine );
+		}
+		int tileValues[] = new int[rows * columns];
+		for ( int position = 0; position < tileValues.length; position++ )
+		{
+			tileValues[position] = Integer.parseInt( fields[position + 2] );
+		}
+		checkTileValues( tileValues, trimmedLine );
+		return new PuzzleState( rows, columns, tileValues );
+	}
+
+	// Make sure that each tile value appears exactly once.
+	static void checkTileValues( int[] tileValues, String puzzleDescription ) {
+		boolean seen[] = new boolean[tileValues.length];
+		for ( int tileValue : tileValues )
+		{
+			if ( ( tileValue < 1 ) || ( tileValue > tileValues.length ) || seen[tileValue - 1] )
+			{
+				throw new IllegalArgumentException( "Tile value " + tileValue + " is out of range or repeated : " + puzzleDescription );
+			}
+			seen[tileValue - 1] = true;
+		}
+	}
+
+	// Read all the puzzles from a file (or any other source of lines).
+	static List<PuzzleState> read( BufferedReader reader ) throws IOException {
+		List<PuzzleState> puzzles = new ArrayList<PuzzleState>();
+		String line;
+		while ( ( line = reader.readLine() ) != null )
+		{
+			PuzzleState puzzle = parse( line );
+			if ( puzzle != null )
+			{
+				puzzles.add( puzzle );
+			}
+		}
+		return puzzles;
+	}
+
+	static List<PuzzleState> read( File file ) throws IOException {
+		try ( BufferedReader reader = new BufferedReader( new FileReader( file ) ) )
+		{
+			return read( reader );
+		}
+	}
+
+	// Write the puzzles, a line each, after a comment saying where they came from.
+	static void write( Writer writer, String comment, Collection<PuzzleState> puzzles ) throws IOException {
+		PrintWriter printer = new PrintWriter( writer );
+		if ( comment != null )
+		{
+			printer.println( "# " + comment );
+		}
+		for ( PuzzleState puzzle : puzzles )
+		{
+			printer.println( format( puzzle ) );
+		}
+		printer.flush();
+	}
+
+	static void write( File file, String comment, Collection<PuzzleState> puzzles ) throws IOException {
+		try ( Writer writer = new BufferedWriter( new FileWriter( file ) ) )
+		{
+			write( writer, comment, puzzles );
+		}
+	}
+
+	// Read the next puzzle in the binary format, or return null at the end of the input.
+	static PuzzleState readBinary( DataInputStream input ) throws IOException {
+		int rows;
+		try
+		{
+			rows = input.readInt();
+		}
+		catch ( EOFException e )
+		{
+			return null;
+		}
+		int columns = input.readInt();
+		if ( ( rows < 1 ) || ( columns < 1 ) || ( ( (long) rows * columns ) > PuzzleState.MAX_TILES ) )
+		{
+			throw new IOException( "Bad puzzle size " + rows + "x" + columns );
+		}
+		int tileValues[] = new int[rows * columns];
+		for ( int position = 0; position < tileValues.length; position++ )
+		{
+			tileValues[position] = input.readUnsignedShort();
+		}
+		try
+		{
+			checkTileValues( tileValues, "binary puzzle of " + rows + "x" + columns );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			throw new IOException( e.getMessage() );
+		}
+		return new PuzzleState( rows, columns, tileValues );
+	}
+
+	static void writeBinary( DataOutputStream output, PuzzleState puzzle ) throws IOException {
+		output.writeInt( puzzle.getRows() );
+		output.writeInt( puzzle.getColumns() );
+		for ( int position = 0; position < puzzle.getNumberOfTiles(); position++ )
+		{
+			output.writeShort( puzzle.getTileValue( position ) );
+		}
+	}
+
+	// Write a corpus to the standard output. The puzzles are made one at a time, so any number can be written.
+	public static void main( String args[] ) throws IOException {
+		if ( args.length < 2 )
+		{
+			System.err.println( "Usage: java PuzzleCorpus <rows>x<columns> <number of puzzles> [seed] [-binary]" );
+			System.exit( 1 );
+		}
+		String dimensions[] = args[0].split( "x" );
+		int rows = Integer.parseInt( dimensions[0] );
+		int columns = Integer.parseInt( dimensions[1] );
+		int numberOfPuzzles = Integer.parseInt( args[1] );
+		long seed = ( ( args.length > 2 ) && ! args[2].startsWith( "-" ) ) ? Long.parseLong( args[2] ) : 0;
+		boolean binary = args[args.length - 1].equals( "-binary" );
+
+		OutputStream output = new BufferedOutputStream( System.out, 1 << 16 );
+		if ( binary )
+		{
+			DataOutputStream dataOutput = new DataOutputStream( output );
+			for ( int index = 0; index < numberOfPuzzles; index++ )
+			{
+				writeBinary( dataOutput, getPuzzle( seed, rows, columns, index ) );
+			}
+			dataOutput.flush();
+		}
+		else
+		{
+			PrintWriter printer = new PrintWriter( new OutputStreamWriter( output ) );
+			printer.println( "# " + numberOfPuzzles + " puzzles of " + rows + "x" + columns + ", seed " + seed );
+			for ( int index = 0; index < numberOfPuzzles; index++ )
+			{
+				printer.println( format( getPuzzle( seed, rows, columns, index ) ) );
+			}
+			printer.flush();
+		}
+	}
+
+    }
@@ -7,12 +7,12 @@
  *
  */
 
-import java.awt.*;
 import java.util.*;
 import java.text.*;
-import java.applet.Applet;
-import java.awt.event.*;
 import java.io.*;
+import java.lang.invoke.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 
 /**
  * This class holds the logical representation of the puzzle. It records the position of each tile in a rectangular grid.
@@ -25,40 +25,158 @@ public class PuzzleData {
 	int _columns;	// Number of columns in the puzzle
 	int _tileValues [][];	// A map of the values in their current grid position : allows user to take a position and get the value there.
 	PuzzlePosition _tilePositions [];	// A map of the positions of the current values : allows user to take a value and get its position
-	Random1 shuffleRandom;	// Used for generating random moves when "shuffling" the puzzle.
-
-	ArrayList<PuzzleListener> _puzzleListeners = new ArrayList<PuzzleListener>();		// Keep track of components interested in the puzzle changes
+	PuzzleRandom shuffleRandom;	// Used for generating random moves when "shuffling" the puzzle.
+	int _shuffleMode = SHUFFLE_UNIFORM;	// How the puzzle is shuffled (see shufflePuzzle)
+	int _shuffleSteps = 0;	// The number of moves for a random walk shuffle, or 0 for the default
+
+	// The ways of shuffling the puzzle.
+	static final int SHUFFLE_UNIFORM = 0;		// Any solvable arrangement, all equally likely
+	static final int SHUFFLE_RANDOM_WALK = 1;	// Random moves from the current arrangement ("gentle" with few steps)
+
+	PuzzleEventBus _eventBus = new PuzzleEventBus();		// Keep track of components interested in the puzzle changes
+
+	// The puzzle belongs to one thread (its owner), which makes all the changes to it and may read it freely.
+	// Any other thread reads it through getSnapshot, and asks for changes to be made through post, which hands them to the owner.
+	// Each change is marked by the change count, which is odd while a change is being made and goes up by two for each one
+	// made. A snapshot is a copy of the tiles taken when the count was even and unchanged by the end of the copy, so it can
+	// never show a move half made ; taking one needs no lock, and making a change costs no more than two plain stores.
+	// Without an owner (as in the benchmarks and tools) the thread which uses the puzzle is assumed to be the only one.
+	long _changeCount = 0;			// Odd while a change is being made (see beginChange), read by others through CHANGE_COUNT
+	int _changeDepth = 0;			// The changes being made, one inside another (owner only)
+	volatile PuzzleSnapshot _snapshot;	// The last snapshot taken, handed out again while the puzzle is unchanged
+	Executor _ownerExecutor;		// Runs the changes posted from other threads on the owner's thread
+	BooleanSupplier _ownerCheck;		// Is the current thread the owner ?
+
+	static final VarHandle CHANGE_COUNT;
+	static {
+		try {
+			CHANGE_COUNT = MethodHandles.lookup().findVarHandle( PuzzleData.class, "_changeCount", long.class );
+		}
+		catch ( ReflectiveOperationException e ) {
+			throw new ExceptionInInitializerError( e );
+		}
+	}
 
-//	Add this listener into our list of interested parties : don't bother if they're known to us
+//	Add this listener into our list of interested parties, for every kind of event : don't bother if they're known to us
 	public void addPuzzleListener (PuzzleListener listener) {
-		if (! _puzzleListeners.contains(listener)) {
-			_puzzleListeners.add(listener);
+		if (! _eventBus.hasListener(listener)) {
+			_eventBus.addListener(listener, PuzzleEventBus.ALL_KINDS, false);
 		}
 	}
 
+//	Add this listener for only the given kinds of event, either as they happen or (if deferred) later on another thread.
+//	A deferred listener isn't on the owner's thread, so should read the puzzle through getSnapshot.
+	public void addPuzzleListener (PuzzleListener listener, Set<PuzzleEventKind> kinds, boolean deferred) {
+		_eventBus.addListener(listener, PuzzleEventBus.getKindBits(kinds), deferred);
+	}
+
 //	Remove this listener from our list of interested parties
 	public void removePuzzleListener (PuzzleListener listener) {
-		_puzzleListeners.remove(listener);
+		_eventBus.removeListener(listener);
+	}
+
+//	Is anyone interested in this kind of event ? If not, there's no need to make it.
+	public boolean isEventWanted (PuzzleEventKind kind) {
+		return _eventBus.isWanted(kind);
 	}
 
 //	Tell all parties interested in this puzzle event that it has taken place
 	public void notifyListeners (PuzzleEvent puzzleEvent) {
-		ArrayList<PuzzleListener> copyOfListeners = new ArrayList<PuzzleListener> ();
-		copyOfListeners.addAll(_puzzleListeners);
-
-		for (PuzzleListener listener: copyOfListeners) {
-			listener.puzzleChange(puzzleEvent);
-		}
+		_eventBus.publish(puzzleEvent);
 	}
 
 //	Construct a puzzle data structure of the suggested size
-	PuzzleData (Dimension puzzleSize) {
-		buildPuzzleData( puzzleSize);
+	PuzzleData (int rows, int columns) {
+		buildPuzzleData( rows, columns );
 	}
 
 //	Ensure constructor builds a minimal data structure
 	PuzzleData () {
-		this( new Dimension(2,2) );
+		this( 2, 2 );
+	}
+
+	// Make the given thread (as recognised by the check) the owner of the puzzle, with the executor to run changes on it.
+	// The AWT event thread is the owner in the applet, so that the changes never clash with the painting.
+	void setOwner( Executor ownerExecutor, BooleanSupplier ownerCheck ) {
+		_ownerExecutor = ownerExecutor;
+		_ownerCheck = ownerCheck;
+	}
+
+	boolean isOwner() { return ( ( _ownerCheck == null ) || _ownerCheck.getAsBoolean() ); }
+
+	// Make the change on the owner's thread : straight away if this is the owner, or else as soon as the owner gets to it.
+	void post( Runnable change ) {
+		if ( isOwner() )
+		{
+			change.run();
+		}
+		else
+		{
+			_ownerExecutor.execute( change );
+		}
+	}
+
+	// Mark the start and end of a change, around each mutator which moves more than one tile.
+	// A change made inside another (e.g. a move during a shuffle) is part of it, rather than counted separately.
+	void beginChange() {
+		assert isOwner() : "PuzzleData changed by " + Thread.currentThread().getName() + ", which doesn't own it";
+		if ( _changeDepth++ == 0 )
+		{
+			CHANGE_COUNT.setOpaque( this, _changeCount + 1 );
+			VarHandle.storeStoreFence();
+		}
+	}
+
+	void endChange() {
+		if ( --_changeDepth == 0 )
+		{
+			CHANGE_COUNT.setRelease( this, _changeCount + 1 );
+		}
+	}
+
+	// The version of the puzzle, which goes up by one for each change.
+	long getVersion() { return ( ( (long) CHANGE_COUNT.getAcquire( this ) ) >>> 1 ); }
+
+	// Return a copy of the current arrangement, which can be taken and read safely by any thread.
+	// The tiles are copied while the change count is even, and copied again if it has changed by the end of the copy.
+	// The copy is kept, so asking again before the next change costs nothing.
+	PuzzleSnapshot getSnapshot( ) {
+		while ( true )
+		{
+			long changeCount = (long) CHANGE_COUNT.getAcquire( this );
+			if ( ( changeCount & 1 ) != 0 )
+			{
+				Thread.onSpinWait();
+				continue;
+			}
+			PuzzleSnapshot snapshot = _snapshot;
+			if ( ( snapshot != null ) && ( snapshot.getVersion() == ( changeCount >>> 1 ) ) )
+			{
+				return snapshot;
+			}
+			// The arrays may be replaced mid copy (by buildPuzzleData), so their own sizes are used, not _rows and _columns.
+			int tileValueRows[][] = _tileValues;
+			int rows = tileValueRows.length;
+			int columns = ( rows > 0 ) ? tileValueRows[0].length : 0;
+			int tileValues[] = new int[rows * columns];
+			boolean consistent = true;
+			for ( int row = 0; ( row < rows ) && consistent; row++ )
+			{
+				int rowValues[] = tileValueRows[row];
+				consistent = ( rowValues.length == columns );
+				if ( consistent )
+				{
+					System.arraycopy( rowValues, 0, tileValues, row * columns, columns );
+				}
+			}
+			VarHandle.loadLoadFence();
+			if ( consistent && ( (long) CHANGE_COUNT.getOpaque( this ) == changeCount ) )
+			{
+				snapshot = new PuzzleSnapshot( rows, columns, changeCount >>> 1, tileValues );
+				_snapshot = snapshot;
+				return snapshot;
+			}
+		}
 	}
 
 	// Wrapper methods for setting the size of the puzzle and getting the information back
@@ -87,6 +205,72 @@ public class PuzzleData {
 	int getTileValue( PuzzlePosition tilePosition ) { return getTileValue(tilePosition.getRow(), tilePosition.getColumn() ); }
 	PuzzlePosition getPuzzlePosition( int tileValue ) { return new PuzzlePosition ( _tilePositions[tileValue - 1] ); }
 
+	// Copy the tile values into a single array, row by row from the top left.
+	// This is the form used by the searching solvers, which need their own copy of the puzzle to work on.
+	int[] getTileValueArray( ) {
+		int tileValues[] = new int[getRows() * getColumns()];
+		for ( int row = 0; row < getRows(); row++ )
+		{
+			for ( int column = 0; column < getColumns(); column++ )
+			{
+				tileValues[ ( row * getColumns() ) + column ] = getTileValue( row, column );
+			}
+		}
+		return tileValues;
+	}
+
+	// Take a compact copy of the current arrangement (see PuzzleState).
+	PuzzleState getPuzzleState( ) {
+		return new PuzzleState( this );
+	}
+
+	// Set the puzzle to the arrangement held in the state, resizing the puzzle first if necessary.
+	void setPuzzleState( PuzzleState puzzleState ) {
+		beginChange();
+		try
+		{
+			if ( ( puzzleState.getRows() != getRows() ) || ( puzzleState.getColumns() != getColumns() ) )
+			{
+				buildPuzzleData( puzzleState.getRows(), puzzleState.getColumns() );
+			}
+			puzzleState.copyTo( this );
+		}
+		finally
+		{
+			endChange();
+		}
+	}
+
+	// Only half of the possible arrangements of the tiles can be reached by moving tiles, so only those can be solved.
+	// Every move swaps the blank with a tile, which changes the "parity" of the arrangement (whether it takes an odd or even
+	// number of swaps to put every value in its target position) and also the parity of the blank's distance from its target position.
+	// Therefore an arrangement can be solved only when those two parities match (and it can be shown that all such arrangements can be).
+	// The tile values are given row by row, as returned by getTileValueArray. The parity is found by counting the cycles of values.
+	static boolean isSolvable( int[] tileValues, int rows, int columns ) {
+		int numberOfTiles = rows * columns;
+		boolean visited[] = new boolean[numberOfTiles];
+		int cycles = 0;
+		int blankPosition = 0;
+		for ( int position = 0; position < numberOfTiles; position++ )
+		{
+			if ( tileValues[position] == numberOfTiles )
+			{
+				blankPosition = position;
+			}
+			if ( ! visited[position] )
+			{
+				cycles++;
+				for ( int cyclePosition = position; ! visited[cyclePosition]; cyclePosition = tileValues[cyclePosition] - 1 )
+				{
+					visited[cyclePosition] = true;
+				}
+			}
+		}
+		int swapParity = ( numberOfTiles - cycles ) % 2;
+		int blankDistance = ( ( rows - 1 ) - ( blankPosition / columns ) ) + ( ( columns - 1 ) - ( blankPosition % columns ) );
+		return ( swapParity == ( blankDistance % 2 ) );
+	}
+
 	// The target position for a value (tile) is useful for solving the puzzle and for knowing when it has been solved
 	// The target position is the position a value had when the puzzle was first created i.e. before any shuffling.
 	PuzzlePosition getTargetPositionForValue( int tileValue ) {
@@ -197,8 +381,16 @@ public class PuzzleData {
 		  PuzzlePosition tilePosition2 = getPuzzlePosition( tileValue2 );
 
 		  // Invert the values for the positions
-		  setTileValue(tilePosition1, tileValue2 );
-		  setTileValue(tilePosition2, tileValue1 );
+		  beginChange();
+		  try
+		  {
+			setTileValue(tilePosition1, tileValue2 );
+			setTileValue(tilePosition2, tileValue1 );
+		  }
+		  finally
+		  {
+			endChange();
+		  }
 		 }
 	}
 	void swapPuzzlePositions( PuzzlePosition tilePosition1, PuzzlePosition tilePosition2 ) {
@@ -211,8 +403,16 @@ public class PuzzleData {
 		  int tileValue2 = getTileValue( tilePosition2 );
 
 		  // Invert the positions for the values
-		  setTileValue(tilePosition2, tileValue1 );
-		  setTileValue(tilePosition1, tileValue2 );
+		  beginChange();
+		  try
+		  {
+			setTileValue(tilePosition2, tileValue1 );
+			setTileValue(tilePosition1, tileValue2 );
+		  }
+		  finally
+		  {
+			endChange();
+		  }
 
 		 }
 	}
@@ -220,16 +420,14 @@ public class PuzzleData {
 	// The point of the puzzle is to be able to move the tiles around.
 	// This method encapsulates that : obviously only a few "movable" tiles can be moved. These are next to the blank tile.
 	public void moveTile( PuzzlePosition tilePosition ) {
-		if ( isTileMovable( tilePosition ) )
+		int direction = getDirectionOfTile( tilePosition.getRow(), tilePosition.getColumn() );
+		if ( direction != NO_DIRECTION )
 		{
-			// Get the current positions for the blank tile
-			PuzzlePosition blankPuzzlePosition = getPuzzlePosition( blankTileValue() );
-
 //			PuzzleEvent puzzleEvent = new PuzzleEvent ( this, tilePosition, "PreMove" );
 //			notifyListeners(puzzleEvent);
 
 			// Invert the positions for the tiles
-			swapPuzzlePositions( tilePosition, blankPuzzlePosition );
+			moveBlank( direction );
 
 //			puzzleEvent = new PuzzleEvent ( this, blankPuzzlePosition );
 //			notifyListeners(puzzleEvent);
@@ -239,58 +437,130 @@ public class PuzzleData {
 
 	}
 
-	// The "blank" tile will have the largest "value" in the tile puzzle. In a rectangular puzzle this
-	// must be the product of the number of rows and columns.
-	int blankTileValue() { return (getRows() * getColumns()); }
+	// Moves can also be made by index and direction, which creates no objects at all. This matters where moves are made
+	// in bulk (shuffling, solving) or for every tile drawn. The index of a position counts row by row from the top left.
+	// A direction is the side of the blank on which a tile lies : "moving the blank" in that direction slides that tile
+	// into the blank. Directions are numbered so that each one and its opposite differ only in the lowest bit.
+	static final int NO_DIRECTION = -1;
+	static final int DIRECTION_LEFT = 0;
+	static final int DIRECTION_RIGHT = 1;
+	static final int DIRECTION_UP = 2;
+	static final int DIRECTION_DOWN = 3;
+	static final int NUMBER_OF_DIRECTIONS = 4;
+
+	static int oppositeDirection( int direction ) { return ( direction ^ 1 ); }
+
+	// Convert between row and column and an index.
+	int getIndex( int row, int column ) { return ( ( row * getColumns() ) + column ); }
+	int getRowOfIndex( int index ) { return ( index / getColumns() ); }
+	int getColumnOfIndex( int index ) { return ( index % getColumns() ); }
+
+	// Where is the blank ? Read straight from the position map, so no copy of the position is made.
+	int getBlankIndex( ) {
+		PuzzlePosition blankPuzzlePosition = _tilePositions[blankTileValue() - 1];
+		return getIndex( blankPuzzlePosition.getRow(), blankPuzzlePosition.getColumn() );
+	}
 
-	// Is the tile at the given row and column the "blank" tile ?
-	boolean isTileBlank( int tileRow, int tileColumn ) { return ( getTileValue( tileRow, tileColumn ) == blankTileValue() ); }
-	boolean isTileBlank( PuzzlePosition tilePosition ) { return ( isTileBlank( tilePosition.getRow(), tilePosition.getColumn() ) ); }
+	// Return the index of the neighbouring position in the given direction, or -1 if that would be off the puzzle.
+	int getNeighbourIndex( int index, int direction ) {
+		int row = getRowOfIndex( index );
+		int column = getColumnOfIndex( index );
+		switch ( direction )
+		{
+		case DIRECTION_LEFT:	return ( column > minColumn() ) ? ( index - 1 ) : -1;
+		case DIRECTION_RIGHT:	return ( column < maxColumn() ) ? ( index + 1 ) : -1;
+		case DIRECTION_UP:	return ( row > minRow() ) ? ( index - getColumns() ) : -1;
+		case DIRECTION_DOWN:	return ( row < maxRow() ) ? ( index + getColumns() ) : -1;
+		default:		return -1;
+		}
+	}
 
-	// Is the tile at the given row and column movable (can it become the "blank" tile) ?
-	boolean isTileMovable( int tileRow, int tileColumn ) {
-		boolean movable;
-		movable = false;
-		// If this is the blank tile, it can't be a movable tile
-		if ( isValidPuzzlePosition ( tileRow, tileColumn ) && ( ! isTileBlank ( tileRow, tileColumn ) ) )
+	// Return a bit for each direction (1 << direction) in which there is a tile next to the blank, i.e. the possible moves.
+	int getMovableDirections( ) {
+		int blankIndex = getBlankIndex();
+		int directions = 0;
+		for ( int direction = 0; direction < NUMBER_OF_DIRECTIONS; direction++ )
 		{
-			// Is blank tile "above"
-			if (tileRow > minRow())
+			if ( getNeighbourIndex( blankIndex, direction ) >= 0 )
 			{
-				if (isTileBlank ( getPositionAbove ( tileRow , tileColumn ) ) )
-				{
-					movable = true;
-				}
+				directions |= ( 1 << direction );
 			}
+		}
+		return directions;
+	}
 
-			// Is blank tile "below"
-			if (tileRow < maxRow())
+	// Return the direction from the blank of the tile at the given row and column,
+	// or NO_DIRECTION if it isn't next to the blank (and so can't be moved).
+	int getDirectionOfTile( int tileRow, int tileColumn ) {
+		if ( isValidPuzzlePosition( tileRow, tileColumn ) )
+		{
+			PuzzlePosition blankPuzzlePosition = _tilePositions[blankTileValue() - 1];
+			int rowDistance = tileRow - blankPuzzlePosition.getRow();
+			int columnDistance = tileColumn - blankPuzzlePosition.getColumn();
+			if ( rowDistance == 0 )
 			{
-				if (isTileBlank ( getPositionBelow ( tileRow , tileColumn ) ) )
-				{
-					movable = true;
-				}
+				if ( columnDistance == -1 ) return DIRECTION_LEFT;
+				if ( columnDistance == 1 ) return DIRECTION_RIGHT;
 			}
-
-			// Is blank tile to "left"
-			if (tileColumn > minColumn())
+			else if ( columnDistance == 0 )
 			{
-				if (isTileBlank ( getPositionToLeft ( tileRow , tileColumn ) ) )
-				{
-					movable = true;
-				}
+				if ( rowDistance == -1 ) return DIRECTION_UP;
+				if ( rowDistance == 1 ) return DIRECTION_DOWN;
 			}
+		}
+		return NO_DIRECTION;
+	}
+
+	// Return the value of the tile next to the blank in the given direction, or 0 if there is none.
+	int getMovableTileValue( int direction ) {
+		int tileIndex = getNeighbourIndex( getBlankIndex(), direction );
+		if ( tileIndex < 0 )
+		{
+			return 0;
+		}
+		return getTileValue( getRowOfIndex( tileIndex ), getColumnOfIndex( tileIndex ) );
+	}
 
-			// Is blank tile to "right"
-			if (tileColumn < maxColumn())
+	// Slide the tile next to the blank in the given direction into the blank.
+	// Return the index the tile moved from (where the blank now is), or -1 if there is no tile in that direction.
+	int moveBlank( int direction ) {
+		int blankIndex = getBlankIndex();
+		int tileIndex = getNeighbourIndex( blankIndex, direction );
+		if ( tileIndex >= 0 )
+		{
+			int tileRow = getRowOfIndex( tileIndex );
+			int tileColumn = getColumnOfIndex( tileIndex );
+			beginChange();
+			try
 			{
-				if (isTileBlank ( getPositionToRight ( tileRow , tileColumn ) ) )
-				{
-					movable = true;
-				}
+				setTileValue( getRowOfIndex( blankIndex ), getColumnOfIndex( blankIndex ), getTileValue( tileRow, tileColumn ) );
+				setTileValue( tileRow, tileColumn, blankTileValue() );
+			}
+			finally
+			{
+				endChange();
 			}
 		}
-		return movable;
+		return tileIndex;
+	}
+
+	// Take back a move made by moveBlank in the given direction.
+	int undoMoveBlank( int direction ) {
+		return moveBlank( oppositeDirection( direction ) );
+	}
+
+	// The "blank" tile will have the largest "value" in the tile puzzle. In a rectangular puzzle this
+	// must be the product of the number of rows and columns.
+	int blankTileValue() { return (getRows() * getColumns()); }
+
+	// Is the tile at the given row and column the "blank" tile ?
+	boolean isTileBlank( int tileRow, int tileColumn ) { return ( getTileValue( tileRow, tileColumn ) == blankTileValue() ); }
+	boolean isTileBlank( PuzzlePosition tilePosition ) { return ( isTileBlank( tilePosition.getRow(), tilePosition.getColumn() ) ); }
+
+	// Is the tile at the given row and column movable (can it become the "blank" tile) ?
+	// It is movable if it is next to the blank (which rules out the blank itself).
+	boolean isTileMovable( int tileRow, int tileColumn ) {
+		return ( getDirectionOfTile( tileRow, tileColumn ) != NO_DIRECTION );
 	}
 	boolean isTileMovable( PuzzlePosition tilePosition ) { return ( isTileMovable( tilePosition.getRow(), tilePosition.getColumn() ) ); }
 
@@ -298,27 +568,15 @@ public class PuzzleData {
 	// There may be two, tree or four of these.
 	public ArrayList<PuzzlePosition> getMovablePuzzlePositions( )
 	{
-		ArrayList<PuzzlePosition> movableTiles = new ArrayList<PuzzlePosition>();
-		PuzzlePosition blankPuzzlePosition = getPuzzlePosition (blankTileValue());
-		PuzzlePosition tilePosition = getPositionToLeft ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
-		{
-			movableTiles.add ( tilePosition );
-		}
-		tilePosition = getPositionToRight ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
-		{
-			movableTiles.add ( tilePosition );
-		}
-		tilePosition = getPositionAbove ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
-		{
-			movableTiles.add ( tilePosition );
-		}
-		tilePosition = getPositionBelow ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
+		ArrayList<PuzzlePosition> movableTiles = new ArrayList<PuzzlePosition>( NUMBER_OF_DIRECTIONS );
+		int blankIndex = getBlankIndex();
+		for ( int direction = 0; direction < NUMBER_OF_DIRECTIONS; direction++ )
 		{
-			movableTiles.add ( tilePosition );
+			int tileIndex = getNeighbourIndex( blankIndex, direction );
+			if ( tileIndex >= 0 )
+			{
+				movableTiles.add ( new PuzzlePosition( getRowOfIndex( tileIndex ), getColumnOfIndex( tileIndex ) ) );
+			}
 		}
 		return movableTiles;
 	}
@@ -327,80 +585,176 @@ public class PuzzleData {
 	// There may be two, tree or four of these.
 	public ArrayList<Integer> getMovableTileValues( )
 	{
-		ArrayList<Integer> movableTiles = new ArrayList<Integer>();
-		PuzzlePosition blankPuzzlePosition = getPuzzlePosition (blankTileValue());
-		PuzzlePosition tilePosition = getPositionToLeft ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
+		ArrayList<Integer> movableTiles = new ArrayList<Integer>( NUMBER_OF_DIRECTIONS );
+		int movableDirections = getMovableDirections();
+		for ( int direction = 0; direction < NUMBER_OF_DIRECTIONS; direction++ )
 		{
-			movableTiles.add ( new Integer ( getTileValue (tilePosition ) ) );
-		}
-		tilePosition = getPositionToRight ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
-		{
-			movableTiles.add ( new Integer ( getTileValue (tilePosition ) ) );
-		}
-		tilePosition = getPositionAbove ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
-		{
-			movableTiles.add ( new Integer ( getTileValue (tilePosition ) ) );
-		}
-		tilePosition = getPositionBelow ( blankPuzzlePosition );
-		if ( isValidPuzzlePosition ( tilePosition ) )
-		{
-			movableTiles.add ( new Integer ( getTileValue (tilePosition ) ) );
+			if ( ( movableDirections & ( 1 << direction ) ) != 0 )
+			{
+				movableTiles.add ( Integer.valueOf ( getMovableTileValue( direction ) ) );
+			}
 		}
 		return movableTiles;
 	}
 
 	// Initialise the data to be in "solved" order.
 	void buildPuzzleData( ) {
-		shuffleRandom = new Random1();
-		_tilePositions = new PuzzlePosition[getRows()*getColumns()];
-		_tileValues = new int[getRows()][getColumns()];
+		// Keep the random source when the puzzle is rebuilt, so a seeded sequence of shuffles carries on.
+		if ( shuffleRandom == null )
+		{
+			shuffleRandom = new PuzzleRandom();
+		}
+		beginChange();
+		try
+		{
+			_tilePositions = new PuzzlePosition[getRows()*getColumns()];
+			_tileValues = new int[getRows()][getColumns()];
 
-		for (int tileValue = 1; tileValue <= ( getRows()*getColumns() ); tileValue++)
+			for (int tileValue = 1; tileValue <= ( getRows()*getColumns() ); tileValue++)
+			{
+				PuzzlePosition tilePosition = getTargetPositionForValue( tileValue );
+				_tilePositions[tileValue - 1] = tilePosition;
+				setTileValue( tilePosition.getRow(), tilePosition.getColumn(), tileValue );
+			}
+		}
+		finally
 		{
-			PuzzlePosition tilePosition = getTargetPositionForValue( tileValue );
-			_tilePositions[tileValue - 1] = tilePosition;
-			setTileValue( tilePosition.getRow(), tilePosition.getColumn(), tileValue );
+			endChange();
 		}
 	}
 
 	// Set the size of the puzzle then initialise it.
 	void buildPuzzleData( int rows, int columns ) {
-		setRows ( rows );
-		setColumns ( columns );
-		buildPuzzleData();
-	}
-
-	// Set the size of the puzzle then initialise it.
-	void buildPuzzleData( Dimension puzzleSize ) {
-		setRows ( puzzleSize.height );
-		setColumns ( puzzleSize.width );
-		buildPuzzleData();
+		beginChange();
+		try
+		{
+			setRows ( rows );
+			setColumns ( columns );
+			buildPuzzleData();
+		}
+		finally
+		{
+			endChange();
+		}
 	}
 
 	// Shuffle the puzzle by randomly moving a tile.
 	// Just pick pick one of the movable tiles at random and move it.
 	void shuffle() {
-		ArrayList<PuzzlePosition> movablePuzzlePositions = getMovablePuzzlePositions();
-		int shuffleChoice = shuffleRandom.nextIntFromRange(movablePuzzlePositions.size());
-		moveTile( movablePuzzlePositions.get( shuffleChoice ) );
+		int movableDirections = getMovableDirections();
+		int shuffleChoice = shuffleRandom.nextIntFromRange( Integer.bitCount( movableDirections ) );
+		// Skip over the directions before the chosen one.
+		for ( ; shuffleChoice > 0; shuffleChoice-- )
+		{
+			movableDirections &= ( movableDirections - 1 );
+		}
+		moveBlank( Integer.numberOfTrailingZeros( movableDirections ) );
 	}
 
-	// Repeatedly shuffle the puzzle (to give the user something to do !)
+	// The random source can be replaced, e.g. by a seeded one so that the shuffles can be repeated.
+	void setShuffleRandom( PuzzleRandom random ) { shuffleRandom = random; }
+	PuzzleRandom getShuffleRandom() { return shuffleRandom; }
+	void setShuffleSeed( long seed ) { setShuffleRandom( new PuzzleRandom( seed ) ); }
+
+	void setShuffleMode( int shuffleMode ) { _shuffleMode = shuffleMode; }
+	int getShuffleMode() { return _shuffleMode; }
+	void setShuffleSteps( int shuffleSteps ) { _shuffleSteps = shuffleSteps; }
+	int getShuffleSteps() { return _shuffleSteps; }
+
+	// Shuffle the puzzle (to give the user something to do !) in the chosen way.
 	void shufflePuzzle() {
-		int numberOfTiles = getRows() * getColumns();
-		int numberOfShuffles = numberOfTiles * numberOfTiles;
+		if ( getShuffleMode() == SHUFFLE_RANDOM_WALK )
+		{
+			int numberOfShuffles = getShuffleSteps();
+			if ( numberOfShuffles <= 0 )
+			{
+				int numberOfTiles = getRows() * getColumns();
+				numberOfShuffles = numberOfTiles * numberOfTiles;
+			}
+			shufflePuzzle( numberOfShuffles );
+		}
+		else
+		{
+			shufflePuzzleUniformly();
+		}
+	}
+
+	// Repeatedly shuffle the puzzle by making the given number of random moves.
+	// A few moves leave the puzzle nearly solved. Many moves are needed to mix up a large puzzle properly.
+	void shufflePuzzle( int numberOfShuffles ) {
 		for ( int manyShuffles = 0; manyShuffles < numberOfShuffles; manyShuffles++ )
 		{
 			shuffle();
 		}
 	}
 
+	// Put the tiles in a random arrangement, with every solvable arrangement equally likely.
+	void shufflePuzzleUniformly() {
+		int tileValues[] = getUniformTileValues( getRows(), getColumns(), shuffleRandom );
+		beginChange();
+		try
+		{
+			for ( int position = 0; position < tileValues.length; position++ )
+			{
+				setTileValue( getRowOfIndex( position ), getColumnOfIndex( position ), tileValues[position] );
+			}
+		}
+		finally
+		{
+			endChange();
+		}
+	}
+
+	// Return a random solvable arrangement of the tile values (row by row, as getTileValueArray), every one equally likely.
+	// The values are shuffled as a whole (the Fisher-Yates shuffle : each position in turn takes a random value from
+	// those not yet placed), which gives any arrangement at all. Half of those can't be solved (see isSolvable), but swapping
+	// two tiles (not the blank) turns each of them into a different solvable one, so the result is still evenly spread.
+	// That doesn't hold for a puzzle one tile wide (or high), where the tiles can never pass each other : the only
+	// arrangements which can be reached have the tiles in order, with the blank slid to some position along the line.
+	// So the blank is put at a random position instead, which gives each of those equally often.
+	static int[] getUniformTileValues( int rows, int columns, PuzzleRandom random ) {
+		int numberOfTiles = rows * columns;
+		int tileValues[] = new int[numberOfTiles];
+		if ( ( rows == 1 ) || ( columns == 1 ) )
+		{
+			int blankPosition = random.nextIntFromRange( numberOfTiles );
+			for ( int position = 0; position < numberOfTiles; position++ )
+			{
+				tileValues[position] = ( position < blankPosition ) ? position + 1 : position;
+			}
+			tileValues[blankPosition] = numberOfTiles;
+			return tileValues;
+		}
+		for ( int position = 0; position < numberOfTiles; position++ )
+		{
+			tileValues[position] = position + 1;
+		}
+		for ( int position = numberOfTiles - 1; position > 0; position-- )
+		{
+			int choice = random.nextIntFromRange( position + 1 );
+			int tileValue = tileValues[choice];
+			tileValues[choice] = tileValues[position];
+			tileValues[position] = tileValue;
+		}
+		if ( ! isSolvable( tileValues, rows, columns ) )
+		{
+			// Swap the first two positions which don't hold the blank.
+			int first = ( tileValues[0] == numberOfTiles ) ? 1 : 0;
+			int second = ( tileValues[first + 1] == numberOfTiles ) ? first + 2 : first + 1;
+			int tileValue = tileValues[first];
+			tileValues[first] = tileValues[second];
+			tileValues[second] = tileValue;
+		}
+		return tileValues;
+	}
+
 	// Repeatedly shuffle the puzzle (to give the user something to do !)
 	public void sendMessage( String puzzleMessage) {
 //	Display the text in the information panel.
+		if ( ! isEventWanted( PuzzleEventKind.MESSAGE ) )
+		{
+			return;
+		}
 		PuzzleEvent messageEvent = new MessageEvent ( this, puzzleMessage );
 		notifyListeners(messageEvent);
 	}
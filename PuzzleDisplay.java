@@ -198,6 +198,13 @@ abstract class PuzzleDisplay extends Panel{
 		drawTile(g, tile_row, tile_column);
 	}
 
+	// Draw a move : the tile has moved (in the data) from one position to the other, leaving the blank where it was.
+	// A display which can show the tile sliding across, over the given time, overrides this. Here it just jumps.
+	void drawMove( PuzzlePosition fromPosition, PuzzlePosition toPosition, int slideMillis ) {
+		drawTile(fromPosition);
+		drawTile(toPosition);
+	}
+
 	// Draw a tile drom the back forwards, so start with the background, then the frame and finally the value.
 	void drawTile( Graphics g, PuzzlePosition tilePosition ) {
 		// Draw the tiles
@@ -25,6 +25,34 @@ public class PuzzleDrawnDisplay extends AutoDisplay {
 	Color _backgroundColor2;
 	Dimension _savedSize;
 
+//	The tiles are drawn into a back buffer (an image the size of the display) and copied to the screen from there, so the
+//	screen never shows a half drawn tile and a move only copies the tiles it changed, however large the puzzle.
+//	A move redraws its tiles into the buffer and notes their rectangles as "dirty", then asks for a repaint of them.
+//	AWT gathers up the repaints until the display is next updated, so several moves may be copied in one go.
+//	An update which asks for more than the dirty rectangles (e.g. a repaint of the whole display after a shuffle) redraws
+//	the whole buffer from the data first. The buffer is only drawn to on the event thread : the automatic moves are made
+//	there by the move scheduler, and the puzzle data belongs to that thread (see PuzzleData.setOwner), so it needs no lock.
+	Image			_backBuffer;
+	Graphics		_backBufferGraphics;
+	boolean			_backBufferValid = false;	// Does the buffer match the data ?
+	ArrayList<Rectangle>	_dirtyRectangles = new ArrayList<Rectangle>();
+	Rectangle		_dirtyBounds;			// The rectangle containing all the dirty ones, or null if there are none
+
+//	A move may be shown as the tile sliding from its old position to its new one (see drawMove). While it slides, the back
+//	buffer shows both positions empty. Each frame copies the area the tile has just left from the buffer and draws the tile
+//	on top in its new place, so only the area it sweeps over is repainted, however large the puzzle.
+//	The tile eases in and out of the slide, timed by the clock rather than by counting frames, so a late frame doesn't slow it.
+//	When the slide ends (or another move starts) the tile is drawn into the buffer at its new position.
+	PuzzlePosition		_slideFrom;			// The position the sliding tile left, or null if no tile is sliding
+	PuzzlePosition		_slideTo;			// The position it is sliding to (where the data has it already)
+	long			_slideStartNanos;
+	long			_slideNanos;
+	Point			_slideOffset = new Point();	// Where the tile is now, relative to its new position
+	Rectangle		_slideBounds;			// The area the tile was last drawn over, or null if it hasn't been
+	javax.swing.Timer	_slideTimer;
+
+	static final int MAX_DIRTY_RECTANGLES = 32;		// Above this, the rectangle containing them all is copied instead
+
 //	The default constructor for the display can't display anything until it gets its data reference.
 //	This component must define a mouse listener to detect tile clicks.
 	PuzzleDrawnDisplay( ) {
@@ -61,12 +89,19 @@ public class PuzzleDrawnDisplay extends AutoDisplay {
 	}
 
 //	Clear the display ready for drawing
+//	Without a graphics context, the display is being rebuilt : the back buffer must be redrawn and copied to the screen.
 	public void clear( Graphics g ) {
 		if ( g == null ) {
-			g = getGraphics();
+			_backBufferValid = false;
+			_slideFrom = null;
+			_slideTo = null;
+			_slideBounds = null;
+			if ( _slideTimer != null ) {
+				_slideTimer.stop();
+			}
+			repaint();
 		}
-
-		if ( g != null ) {
+		else {
 			Color saved_color = g.getColor();
 			g.fillRect( 0,
 				0,
@@ -76,6 +111,258 @@ public class PuzzleDrawnDisplay extends AutoDisplay {
 		}
 	}
 
+//	Copy the dirty parts of the back buffer to the screen. If more is asked for, redraw the whole buffer and copy that.
+//	This replaces the default update, which would clear the display first (and make it flicker).
+	public void update( Graphics g ) {
+		Rectangle clip = g.getClipBounds();
+		if ( isBackBufferReady() && ( _dirtyBounds != null ) && ( clip != null ) && _dirtyBounds.contains( clip ) )
+		{
+			for ( Rectangle dirtyRectangle : _dirtyRectangles ) {
+				copyFromBackBuffer( g, dirtyRectangle );
+			}
+			drawSlidingTile( g );
+		}
+		else if ( renderBackBuffer() )
+		{
+			g.drawImage( _backBuffer, 0, 0, null );
+			drawSlidingTile( g );
+		}
+		else
+		{
+			drawTiles( g );
+		}
+		_dirtyRectangles.clear();
+		_dirtyBounds = null;
+	}
+
+//	The display has been uncovered (or shown for the first time) : the back buffer is still right, unless the data has changed.
+	public void paint( Graphics g ) {
+		if ( isBackBufferReady() || renderBackBuffer() )
+		{
+			g.drawImage( _backBuffer, 0, 0, null );
+			drawSlidingTile( g );
+		}
+		else
+		{
+			drawTiles( g );
+		}
+	}
+
+//	Draw a single tile after a move. It is drawn into the back buffer and only its rectangle is repainted.
+	void drawTile( PuzzlePosition tilePosition ) {
+		Rectangle tileBounds = null;
+		if ( ( _slideTo != null ) && _slideTo.equals( tilePosition ) )
+		{
+			return;		// The tile is still sliding there, and will be drawn when it arrives.
+		}
+		if ( isBackBufferReady() )
+		{
+			drawTile( _backBufferGraphics, tilePosition.getRow(), tilePosition.getColumn() );
+			tileBounds = getTileBounds( tilePosition.getRow(), tilePosition.getColumn() );
+			addDirtyRectangle( tileBounds );
+		}
+		if ( tileBounds != null )
+		{
+			repaint( tileBounds.x, tileBounds.y, tileBounds.width, tileBounds.height );
+		}
+		else
+		{
+			// The buffer hasn't been drawn yet (or the display has been resized), so it must all be drawn.
+			repaint();
+		}
+	}
+
+//	Show a move by sliding the tile across over the given time, or at once if the time is 0 (or nothing has been drawn yet).
+//	Any tile still sliding from the previous move is put straight into its place.
+	void drawMove( PuzzlePosition fromPosition, PuzzlePosition toPosition, int slideMillis ) {
+		finishSlide();
+		if ( ( slideMillis > 0 ) && isBackBufferReady() )
+		{
+			_slideFrom = new PuzzlePosition( fromPosition );
+			_slideTo = new PuzzlePosition( toPosition );
+			_slideStartNanos = System.nanoTime();
+			_slideNanos = slideMillis * 1000000L;
+			_slideBounds = null;
+			drawTile( _backBufferGraphics, fromPosition.getRow(), fromPosition.getColumn() );
+			drawEmptyTile( _backBufferGraphics, toPosition.getRow(), toPosition.getColumn() );
+			addDirtyRectangle( getTileBounds( fromPosition.getRow(), fromPosition.getColumn() ) );
+		}
+		if ( _slideTo == null )
+		{
+			super.drawMove( fromPosition, toPosition, slideMillis );
+			return;
+		}
+		if ( _slideTimer == null )
+		{
+			_slideTimer = new javax.swing.Timer( MoveScheduler.FRAME_MILLIS, event -> slideFrame() );
+			_slideTimer.setCoalesce( true );
+		}
+		_slideTimer.start();
+		slideFrame();
+	}
+
+//	Move the sliding tile on to where it should be by now, repainting the area it has swept over.
+	void slideFrame() {
+		Rectangle sweptBounds;
+		if ( _slideTo == null )
+		{
+			return;
+		}
+		long elapsedNanos = System.nanoTime() - _slideStartNanos;
+		if ( elapsedNanos < _slideNanos )
+		{
+			double progress = (double) elapsedNanos / _slideNanos;
+			double eased = progress * progress * ( 3 - ( 2 * progress ) );
+			Point fromOrigin = getTileOrigin( _slideFrom.getRow(), _slideFrom.getColumn() );
+			Point toOrigin = getTileOrigin( _slideTo.getRow(), _slideTo.getColumn() );
+			_slideOffset.x = (int) Math.round( ( fromOrigin.x - toOrigin.x ) * ( 1 - eased ) );
+			_slideOffset.y = (int) Math.round( ( fromOrigin.y - toOrigin.y ) * ( 1 - eased ) );
+			Rectangle tileBounds = getTileBounds( _slideTo.getRow(), _slideTo.getColumn() );
+			tileBounds.translate( _slideOffset.x, _slideOffset.y );
+			sweptBounds = ( _slideBounds == null ) ? new Rectangle( tileBounds ) : _slideBounds.union( tileBounds );
+			_slideBounds = tileBounds;
+			addDirtyRectangle( sweptBounds );
+		}
+		else
+		{
+			sweptBounds = null;
+		}
+		if ( sweptBounds == null )
+		{
+			finishSlide();
+		}
+		else
+		{
+			repaint( sweptBounds.x, sweptBounds.y, sweptBounds.width, sweptBounds.height );
+		}
+	}
+
+//	Put the sliding tile (if there is one) straight into its new position.
+	void finishSlide() {
+		PuzzlePosition slideTo;
+		Rectangle slideBounds;
+		if ( _slideTo == null )
+		{
+			return;
+		}
+		slideTo = _slideTo;
+		slideBounds = _slideBounds;
+		_slideFrom = null;
+		_slideTo = null;
+		_slideBounds = null;
+		if ( ( slideBounds != null ) && isBackBufferReady() )
+		{
+			addDirtyRectangle( slideBounds );
+		}
+		_slideTimer.stop();
+		if ( slideBounds != null )
+		{
+			repaint( slideBounds.x, slideBounds.y, slideBounds.width, slideBounds.height );
+		}
+		drawTile( slideTo );
+	}
+
+//	Draw the sliding tile (if there is one) where it has got to.
+	void drawSlidingTile( Graphics g ) {
+		if ( _slideTo != null )
+		{
+			g.translate( _slideOffset.x, _slideOffset.y );
+			drawTile( g, _slideTo.getRow(), _slideTo.getColumn() );
+			g.translate( -_slideOffset.x, -_slideOffset.y );
+		}
+	}
+
+//	Draw a position as if it held the blank, e.g. the one a tile is sliding into.
+	void drawEmptyTile( Graphics g, int tileRow, int tileColumn ) {
+		drawTileBackground( g, tileRow, tileColumn );
+		drawTileFrame( g, tileRow, tileColumn );
+		drawBlankTile( g, tileRow, tileColumn );
+	}
+
+//	The area covered by a tile, including the frame (which is drawn one pixel beyond the tile's width and height).
+	Rectangle getTileBounds( int tileRow, int tileColumn ) {
+		Point tileOrigin = getTileOrigin( tileRow, tileColumn );
+		return new Rectangle( tileOrigin.x, tileOrigin.y, getTileWidth() + 1, getTileHeight() + 1 );
+	}
+
+	void addDirtyRectangle( Rectangle dirtyRectangle ) {
+		if ( _dirtyBounds == null )
+		{
+			_dirtyBounds = new Rectangle( dirtyRectangle );
+		}
+		else
+		{
+			_dirtyBounds.add( dirtyRectangle );
+		}
+		if ( _dirtyRectangles.size() < MAX_DIRTY_RECTANGLES )
+		{
+			_dirtyRectangles.add( dirtyRectangle );
+		}
+		else
+		{
+			_dirtyRectangles.clear();
+			_dirtyRectangles.add( _dirtyBounds );
+		}
+	}
+
+	Rectangle getDirtyBounds() {
+		return ( _dirtyBounds == null ) ? null : new Rectangle( _dirtyBounds );
+	}
+
+	void copyFromBackBuffer( Graphics g, Rectangle area ) {
+		g.drawImage( _backBuffer,
+			area.x, area.y, area.x + area.width, area.y + area.height,
+			area.x, area.y, area.x + area.width, area.y + area.height,
+			null );
+	}
+
+//	Is the back buffer up to date and the same size as the display ?
+	boolean isBackBufferReady() {
+		return ( _backBufferValid && ( _backBuffer != null )
+			&& ( _backBuffer.getWidth( null ) == getSize().width ) && ( _backBuffer.getHeight( null ) == getSize().height ) );
+	}
+
+//	Draw the whole puzzle into the back buffer, making a new buffer if the display has changed size.
+//	The buffer is made to suit the screen where possible, so that copying it is quick.
+//	Returns false if there is nothing to draw into yet (the display has no size or no data).
+	boolean renderBackBuffer() {
+		int width = getSize().width;
+		int height = getSize().height;
+		if ( ( width <= 0 ) || ( height <= 0 ) || ( getData() == null ) )
+		{
+			return false;
+		}
+		if ( ( _backBuffer == null ) || ( _backBuffer.getWidth( null ) != width ) || ( _backBuffer.getHeight( null ) != height ) )
+		{
+			if ( _backBufferGraphics != null )
+			{
+				_backBufferGraphics.dispose();
+			}
+			GraphicsConfiguration configuration = getGraphicsConfiguration();
+			if ( configuration != null )
+			{
+				_backBuffer = configuration.createCompatibleImage( width, height );
+			}
+			else
+			{
+				_backBuffer = new java.awt.image.BufferedImage( width, height, java.awt.image.BufferedImage.TYPE_INT_RGB );
+			}
+			_backBufferGraphics = _backBuffer.getGraphics();
+		}
+		Graphics g = _backBufferGraphics;
+		g.setFont( getFont() );
+		g.setColor( ( getBackground() != null ) ? getBackground() : Color.white );
+		g.fillRect( 0, 0, width, height );
+		g.setColor( ( getForeground() != null ) ? getForeground() : Color.black );
+		drawTiles( g );
+		if ( _slideTo != null )
+		{
+			drawEmptyTile( g, _slideTo.getRow(), _slideTo.getColumn() );
+		}
+		_backBufferValid = true;
+		return true;
+	}
+
 	void setBackgroundColor2( Color backgroundColor2 ) { _backgroundColor2 = backgroundColor2; }
 	Color getBackgroundColor2() { return _backgroundColor2; }
 
@@ -7,45 +7,68 @@
  *
  */
 
-import java.awt.*;
-import java.awt.event.*;
+import java.util.*;
 
 /**
  * Notify the world of a tile change, indicate by a tile position
  */
-public class PuzzleEvent extends ActionEvent
+// The puzzle events used to be AWT ActionEvents, but loading any AWT event starts the whole AWT toolkit, which a program
+// using the puzzle without a display (e.g. solving puzzles on a server) shouldn't have to do.
+// So they are plain EventObjects which carry the same ID and command as before.
+// Each also has the kind of event its command stands for (see PuzzleEventKind), for listeners to switch on.
+public class PuzzleEvent extends EventObject
 {
     private Object _eventInfo;
+    private int _eventID;
+    private String _command;
+    private PuzzleEventKind _kind;
     private static final long serialVersionUID = 1L;
+    // The event IDs are numbered after those reserved for AWT (java.awt.AWTEvent.RESERVED_ID_MAX), as they always were.
+    static protected final int RESERVED_ID_MAX = 1999;
     static protected int puzzleEventID = RESERVED_ID_MAX+1;
 
     public PuzzleEvent(Object source, Object eventInfo) {
-        super(source, puzzleEventID, "Puzzle");
+        this(source, puzzleEventID, "Puzzle");
         setEventInfo (eventInfo);
     }
 
     public PuzzleEvent(Object source, String command, Object eventInfo) {
-        super(source, puzzleEventID, command);
+        this(source, puzzleEventID, command);
         setEventInfo (eventInfo);
     }
 
     public PuzzleEvent(Object source, int eventID, String command) {
-        super(source, eventID, command);
+        super(source);
+        _eventID = eventID;
+        _command = command;
+        _kind = PuzzleEventKind.forCommand( command );
     }
 
     public PuzzleEvent(Object source, String command) {
-        super(source, puzzleEventID, command);
+        this(source, puzzleEventID, command);
     }
 
     public PuzzleEvent(Object source, int eventID) {
-        super(source, eventID, "Puzzle");
+        this(source, eventID, "Puzzle");
     }
 
     public PuzzleEvent(Object source, int eventID, Object eventInfo) {
-        super(source, eventID, "Puzzle");
+        this(source, eventID, "Puzzle");
         setEventInfo (eventInfo);
     }
 
+    public int getID() {
+        return _eventID;
+    }
+
+    public String getActionCommand() {
+        return _command;
+    }
+
+    public PuzzleEventKind getKind() {
+        return _kind;
+    }
+
     public Object getEventInfo() {
         return _eventInfo;
     }
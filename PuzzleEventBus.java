@@ -0,0 +1,186 @@
+/*
+ * @(#)PuzzleEventBus.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Delivers the puzzle events to the listeners which want them.
+ */
+
+// Each listener is registered for a set of kinds of event (see PuzzleEventKind), and only gets those.
+// The listeners are held in an array which is replaced (never changed) when one is added or removed, so an event is
+// delivered without taking a lock or copying the list, and a listener may add or remove listeners as it handles an event.
+// So, with the kinds wanted by anyone kept as one set, the sender of a frequent event can ask whether anyone wants it
+// before making it (see isWanted) : if no one does, sending it costs nothing at all.
+// A listener may instead have its events delivered later, on a thread of the bus's own (or a given executor). The events
+// for such listeners are queued, and all those queued by the time the thread gets to them are delivered in one go.
+class PuzzleEventBus {
+
+	// A listener and what it wants. Never changed once made.
+	static final class Registration {
+		final PuzzleListener	_listener;
+		final long		_kinds;		// The kinds wanted, as bits (see PuzzleEventKind.getBit)
+		final boolean		_deferred;	// Delivered on the bus's thread rather than the sender's
+
+		Registration( PuzzleListener listener, long kinds, boolean deferred ) {
+			_listener = listener;
+			_kinds = kinds;
+			_deferred = deferred;
+		}
+	}
+
+	static final long ALL_KINDS = -1L;
+
+	volatile Registration	_registrations[] = new Registration[0];
+	volatile long		_wantedKinds;			// The kinds wanted by any of the listeners
+
+	// The events waiting to be delivered later, and who to. Both are guarded by _deferredLock.
+	final Object		_deferredLock = new Object();
+	ArrayDeque<PuzzleListener>	_deferredListeners = new ArrayDeque<PuzzleListener>();
+	ArrayDeque<PuzzleEvent>	_deferredEvents = new ArrayDeque<PuzzleEvent>();
+	boolean			_deliveryScheduled = false;
+	Executor		_executor;
+
+	// The set of kinds as bits.
+	static long getKindBits( Set<PuzzleEventKind> kinds ) {
+		long kindBits = 0;
+		for ( PuzzleEventKind kind : kinds )
+		{
+			kindBits |= kind.getBit();
+		}
+		return kindBits;
+	}
+
+	// Add the listener for the given kinds of event, as they happen or (if deferred) later on the bus's thread.
+	// A listener already registered is registered again with the new kinds.
+	synchronized void addListener( PuzzleListener listener, long kinds, boolean deferred ) {
+		removeListener( listener );
+		Registration registrations[] = Arrays.copyOf( _registrations, _registrations.length + 1 );
+		registrations[registrations.length - 1] = new Registration( listener, kinds, deferred );
+		setRegistrations( registrations );
+	}
+
+	synchronized void removeListener( PuzzleListener listener ) {
+		Registration registrations[] = _registrations;
+		for ( int index = 0; index < registrations.length; index++ )
+		{
+			if ( registrations[index]._listener == listener )
+			{
+				Registration remaining[] = new Registration[registrations.length - 1];
+				System.arraycopy( registrations, 0, remaining, 0, index );
+				System.arraycopy( registrations, index + 1, remaining, index, remaining.length - index );
+				setRegistrations( remaining );
+				return;
+			}
+		}
+	}
+
+	boolean hasListener( PuzzleListener listener ) {
+		for ( Registration registration : _registrations )
+		{
+			if ( registration._listener == listener )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	void setRegistrations( Registration registrations[] ) {
+		long wantedKinds = 0;
+		for ( Registration registration : registrations )
+		{
+			wantedKinds |= registration._kinds;
+		}
+		_registrations = registrations;
+		_wantedKinds = wantedKinds;
+	}
+
+	// Does any listener want events of this kind ?
+	boolean isWanted( PuzzleEventKind kind ) {
+		return ( ( _wantedKinds & kind.getBit() ) != 0 );
+	}
+
+	// Deliver the event to each listener which wants it.
+	void publish( PuzzleEvent puzzleEvent ) {
+		long kindBit = puzzleEvent.getKind().getBit();
+		if ( ( _wantedKinds & kindBit ) == 0 )
+		{
+			return;
+		}
+		for ( Registration registration : _registrations )
+		{
+			if ( ( registration._kinds & kindBit ) != 0 )
+			{
+				if ( registration._deferred )
+				{
+					defer( registration._listener, puzzleEvent );
+				}
+				else
+				{
+					registration._listener.puzzleChange( puzzleEvent );
+				}
+			}
+		}
+	}
+
+	// Use the given executor for the deferred events, rather than the bus's own thread.
+	// It should run one task at a time (as the bus's thread does), or the events may arrive out of order.
+	synchronized void setExecutor( Executor executor ) {
+		_executor = executor;
+	}
+
+	synchronized Executor getExecutor() {
+		if ( _executor == null )
+		{
+			_executor = Executors.newSingleThreadExecutor( runnable -> {
+				Thread thread = new Thread( runnable, "PuzzleEventBus" );
+				thread.setDaemon( true );
+				return thread;
+			} );
+		}
+		return _executor;
+	}
+
+	// Queue the event for the listener, making sure the queue will be delivered.
+	void defer( PuzzleListener listener, PuzzleEvent puzzleEvent ) {
+		boolean scheduleDelivery;
+		synchronized ( _deferredLock )
+		{
+			_deferredListeners.add( listener );
+			_deferredEvents.add( puzzleEvent );
+			scheduleDelivery = ! _deliveryScheduled;
+			_deliveryScheduled = true;
+		}
+		if ( scheduleDelivery )
+		{
+			getExecutor().execute( this::deliverDeferred );
+		}
+	}
+
+	// Deliver all the events queued so far, in the order they were sent.
+	void deliverDeferred() {
+		PuzzleListener listeners[];
+		PuzzleEvent events[];
+		synchronized ( _deferredLock )
+		{
+			listeners = _deferredListeners.toArray( new PuzzleListener[_deferredListeners.size()] );
+			events = _deferredEvents.toArray( new PuzzleEvent[_deferredEvents.size()] );
+			_deferredListeners.clear();
+			_deferredEvents.clear();
+			_deliveryScheduled = false;
+		}
+		for ( int index = 0; index < events.length; index++ )
+		{
+			listeners[index].puzzleChange( events[index] );
+		}
+	}
+
+    }
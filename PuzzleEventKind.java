@@ -0,0 +1,75 @@
+/*
+ * @(#)PuzzleEventKind.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+
+/**
+ * The kinds of puzzle event, one for each command the events carry.
+ */
+
+// An event works out its kind from its command once, when it is made, so that a listener can switch on the kind
+// (a jump straight to the right case) instead of comparing the command with each string in turn.
+// A command not listed here has the kind OTHER.
+public enum PuzzleEventKind
+{
+    PUZZLE( "Puzzle" ),
+    POSITION( "Position" ),
+    CLICK( "Click" ),
+    NEXT_SOLVE( "NextSolve" ),
+    SHUFFLE( "Shuffle" ),
+    SOLVE( "Solve" ),
+    NEXT_MOVE( "NextMove" ),
+    RESET_PUZZLE( "ResetPuzzle" ),
+    RESIZE( "Resize" ),
+    RESIZE_OK( "ResizeOK" ),
+    RESIZE_CANCEL( "ResizeCancel" ),
+    STYLE( "Style" ),
+    STYLE_OK( "StyleOK" ),
+    STYLE_CANCEL( "StyleCancel" ),
+    USE_IMAGE( "UseImage" ),
+    SPEED( "Speed" ),
+    SPEED_OK( "SpeedOK" ),
+    SPEED_CANCEL( "SpeedCancel" ),
+    ADD_THUMBNAIL( "AddThumbnail" ),
+    MESSAGE( "Message" ),
+    SOLVING( "Solving" ),
+    HINT( "Hint" ),
+    SHOW_HINT( "ShowHint" ),
+    OTHER( null );
+
+    private final String _command;
+    private static final Map<String, PuzzleEventKind> _kindsByCommand = new HashMap<String, PuzzleEventKind>();
+
+    static {
+        for ( PuzzleEventKind kind : values() ) {
+            if ( kind._command != null ) {
+                _kindsByCommand.put( kind._command, kind );
+            }
+        }
+    }
+
+    PuzzleEventKind( String command ) {
+        _command = command;
+    }
+
+    public String getCommand() {
+        return _command;
+    }
+
+    // The bit for this kind in a set of kinds held as a long (see PuzzleEventBus).
+    long getBit() {
+        return 1L << ordinal();
+    }
+
+    public static PuzzleEventKind forCommand( String command ) {
+        PuzzleEventKind kind = ( command == null ) ? null : _kindsByCommand.get( command );
+        return ( kind == null ) ? OTHER : kind;
+    }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * @(#)PuzzleHeuristic.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * An estimate of the number of moves needed to solve the puzzle, as used by the searching solvers.
+ * To be useful for finding the shortest solution the estimate must never be more than the true number of moves.
+ */
+
+// The searches hold the puzzle as two plain arrays rather than a PuzzleData, so that a move costs nothing but two array writes.
+// The tiles array holds the tile value at each position, numbering the positions row by row from the top left (from 0).
+// The positions array is the reverse map : it holds the position of each value, indexed by (value - 1).
+// As in PuzzleData, the blank tile has the largest value and each value belongs at position (value - 1).
+public interface PuzzleHeuristic
+{
+	// Calculate the estimate from scratch for the given arrangement.
+	public int estimate( int[] tiles, int[] positions );
+
+	// Recalculate the estimate after a single move, when the previous estimate is known.
+	// The tile value has just moved from one position to the other (which was blank) and the arrays already show the move.
+	public int update( int estimate, int[] tiles, int[] positions, int tileValue, int fromPosition, int toPosition );
+
+}
@@ -20,6 +20,7 @@ import java.awt.image.*;
 public class PuzzleImageDisplay extends PuzzleDrawnDisplay implements ImageObserver {
 
 	Image			_puzzleImage = null;	// Keep a reference to the image to be used for the display.
+	TileImageCache		_tileImageCache = new TileImageCache();	// The tiles cut from the image at the size they are shown
 
 
 //	The default constructor for the display can't display anything until it gets its data reference and image.
@@ -52,6 +53,7 @@ public class PuzzleImageDisplay extends PuzzleDrawnDisplay implements ImageObser
 //	Store the reference to the image used for the puzzle display, then try to build the display.
 	public void setImage( Image puzzleImage ) {
 		_puzzleImage = puzzleImage;
+		_tileImageCache.clear();
 		buildDisplayFromData();
 	}
 
@@ -116,8 +118,20 @@ public class PuzzleImageDisplay extends PuzzleDrawnDisplay implements ImageObser
 //				so the image Height and Width will not be an exact multiple of the tiles (which is what we display).
 //				The distortions in size and aspect ratio should be small and (hopefully) not noticeable.
 				setPuzzleOrigin( (displayWidth - imageWidth ) / 2, ( displayHeight - imageHeight ) / 2 );
+
+//				Cut the image into tiles of the new size, once, so that drawing a tile doesn't have to scale it.
+				_tileImageCache.setLayout( getImage(), getData().getRows(), getData().getColumns(), getTileWidth(), getTileHeight() );
+				_tileImageCache.prepare( getGraphicsConfiguration() );
 			}
 		}
+		else if ( getData() != null )
+		{
+//			Until the image has loaded, fill the display with numbered tiles in its place.
+			setTileWidth( getSize().width / getData().getColumns() );
+			setTileHeight( getSize().height / getData().getRows() );
+			setPuzzleOrigin( ( getSize().width - ( getTileWidth() * getData().getColumns() ) ) / 2,
+					 ( getSize().height - ( getTileHeight() * getData().getRows() ) ) / 2 );
+		}
 	}
 
 //	The image may need to be scaled for the puzzle display.
@@ -126,8 +140,8 @@ public class PuzzleImageDisplay extends PuzzleDrawnDisplay implements ImageObser
 	public void buildDisplayFromData() {
 		clear(null);	// Make sure the puzzle display is clean, before we start doodling on it.
 
-//		We can only do scaling if an image has been supplied...
-		if ( getImage() != null )
+//		We can only do scaling if an image has been supplied, otherwise the tiles are laid out to show their numbers.
+		if ( getData() != null )
 		{
 			calculateImageSize( );
 		}
@@ -176,12 +190,40 @@ public class PuzzleImageDisplay extends PuzzleDrawnDisplay implements ImageObser
 		return (flags & (ALLBITS|ERROR)) == 0;
 	}
 
+//	Make sure the tiles cut from the image are for the current layout, once for the whole puzzle rather than for every tile.
+//	A single tile is only drawn after the whole puzzle has been, so the check here covers those too.
+	void drawTiles( Graphics g ) {
+		adjustPuzzleSize();
+		if ( getImage() != null )
+		{
+			_tileImageCache.setLayout( getImage(), getData().getRows(), getData().getColumns(), getTileWidth(), getTileHeight() );
+		}
+		super.drawTiles( g );
+	}
+
 	// Draw the tile value
 	// For the image display, the "value" is the relevant portion of the base image
 	void drawTileValueOnly( Graphics g, int tileRow, int tileColumn ) {
 
+//		While the image is loading, show the number instead.
+		if ( getImage() == null )
+		{
+			super.drawTileValueOnly( g, tileRow, tileColumn );
+			return;
+		}
+
+//		Copy the tile from those already cut from the image, if it has been (or can be).
+		int tileValue = getData().getTileValue( tileRow, tileColumn );
+		Image tileImage = _tileImageCache.getTileImage( tileValue, getGraphicsConfiguration() );
+		if ( tileImage != null )
+		{
+			Point tileOrigin = getTileOrigin( tileRow, tileColumn );
+			g.drawImage( tileImage, tileOrigin.x, tileOrigin.y, null );
+			return;
+		}
+
 //		To get the relevant portion of the image, we must first identify the target position for the current tile.
-		PuzzlePosition tilePosition = getData().getTargetPositionForValue( getData().getTileValue (tileRow, tileColumn ) );
+		PuzzlePosition tilePosition = getData().getTargetPositionForValue( tileValue );
 //		To get the relevant portion of the base (source) image, we must map the size of the tiles onto the image
 		int sourceWidth = getImage().getWidth(this) / getData().getColumns();
 		int sourceHeight = getImage().getHeight(this) / getData().getRows();
@@ -7,8 +7,6 @@
  *
  */
 
-import java.awt.AWTEvent;
-import java.awt.*;
 import java.util.*;
 
 /**
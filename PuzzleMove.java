@@ -7,10 +7,6 @@
  *
  */
 
-import java.awt.*;
-import java.awt.event.*;
-import java.applet.*;
-
 /**
  * An automated solution will clearly consist of many tile moves.
  * To simplify the coding of the solution, we will create aggregate moves.
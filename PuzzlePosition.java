@@ -7,8 +7,6 @@
  *
  */
 
-import java.awt.*;
-
 public class PuzzlePosition {
         int _row;
         int _column;
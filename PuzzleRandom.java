@@ -0,0 +1,63 @@
+/*
+ * @(#)PuzzleRandom.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+import java.util.random.*;
+
+/**
+ * The source of random numbers for shuffling the puzzle. It replaces Random1, which could only pick from small ranges.
+ * Any of the standard generators can be plugged in, and a seed can be given so that the same shuffles can be made again.
+ */
+
+// The default generator is a SplittableRandom. It isn't safe to share one between threads, but split gives a new,
+// independent generator very cheaply : a program shuffling puzzles on several threads should split one off for each.
+// Splitting a seeded generator gives the same streams every time, provided the splits are made in the same order.
+class PuzzleRandom {
+	RandomGenerator	_generator;
+
+	// Use an unpredictable seed, for shuffles which should be different every time.
+	PuzzleRandom() {
+		this( new SplittableRandom() );
+	}
+
+	// Use the given seed, so that the shuffles can be repeated.
+	PuzzleRandom( long seed ) {
+		this( new SplittableRandom( seed ) );
+	}
+
+	// Use any generator (e.g. one made by RandomGenerator.of).
+	PuzzleRandom( RandomGenerator generator ) {
+		_generator = generator;
+	}
+
+	RandomGenerator getGenerator() { return _generator; }
+
+	// Return a whole number from 0 up to (but not including) the range. Every number is equally likely.
+	int nextIntFromRange( int intRange ) {
+		return _generator.nextInt( intRange );
+	}
+
+	// As above, for ranges too large for an int.
+	long nextLongFromRange( long longRange ) {
+		return _generator.nextLong( longRange );
+	}
+
+	long nextLong() { return _generator.nextLong(); }
+
+	// Return a new source, independent of this one, e.g. for another thread.
+	// A generator which can't be split is replaced by a SplittableRandom seeded from this one.
+	PuzzleRandom split() {
+		if ( _generator instanceof RandomGenerator.SplittableGenerator )
+		{
+			return new PuzzleRandom( ( (RandomGenerator.SplittableGenerator) _generator ).split() );
+		}
+		return new PuzzleRandom( _generator.nextLong() );
+	}
+
+    }
@@ -0,0 +1,52 @@
+/*
+ * @(#)PuzzleSnapshot.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * The arrangement of the puzzle at one moment, which never changes, so that it can be read by any thread.
+ */
+
+// Snapshots are made by PuzzleData.getSnapshot, for threads other than the puzzle's owner. Each has the version of the
+// puzzle it was taken from, which goes up with every change, so a reader can tell whether the puzzle has moved on since.
+class PuzzleSnapshot {
+	final int	_rows;
+	final int	_columns;
+	final long	_version;
+	final int	_tileValues[];	// Row by row, as PuzzleData.getTileValueArray
+	final int	_blankIndex;
+
+	PuzzleSnapshot( int rows, int columns, long version, int[] tileValues ) {
+		_rows = rows;
+		_columns = columns;
+		_version = version;
+		_tileValues = tileValues;
+		int blankIndex = -1;
+		for ( int index = 0; index < tileValues.length; index++ )
+		{
+			if ( tileValues[index] == tileValues.length )
+			{
+				blankIndex = index;
+			}
+		}
+		_blankIndex = blankIndex;
+	}
+
+	int getRows() { return _rows; }
+	int getColumns() { return _columns; }
+	long getVersion() { return _version; }
+	int getNumberOfTiles() { return _tileValues.length; }
+	int getBlankIndex() { return _blankIndex; }
+	int getTileValue( int index ) { return _tileValues[index]; }
+	int getTileValue( int row, int column ) { return _tileValues[( row * _columns ) + column]; }
+
+	// A copy of the tile values, which the caller may change.
+	int[] getTileValueArray() { return _tileValues.clone(); }
+
+	PuzzleState toPuzzleState() { return new PuzzleState( _rows, _columns, _tileValues ); }
+
+    }
@@ -7,12 +7,8 @@
  *
  */
 
-import java.awt.*;
-import java.awt.event.*;
-import java.applet.*;
 import java.util.*;
 
-
 /**
  * An automated solution will clearly consist of many tile moves.
  * These classes build on the classes in PuzzleMove to permit a complete solution.
@@ -31,22 +27,31 @@ class PuzzleSolution extends PuzzleMove {
 		super( targetValue, targetPosition, tileData );
 	}
 
-	private ArrayList<SolutionListener> _solutionListeners = new ArrayList<SolutionListener>();
+//	The listeners are kept in an array which is replaced (never changed) when one is added or removed, so telling them
+//	about an event needs no copy, and a listener may add or remove listeners as it is told.
+	private volatile SolutionListener _solutionListeners[] = new SolutionListener[0];
 
-	public void addSolutionListener (SolutionListener listener) {
-		if (! _solutionListeners.contains(listener)) {
-			_solutionListeners.add(listener);
+	public synchronized void addSolutionListener (SolutionListener listener) {
+		if (! Arrays.asList(_solutionListeners).contains(listener)) {
+			SolutionListener solutionListeners[] = Arrays.copyOf(_solutionListeners, _solutionListeners.length + 1);
+			solutionListeners[solutionListeners.length - 1] = listener;
+			_solutionListeners = solutionListeners;
 		}
 	}
 
-	public void removeSolutionListener (SolutionListener listener) {
-		_solutionListeners.remove(listener);
+	public synchronized void removeSolutionListener (SolutionListener listener) {
+		ArrayList<SolutionListener> solutionListeners = new ArrayList<SolutionListener>(Arrays.asList(_solutionListeners));
+		if (solutionListeners.remove(listener)) {
+			_solutionListeners = solutionListeners.toArray(new SolutionListener[solutionListeners.size()]);
+		}
 	}
 
-	public void notifyListeners (SolutionEvent solutionEvent) {
-		ArrayList<SolutionListener> copyOfListeners =  new ArrayList<SolutionListener>();
-		copyOfListeners.addAll(_solutionListeners);
+//	Is anyone listening ? If not, there's no need to make the event.
+	public boolean hasSolutionListeners () {
+		return ( _solutionListeners.length > 0 );
+	}
 
+	public void notifyListeners (SolutionEvent solutionEvent) {
 		for ( SolutionListener listener : _solutionListeners ) {
 			listener.solutionChanged(solutionEvent);
 		}
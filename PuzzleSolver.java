@@ -0,0 +1,351 @@
+/*
+ * @(#)PuzzleSolver.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The way into the solvers for programs which have no display, e.g. solving puzzles on a server.
+ * It chooses the solver for the size of puzzle, just as the interactive puzzle does.
+ * It also keeps the strategies (see PuzzleStrategy) which can be asked for by name, e.g. by PuzzleBatch.
+ */
+
+// Nothing here (or in the puzzle data, moves, solutions and events it uses) touches AWT, so a program which only solves
+// puzzles doesn't have to start the AWT toolkit. TilePuzzle is the display's adapter over the same classes.
+// Small puzzles are solved in the fewest possible moves (see OptimalSearch). Larger ones take too long to search,
+// so they use the rule-based solution, planned in advance (see SolutionPlanner). The smallest (up to 10 tiles) have
+// the distance from every arrangement in a table, so their fewest moves are read off rather than searched for.
+// So do 11 and 12 tile puzzles, if their tables have been built beforehand and added (see CompactDistanceTable).
+// The 4x4 and 5x5 puzzles' searches are guided by pattern databases (see AdditivePatternHeuristic), kept in a file for each size
+// in the pattern database directory. The file is opened the first time a puzzle of that size is searched, or built and saved
+// if there isn't one yet. Building takes a while : about a quarter of an hour on a single processor for the 4x4 puzzle,
+// whose group of 8 tiles needs about 4 GB of memory.
+// With them, the 4x4 puzzle is solved in the fewest moves too (in tens of milliseconds). Without them it would take far
+// too long, so if they can't be opened or built it is planned instead. The other puzzles of 13 to 16 tiles are planned
+// anyway : even with pattern databases, the long thin ones (e.g. 2x8) can take minutes to search.
+class PuzzleSolver {
+
+	static final int OPTIMAL_TILE_LIMIT = 16;		// The largest puzzle (in tiles) solved in the fewest moves, given pattern databases
+	static final int LINEAR_CONFLICT_TILE_LIMIT = 12;	// The largest solved in the fewest moves without them
+
+	static final String DEFAULT_STRATEGY = "auto";
+
+	// The directory for the pattern databases, unless it is set, e.g. by PuzzleBatch's -pdb option.
+	static final String PATTERN_DATABASE_PROPERTY = "tilepuzzle.pdb";
+	static final String PATTERN_DATABASE_SUFFIX = ".tpdb";
+
+	static File _patternDatabaseDirectory = new File( System.getProperty( PATTERN_DATABASE_PROPERTY, "." ) );
+
+	// The pattern database estimate for each size of puzzle which has one, by size (e.g. "4x4"), once it has been opened.
+	// A size whose databases couldn't be opened or built is held as null, so it isn't tried again.
+	static Map<String, AdditivePatternHeuristic> _patternHeuristics = new HashMap<String, AdditivePatternHeuristic>();
+	static Set<String> _preparingPatternHeuristics = new HashSet<String>();	// The sizes being opened in the background
+	static final Object _patternDatabaseLock = new Object();	// Held while databases are opened or built
+
+	// The ways of making each strategy, by name, in the order they were registered.
+	static Map<String, Supplier<PuzzleStrategy>> _strategies = new LinkedHashMap<String, Supplier<PuzzleStrategy>>();
+
+	static {
+		registerStrategy( DEFAULT_STRATEGY, AutoStrategy::new );
+		registerStrategy( "rules", RulesStrategy::new );
+		registerStrategy( "planned", PlannedStrategy::new );
+		registerStrategy( "optimal", OptimalStrategy::new );
+		registerStrategy( "table", TableStrategy::new );
+	}
+
+	// Make a strategy available by name. A strategy of the same name is replaced.
+	// The supplier is called for each thread which uses the strategy.
+	static synchronized void registerStrategy( String name, Supplier<PuzzleStrategy> strategySupplier ) {
+		_strategies.put( name, strategySupplier );
+	}
+
+	static synchronized Set<String> getStrategyNames() {
+		return new LinkedHashSet<String>( _strategies.keySet() );
+	}
+
+	// Make a new strategy of the given name, or return null if there is no such strategy.
+	static synchronized PuzzleStrategy createStrategy( String name ) {
+		Supplier<PuzzleStrategy> strategySupplier = _strategies.get( name );
+		return ( strategySupplier == null ) ? null : strategySupplier.get();
+	}
+
+	// Is a puzzle of this size solved in the fewest possible moves (as long as its pattern databases, if it needs them, can be opened) ?
+	static boolean isSolvedOptimally( int rows, int columns ) {
+		int numberOfTiles = rows * columns;
+		return ( ( numberOfTiles <= LINEAR_CONFLICT_TILE_LIMIT )
+			 || ( ( numberOfTiles <= OPTIMAL_TILE_LIMIT ) && hasPatternDatabases( rows, columns ) ) );
+	}
+
+	// Can a puzzle of this size be searched for its fewest moves in good time ? Above LINEAR_CONFLICT_TILE_LIMIT tiles,
+	// only with its pattern databases, which are opened (or built) the first time this is asked.
+	static boolean canSearchOptimally( int rows, int columns ) {
+		return ( isSolvedOptimally( rows, columns )
+			 && ( ( ( rows * columns ) <= LINEAR_CONFLICT_TILE_LIMIT ) || ( getPatternHeuristic( rows, columns ) != null ) ) );
+	}
+
+	// Does a puzzle of this size have a standard set of pattern databases (see AdditivePatternHeuristic.getDefaultPartition) ?
+	static boolean hasPatternDatabases( int rows, int columns ) {
+		return ( ( rows == columns ) && ( ( rows == 4 ) || ( rows == 5 ) ) );
+	}
+
+	static synchronized void setPatternDatabaseDirectory( File directory ) {
+		_patternDatabaseDirectory = directory;
+		_patternHeuristics.clear();
+	}
+
+	static synchronized File getPatternDatabaseFile( int rows, int columns ) {
+		return new File( _patternDatabaseDirectory, rows + "x" + columns + PATTERN_DATABASE_SUFFIX );
+	}
+
+	// The pattern database estimate for a puzzle of this size, opening (or building) its databases the first time.
+	// Returns null if the size has no databases, or they couldn't be opened or built.
+	// Only one set of databases is opened or built at a time : other threads asking for the estimate wait for it.
+	static AdditivePatternHeuristic getPatternHeuristic( int rows, int columns ) {
+		if ( ! hasPatternDatabases( rows, columns ) )
+		{
+			return null;
+		}
+		String sizeKey = rows + "x" + columns;
+		synchronized ( _patternDatabaseLock )
+		{
+			synchronized ( PuzzleSolver.class )
+			{
+				if ( _patternHeuristics.containsKey( sizeKey ) )
+				{
+					return _patternHeuristics.get( sizeKey );
+				}
+			}
+			File file = getPatternDatabaseFile( rows, columns );
+			AdditivePatternHeuristic heuristic = null;
+			try
+			{
+				heuristic = AdditivePatternHeuristic.loadOrBuild( file, new PuzzleData( rows, columns ) );
+			}
+			catch ( IOException e )
+			{
+				System.err.println( "Failed opening the pattern databases " + file + " : " + e.getMessage() );
+			}
+			catch ( OutOfMemoryError e )
+			{
+				// Only the builder's own (very large) tables are lost, so it is safe to carry on without them.
+				System.err.println( "Not enough memory to build the pattern databases " + file );
+			}
+			synchronized ( PuzzleSolver.class )
+			{
+				_patternHeuristics.put( sizeKey, heuristic );
+			}
+			return heuristic;
+		}
+	}
+
+	// The pattern database estimate for a puzzle of this size if its databases are open, otherwise null.
+	// Unlike getPatternHeuristic this never waits, so it can be asked on the event thread (e.g. by HintEngine).
+	static synchronized AdditivePatternHeuristic getOpenPatternHeuristic( int rows, int columns ) {
+		return _patternHeuristics.get( rows + "x" + columns );
+	}
+
+	// Start opening (or building) the databases for a puzzle of this size on a thread of its own, unless that has been done.
+	static synchronized void preparePatternHeuristic( int rows, int columns ) {
+		String sizeKey = rows + "x" + columns;
+		if ( hasPatternDatabases( rows, columns ) && ! _patternHeuristics.containsKey( sizeKey ) && _preparingPatternHeuristics.add( sizeKey ) )
+		{
+			Thread thread = new Thread( () -> getPatternHeuristic( rows, columns ), "PatternDatabases" );
+			thread.setDaemon( true );
+			thread.setPriority( Thread.MIN_PRIORITY );
+			thread.start();
+		}
+	}
+
+	// The estimate for the fewest moves search : the pattern databases where the size has them, otherwise the linear conflicts.
+	static PuzzleHeuristic getOptimalHeuristic( int rows, int columns ) {
+		AdditivePatternHeuristic heuristic = getPatternHeuristic( rows, columns );
+		return ( heuristic != null ) ? heuristic : new LinearConflictHeuristic( rows, columns );
+	}
+
+	// Is a puzzle of this size solved from its table of distances (see DistanceTable) ?
+	static boolean isSolvedByTable( int rows, int columns ) {
+		return DistanceTable.hasTable( rows, columns );
+	}
+
+	// Build the solution for the current arrangement of the puzzle, to be played back a tile at a time.
+	static PuzzleSolution createSolution( PuzzleData tileData ) {
+		return prepareSolution( tileData.getRows(), tileData.getColumns(), tileData.getTileValueArray() ).apply( tileData );
+	}
+
+	// As createSolution, but without waiting for pattern databases to be opened (or built), e.g. on the event thread.
+	// Until they are open, a puzzle which needs them is planned instead.
+	static PuzzleSolution createSolutionNow( PuzzleData tileData ) {
+		int rows = tileData.getRows();
+		int columns = tileData.getColumns();
+		if ( ( ( rows * columns ) > LINEAR_CONFLICT_TILE_LIMIT ) && ( getOpenPatternHeuristic( rows, columns ) == null ) )
+		{
+			return new SolvePlanned ( tileData, SolvePlanned.plan( new SolutionPlanner( rows, columns, tileData.getTileValueArray() ) ) );
+		}
+		return createSolution( tileData );
+	}
+
+	// Work out the moves for the tile values (given row by row), as createSolution does, without the puzzle itself.
+	// So the hard work can be done on any thread, e.g. in the background (see BackgroundSolver). The function returned
+	// then makes the solution for the puzzle, which must be in the same arrangement, straight away.
+	static Function<PuzzleData, PuzzleSolution> prepareSolution( int rows, int columns, int[] tileValues ) {
+		if ( isSolvedByTable( rows, columns ) )
+		{
+			int moves[] = DistanceTable.getTable( rows, columns ).solve( tileValues );
+			return tileData -> new SolveOptimal ( tileData, moves, 0 );
+		}
+		else if ( canSearchOptimally( rows, columns ) )
+		{
+			OptimalSearch search = new OptimalSearch( rows, columns, tileValues, getOptimalHeuristic( rows, columns ) );
+			int moves[] = search.solve();
+			long nodesExpanded = search.getNodesExpanded();
+			return tileData -> new SolveOptimal ( tileData, moves, nodesExpanded );
+		}
+		else
+		{
+			SolutionPlanner planner = SolvePlanned.plan( new SolutionPlanner( rows, columns, tileValues ) );
+			return tileData -> new SolvePlanned ( tileData, planner );
+		}
+	}
+
+	// Return the positions (numbered row by row) of the tiles to move, in order, to solve the puzzle.
+	// If the puzzle can't be solved (it wasn't made by moving tiles), null is returned.
+	// If the rules get stuck on a puzzle of an awkward shape, an IllegalStateException is thrown.
+	static int[] solve( PuzzleState puzzle ) {
+		return solve( puzzle.getRows(), puzzle.getColumns(), puzzle.getTileValueArray() );
+	}
+
+	// As above, with the tile values given row by row, as returned by PuzzleData.getTileValueArray.
+	static int[] solve( int rows, int columns, int[] tileValues ) {
+		if ( ! PuzzleData.isSolvable( tileValues, rows, columns ) )
+		{
+			return null;
+		}
+		if ( isSolvedByTable( rows, columns ) )
+		{
+			return DistanceTable.getTable( rows, columns ).solve( tileValues );
+		}
+		else if ( canSearchOptimally( rows, columns ) )
+		{
+			return new OptimalSearch( rows, columns, tileValues, getOptimalHeuristic( rows, columns ) ).solve();
+		}
+		else
+		{
+			return new SolutionPlanner( rows, columns, tileValues ).plan();
+		}
+	}
+
+	static int[] solve( PuzzleData tileData ) {
+		return solve( tileData.getRows(), tileData.getColumns(), tileData.getTileValueArray() );
+	}
+
+	// The same choice of solver as createSolution.
+	static class AutoStrategy implements PuzzleStrategy {
+		OptimalStrategy	_optimalStrategy = new OptimalStrategy();
+		long		_nodesExpanded;
+
+		public int[] solve( int rows, int columns, int[] tileValues ) {
+			_nodesExpanded = 0;
+			if ( ! isSolvedByTable( rows, columns ) && canSearchOptimally( rows, columns ) )
+			{
+				int moves[] = _optimalStrategy.solve( rows, columns, tileValues );
+				_nodesExpanded = _optimalStrategy.getNodesExpanded();
+				return moves;
+			}
+			return PuzzleSolver.solve( rows, columns, tileValues );
+		}
+
+		public long getNodesExpanded() { return _nodesExpanded; }
+	}
+
+	// The original rules (see SolveTilePuzzle), worked out a move at a time on a copy of the puzzle as the tiles are moved.
+	static class RulesStrategy implements PuzzleStrategy {
+		public int[] solve( int rows, int columns, int[] tileValues ) {
+			if ( ! PuzzleData.isSolvable( tileValues, rows, columns ) )
+			{
+				return null;
+			}
+			AutoData tileData = new AutoData( rows, columns );
+			tileData.setPuzzleState( new PuzzleState( rows, columns, tileValues ) );
+			SolveTilePuzzle solution = new SolveTilePuzzle( tileData );
+			long moveLimit = ( SolutionPlanner.MOVE_LIMIT_FACTOR * (long) rows * columns * ( rows + columns ) ) + 1024;
+			int moves[] = new int[64];
+			int numberOfMoves = 0;
+			while ( ! solution.isComplete() )
+			{
+				PuzzlePosition tilePosition = solution.getTileToMove();
+				if ( ! tileData.isTileMovable( tilePosition ) )
+				{
+					throw new IllegalStateException( "The rules chose a tile which can't move" );
+				}
+				if ( numberOfMoves >= moveLimit )
+				{
+					throw new IllegalStateException( "The solution did not finish within " + moveLimit + " moves" );
+				}
+				if ( numberOfMoves == moves.length )
+				{
+					moves = Arrays.copyOf( moves, moves.length * 2 );
+				}
+				moves[numberOfMoves++] = tileData.getIndex( tilePosition.getRow(), tilePosition.getColumn() );
+				tileData.moveTile( tilePosition );
+			}
+			return Arrays.copyOf( moves, numberOfMoves );
+		}
+
+		public long getNodesExpanded() { return 0; }
+	}
+
+	// The same moves as the rules, planned without building the moves as objects (see SolutionPlanner).
+	static class PlannedStrategy implements PuzzleStrategy {
+		public int[] solve( int rows, int columns, int[] tileValues ) {
+			if ( ! PuzzleData.isSolvable( tileValues, rows, columns ) )
+			{
+				return null;
+			}
+			return new SolutionPlanner( rows, columns, tileValues ).plan();
+		}
+
+		public long getNodesExpanded() { return 0; }
+	}
+
+	// The fewest possible moves (see OptimalSearch). Only practical for small puzzles.
+	// The estimate (see getOptimalHeuristic) is kept for as long as the puzzles are the same size.
+	static class OptimalStrategy implements PuzzleStrategy {
+		PuzzleHeuristic		_heuristic;
+		int			_rows;
+		int			_columns;
+		long			_nodesExpanded;
+
+		public int[] solve( int rows, int columns, int[] tileValues ) {
+			if ( ( _heuristic == null ) || ( rows != _rows ) || ( columns != _columns ) )
+			{
+				_heuristic = getOptimalHeuristic( rows, columns );
+				_rows = rows;
+				_columns = columns;
+			}
+			OptimalSearch search = new OptimalSearch( rows, columns, tileValues, _heuristic );
+			int moves[] = search.solve();
+			_nodesExpanded = search.getNodesExpanded();
+			return moves;
+		}
+
+		public long getNodesExpanded() { return _nodesExpanded; }
+	}
+
+	// The fewest possible moves, read from the table of distances (see DistanceTable). Only for puzzles of up to 10 tiles,
+	// or those whose tables have been added.
+	static class TableStrategy implements PuzzleStrategy {
+		public int[] solve( int rows, int columns, int[] tileValues ) {
+			return DistanceTable.getTable( rows, columns ).solve( tileValues );
+		}
+
+		public long getNodesExpanded() { return 0; }
+	}
+
+    }
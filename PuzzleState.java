@@ -0,0 +1,232 @@
+/*
+ * @(#)PuzzleState.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * A compact record of an arrangement of the puzzle, for use where many arrangements are held or compared
+ * (e.g. by the solvers and caches). Unlike PuzzleData, it has no listeners and creates no objects as tiles are moved.
+ */
+
+// Positions are numbered row by row from the top left (from 0) and the tiles are stored as (value - 1), so the
+// blank, which has the largest value, is stored as (number of tiles - 1).
+// Puzzles of up to 16 tiles fit in a single long at four bits per position. Larger puzzles use an array with a byte
+// per position (up to 256 tiles) or a short (up to 65536 tiles).
+// The state keeps track of where the blank is and keeps a 64 bit "Zobrist" hash up to date as tiles move : the hash is
+// the exclusive-or of a random key for each (position, value) pair, so a move just swaps two pairs' keys in and out.
+// The keys are calculated from the pair rather than held in a table, so they are the same in every program.
+class PuzzleState {
+	int	_rows;
+	int	_columns;
+	int	_numberOfTiles;
+	long	_packedTiles;		// Used for puzzles of up to 16 tiles
+	byte	_byteTiles[];		// Used for puzzles of up to 256 tiles
+	short	_shortTiles[];		// Used for larger puzzles
+	int	_blankPosition;
+	long	_hash;
+
+	static final int MAX_PACKED_TILES = 16;
+	static final int MAX_BYTE_TILES = 256;
+	static final int MAX_TILES = 65536;
+
+	// Build the solved arrangement for a puzzle of the given size.
+	PuzzleState( int rows, int columns ) {
+		allocate( rows, columns );
+		for ( int position = 0; position < _numberOfTiles; position++ )
+		{
+			setStoredValue( position, position );
+		}
+		_blankPosition = _numberOfTiles - 1;
+		_hash = calculateHash();
+	}
+
+	// Take a copy of the arrangement in the puzzle data.
+	PuzzleState( PuzzleData tileData ) {
+		this( tileData.getRows(), tileData.getColumns(), tileData.getTileValueArray() );
+	}
+
+	// Build the state from the tile values, given row by row as returned by PuzzleData.getTileValueArray.
+	PuzzleState( int rows, int columns, int[] tileValues ) {
+		allocate( rows, columns );
+		for ( int position = 0; position < _numberOfTiles; position++ )
+		{
+			setStoredValue( position, tileValues[position] - 1 );
+			if ( tileValues[position] == _numberOfTiles )
+			{
+				_blankPosition = position;
+			}
+		}
+		_hash = calculateHash();
+	}
+
+	// Make an independent copy of another state.
+	PuzzleState( PuzzleState otherState ) {
+		_rows = otherState._rows;
+		_columns = otherState._columns;
+		_numberOfTiles = otherState._numberOfTiles;
+		_packedTiles = otherState._packedTiles;
+		_byteTiles = ( otherState._byteTiles == null ) ? null : otherState._byteTiles.clone();
+		_shortTiles = ( otherState._shortTiles == null ) ? null : otherState._shortTiles.clone();
+		_blankPosition = otherState._blankPosition;
+		_hash = otherState._hash;
+	}
+
+	// Choose the storage for the size of puzzle.
+	void allocate( int rows, int columns ) {
+		_rows = rows;
+		_columns = columns;
+		_numberOfTiles = rows * columns;
+		if ( _numberOfTiles > MAX_TILES )
+		{
+			throw new IllegalArgumentException( "Puzzle states are limited to " + MAX_TILES + " tiles" );
+		}
+		if ( _numberOfTiles > MAX_BYTE_TILES )
+		{
+			_shortTiles = new short[_numberOfTiles];
+		}
+		else if ( _numberOfTiles > MAX_PACKED_TILES )
+		{
+			_byteTiles = new byte[_numberOfTiles];
+		}
+	}
+
+	int getRows() { return _rows; }
+	int getColumns() { return _columns; }
+	int getNumberOfTiles() { return _numberOfTiles; }
+	int getBlankPosition() { return _blankPosition; }
+	long getHash() { return _hash; }
+
+	// Return the tile value at a position, as PuzzleData would.
+	int getTileValue( int position ) { return getStoredValue( position ) + 1; }
+
+	// Return the tile values, row by row, in the same form as PuzzleData.getTileValueArray.
+	int[] getTileValueArray() {
+		int tileValues[] = new int[_numberOfTiles];
+		for ( int position = 0; position < _numberOfTiles; position++ )
+		{
+			tileValues[position] = getStoredValue( position ) + 1;
+		}
+		return tileValues;
+	}
+
+	// The stored value is (tile value - 1).
+	int getStoredValue( int position ) {
+		if ( _shortTiles != null )
+		{
+			return _shortTiles[position] & 0xFFFF;
+		}
+		else if ( _byteTiles != null )
+		{
+			return _byteTiles[position] & 0xFF;
+		}
+		else
+		{
+			return (int) ( _packedTiles >>> ( 4 * position ) ) & 0xF;
+		}
+	}
+
+	void setStoredValue( int position, int storedValue ) {
+		if ( _shortTiles != null )
+		{
+			_shortTiles[position] = (short) storedValue;
+		}
+		else if ( _byteTiles != null )
+		{
+			_byteTiles[position] = (byte) storedValue;
+		}
+		else
+		{
+			int shift = 4 * position;
+			_packedTiles = ( _packedTiles & ~( 0xFL << shift ) ) | ( ( (long) storedValue ) << shift );
+		}
+	}
+
+	// Slide the tile at the given position into the blank. The caller must make sure the tile is next to the blank.
+	// The hash is updated by removing the keys for the old pairs and adding the keys for the new ones.
+	void moveTile( int tilePosition ) {
+		int storedValue = getStoredValue( tilePosition );
+		int blankValue = _numberOfTiles - 1;
+		_hash ^= zobristKey( tilePosition, storedValue ) ^ zobristKey( _blankPosition, blankValue )
+		       ^ zobristKey( _blankPosition, storedValue ) ^ zobristKey( tilePosition, blankValue );
+		setStoredValue( _blankPosition, storedValue );
+		setStoredValue( tilePosition, blankValue );
+		_blankPosition = tilePosition;
+	}
+
+	// Is the tile at the position next to the blank (and so free to move) ?
+	boolean isTileMovable( int tilePosition ) {
+		int rowDistance = Math.abs( ( tilePosition / _columns ) - ( _blankPosition / _columns ) );
+		int columnDistance = Math.abs( ( tilePosition % _columns ) - ( _blankPosition % _columns ) );
+		return ( ( rowDistance + columnDistance ) == 1 );
+	}
+
+	// Is every tile at its target position ?
+	boolean isSolved() {
+		for ( int position = 0; position < _numberOfTiles; position++ )
+		{
+			if ( getStoredValue( position ) != position )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Copy this arrangement into the puzzle data, which must be the same size.
+	void copyTo( PuzzleData tileData ) {
+		for ( int position = 0; position < _numberOfTiles; position++ )
+		{
+			tileData.setTileValue( position / _columns, position % _columns, getStoredValue( position ) + 1 );
+		}
+	}
+
+	// Calculate the hash from scratch (the moves keep it up to date after that).
+	long calculateHash() {
+		long hash = 0;
+		for ( int position = 0; position < _numberOfTiles; position++ )
+		{
+			hash ^= zobristKey( position, getStoredValue( position ) );
+		}
+		return hash;
+	}
+
+	// The key for a value at a position. This is the "SplitMix64" mixing function applied to the pair,
+	// which spreads the bits well enough to act as a random number.
+	long zobristKey( int position, int storedValue ) {
+		long key = ( ( (long) position * _numberOfTiles ) + storedValue + 1 ) * 0x9E3779B97F4A7C15L;
+		key = ( key ^ ( key >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+		key = ( key ^ ( key >>> 27 ) ) * 0x94D049BB133111EBL;
+		return key ^ ( key >>> 31 );
+	}
+
+	public int hashCode() { return (int) ( _hash ^ ( _hash >>> 32 ) ); }
+
+	public boolean equals( Object other ) {
+		if ( ! ( other instanceof PuzzleState ) )
+		{
+			return false;
+		}
+		PuzzleState otherState = (PuzzleState) other;
+		if ( ( otherState._rows != _rows ) || ( otherState._columns != _columns ) || ( otherState._hash != _hash ) )
+		{
+			return false;
+		}
+		if ( _shortTiles != null )
+		{
+			return java.util.Arrays.equals( _shortTiles, otherState._shortTiles );
+		}
+		else if ( _byteTiles != null )
+		{
+			return java.util.Arrays.equals( _byteTiles, otherState._byteTiles );
+		}
+		else
+		{
+			return ( _packedTiles == otherState._packedTiles );
+		}
+	}
+
+    }
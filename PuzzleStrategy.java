@@ -0,0 +1,27 @@
+/*
+ * @(#)PuzzleStrategy.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+/**
+ * A way of solving the whole puzzle in one go, for programs which solve many puzzles (see PuzzleBatch).
+ * The strategies are registered by name with PuzzleSolver.
+ */
+
+// As in PuzzleHeuristic, the puzzle is given as plain tile values, row by row from the top left, with the blank
+// having the largest value. The solution is the positions (numbered the same way) of the tiles to move, in order.
+// A strategy may keep tables from one puzzle to the next, so each thread solving puzzles gets its own.
+public interface PuzzleStrategy
+{
+	// Return the moves which solve the puzzle, or null if it can't be solved (it wasn't made by moving tiles).
+	// Throw an IllegalStateException if the strategy gets stuck.
+	public int[] solve( int rows, int columns, int[] tileValues );
+
+	// Return the number of arrangements examined by the last solve, or 0 for a strategy which doesn't search.
+	public long getNodesExpanded();
+
+}
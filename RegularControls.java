@@ -37,6 +37,7 @@ class RegularControls extends Panel implements ActionListener
 
 //	Define buttons to control the puzzle. These are the ones normally shown.
 	Button			_nextMove;
+	Button			_hint;
 	Button			_shuffle;
 	Button			_solve;
 	Button			_reset;
@@ -83,6 +84,9 @@ class RegularControls extends Panel implements ActionListener
 		_nextMove = new Button("Move");
 		_nextMove.addActionListener(this);
 		_solutionControls.add(_nextMove);
+		_hint = new Button("Hint");
+		_hint.addActionListener(this);
+		_solutionControls.add(_hint);
 		rebuildAlternatives();
 	}
 
@@ -98,6 +102,7 @@ class RegularControls extends Panel implements ActionListener
 			_nextMove.setLabel("Move");
 			_nextMove.invalidate();
 			_nextMove.setEnabled( false );
+			_hint.setEnabled( false );
 			_reset.setLabel("Reset");
 			_reset.invalidate();
 			_reset.setEnabled( false );
@@ -109,6 +114,7 @@ class RegularControls extends Panel implements ActionListener
 			_nextMove.setLabel("Move");
 			_nextMove.invalidate();
 			_nextMove.setEnabled( false );
+			_hint.setEnabled( false );
 			_solve.setLabel( "Stop solving" );
 			_solve.invalidate();
 			_solve.setEnabled( true );
@@ -126,6 +132,7 @@ class RegularControls extends Panel implements ActionListener
 			_nextMove.setLabel("Move");
 			_nextMove.invalidate();
 			_nextMove.setEnabled( true );
+			_hint.setEnabled( true );
 			_reset.setLabel("Reset");
 			_reset.invalidate();
 			_reset.setEnabled( true );
@@ -186,6 +193,13 @@ class RegularControls extends Panel implements ActionListener
 			getData().notifyListeners(puzzleEvent);
 			showControls( );
 		}
+//		Suggest the next move to the user
+		else if ( ev.getSource().equals(_hint) )
+		{
+//			Send a message to the puzzle that a hint is wanted
+			PuzzleEvent puzzleEvent = new PuzzleEvent ( this, "Hint" );
+			getData().notifyListeners(puzzleEvent);
+		}
 //		Reset the tile puzzle to the solved state
 		else if ( ev.getSource().equals(_reset) )
 		{
@@ -7,9 +7,6 @@
  *
  */
 
-
-import java.awt.AWTEvent;
-import java.awt.*;
 import java.util.*;
 
 /**
@@ -0,0 +1,1112 @@
+/*
+ * @(#)SolutionPlanner.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+
+/**
+ * Work out the complete solution which SolveTilePuzzle would make, move for move, as a list of the tiles to move.
+ * The planning is done in one pass on a private copy of the puzzle, without creating any move objects.
+ */
+
+// SolveTilePuzzle builds a chain of moves (SolveTileValue, SolveNormal, RotateBlankTo etc.) and asks it for one tile at a time,
+// creating new moves as it goes and checking the whole puzzle for the lowest unsolved tile after each one. That is fine for playing
+// the moves on screen, but very slow for working out a whole solution to a large puzzle.
+// This class follows exactly the same rules. Each of the moves in the chain becomes a "frame" : a set of numbers (the kind of move,
+// its tile value, target, reference position and stage) held in arrays indexed by how deep it is in the chain, so the chain is
+// rebuilt in place instead of being created again. Each calculateNextMove and getTileToMove below is a copy of the method in the
+// class with the same name, and the frames are checked for completion in the same order as the nested isComplete methods.
+// The positions are held as single numbers (row * (columns + 1) + column) rather than PuzzlePositions. The extra column lets the
+// "invalid" position (one row below and one column right of the puzzle) be held too, so that the comparisons with it come out
+// just as they do in the original classes.
+// The lowest unsolved tile is tracked rather than searched for : see getLowestUnsolvedValue.
+class SolutionPlanner {
+	int	_rows;
+	int	_columns;
+	int	_width;			// The number of columns plus one, to allow for the invalid position
+	int	_invalidPosition;
+	int	_blankValue;
+	int	_tileValues[];		// The value at each position (0 for the extra column and row)
+	int	_tilePositions[];	// The position of each value (indexed by value)
+	int	_rowOf[];		// The row and column of each position, looked up rather than divided out
+	int	_columnOf[];
+	int	_blankPosition;
+	int	_startingBlankIndex;
+
+	// The frames : one for each move in the chain, from the whole solution (0) down to a single tile or blank move.
+	int	_kind[] = new int[MAX_DEPTH];
+	int	_value[] = new int[MAX_DEPTH];
+	int	_target[] = new int[MAX_DEPTH];
+	int	_reference[] = new int[MAX_DEPTH];
+	int	_stage[] = new int[MAX_DEPTH];
+
+	// The order in which getLowestUnsolvedValue checks the values, and how far along it every value is known to be solved.
+	int	_solvingOrder[];
+	int	_solvingRank[];
+	int	_solvedCount;
+
+	// The results : the tiles moved (numbered row by row), and the value being solved from each point in the moves.
+	int	_moves[] = new int[1024];
+	int	_numberOfMoves;
+	int	_solvingMoves[] = new int[64];
+	int	_solvingValues[] = new int[64];
+	int	_numberOfSolvingValues;
+	boolean	_planned;
+	boolean	_stuck;			// The rules couldn't finish, so the moves planned leave the puzzle unsolved
+
+	static final int MAX_DEPTH = 6;
+
+	// The kinds of move, named after the classes they copy.
+	static final int NO_MOVE = 0;
+	static final int SOLVE_TILE_PUZZLE = 1;
+	static final int SOLVE_TILE_VALUE = 2;
+	static final int SOLVE_NORMAL = 3;
+	static final int SOLVE_FROM_LEFT = 4;
+	static final int SOLVE_LAST_COLUMN = 5;
+	static final int SOLVE_RIGHT_COLUMN = 6;
+	static final int SOLVE_LAST_ROW = 7;
+	static final int MAKE_TILE_ROTATABLE = 8;
+	static final int MOVE_TILE = 9;
+	static final int MOVE_BLANK_RIGHT_TO = 10;
+	static final int MOVE_BLANK_LEFT_TO = 11;
+	static final int MOVE_BLANK_UP_TO = 12;
+	static final int MOVE_BLANK_DOWN_TO = 13;
+	static final int ROTATE_BLANK_TO = 14;
+	static final int ANTI_ROTATE_BLANK_TO = 15;
+
+	// The rules always finish a solvable puzzle in far fewer moves than this. An unsolvable one can leave them going round in circles.
+	static final int MOVE_LIMIT_FACTOR = 8;
+	static final int INTERRUPT_CHECK_MASK = 0xfff;	// See whether the planning has been interrupted every 4096 moves
+
+	// Plan the solution for the current arrangement of the puzzle data (which isn't changed).
+	SolutionPlanner( PuzzleData tileData ) {
+		this( tileData.getRows(), tileData.getColumns(), tileData.getTileValueArray() );
+	}
+
+	// Plan the solution for the tile values, given row by row as returned by PuzzleData.getTileValueArray.
+	SolutionPlanner( int rows, int columns, int[] tileValues ) {
+		_rows = rows;
+		_columns = columns;
+		_width = columns + 1;
+		_invalidPosition = position( rows, columns );
+		_blankValue = rows * columns;
+		_tileValues = new int[( rows + 1 ) * _width];
+		_rowOf = new int[_tileValues.length];
+		_columnOf = new int[_tileValues.length];
+		for ( int tilePosition = 0; tilePosition < _tileValues.length; tilePosition++ )
+		{
+			_rowOf[tilePosition] = tilePosition / _width;
+			_columnOf[tilePosition] = tilePosition % _width;
+		}
+		_tilePositions = new int[_blankValue + 1];
+		for ( int index = 0; index < _blankValue; index++ )
+		{
+			int tilePosition = position( index / columns, index % columns );
+			_tileValues[tilePosition] = tileValues[index];
+			_tilePositions[tileValues[index]] = tilePosition;
+		}
+		_blankPosition = _tilePositions[_blankValue];
+		_startingBlankIndex = indexOf( _blankPosition );
+		buildSolvingOrder();
+	}
+
+	// Work out the solution (the first time only) and return the positions of the tiles to move, numbered row by row from the top left.
+	// An IllegalStateException is thrown if the rules can't finish (e.g. the puzzle can't be solved). The moves planned
+	// up to that point can still be read with getMoves, and isStuck says so from then on.
+	// Planning on a thread which is interrupted (e.g. for a puzzle which has changed since) stops with a CancellationException,
+	// as OptimalSearch does. The planner isn't stuck then, but it is no use either, as the moves planned can't be carried on from.
+	int[] plan() {
+		if ( _stuck )
+		{
+			throw new IllegalStateException( "The solution got stuck" );
+		}
+		if ( ! _planned )
+		{
+			try
+			{
+				long moveLimit = ( MOVE_LIMIT_FACTOR * (long) _blankValue * ( _rows + _columns ) ) + 1024;
+				_kind[0] = SOLVE_TILE_PUZZLE;
+				calculateNextMove( 0 );
+				while ( ! isComplete( 0 ) )
+				{
+					if ( _numberOfMoves >= moveLimit )
+					{
+						throw new IllegalStateException( "The solution did not finish within " + moveLimit + " moves" );
+					}
+					if ( ( ( _numberOfMoves & INTERRUPT_CHECK_MASK ) == 0 ) && Thread.currentThread().isInterrupted() )
+					{
+						throw new java.util.concurrent.CancellationException( "The planning was interrupted" );
+					}
+					moveTile( getTileToMove( 0 ) );
+				}
+			}
+			catch ( java.util.concurrent.CancellationException e )
+			{
+				throw e;
+			}
+			catch ( IllegalStateException e )
+			{
+				_stuck = true;
+				throw e;
+			}
+			_planned = true;
+		}
+		return getMoves();
+	}
+
+	// Did the rules get stuck, so that the moves planned don't solve the puzzle ?
+	boolean isStuck() { return _stuck; }
+
+	// Return the moves planned so far.
+	int[] getMoves() { return Arrays.copyOf( _moves, _numberOfMoves ); }
+	int getNumberOfMoves() { return _numberOfMoves; }
+
+	// Return the moves planned so far as the direction of each tile from the blank (see PuzzleData.moveBlank), a byte each.
+	byte[] getDirections() {
+		int moves[] = getMoves();
+		byte directions[] = new byte[moves.length];
+		int blankIndex = _startingBlankIndex;
+		for ( int move = 0; move < moves.length; move++ )
+		{
+			int tileIndex = moves[move];
+			if ( tileIndex == blankIndex - 1 )
+			{
+				directions[move] = PuzzleData.DIRECTION_LEFT;
+			}
+			else if ( tileIndex == blankIndex + 1 )
+			{
+				directions[move] = PuzzleData.DIRECTION_RIGHT;
+			}
+			else if ( tileIndex < blankIndex )
+			{
+				directions[move] = PuzzleData.DIRECTION_UP;
+			}
+			else
+			{
+				directions[move] = PuzzleData.DIRECTION_DOWN;
+			}
+			blankIndex = tileIndex;
+		}
+		return directions;
+	}
+
+	// The points in the solution at which it moves on to a new tile : the moves made before each one starts,
+	// and the value of the tile (or 0 at the end). These match the SolutionEvents which SolveTilePuzzle sends.
+	int[] getSolvingMoves() { return Arrays.copyOf( _solvingMoves, _numberOfSolvingValues ); }
+	int[] getSolvingValues() { return Arrays.copyOf( _solvingValues, _numberOfSolvingValues ); }
+
+	// Make a move on the private copy and record it.
+	void moveTile( int tilePosition ) {
+		int tileValue = _tileValues[tilePosition];
+		if ( ( ! isValid( tilePosition ) ) || ( ! isNextTo( tilePosition, _blankPosition ) ) )
+		{
+			throw new IllegalStateException( "The solution tried to move a tile which can't move" );
+		}
+		_tileValues[_blankPosition] = tileValue;
+		_tilePositions[tileValue] = _blankPosition;
+		_tileValues[tilePosition] = _blankValue;
+		_tilePositions[_blankValue] = tilePosition;
+		_blankPosition = tilePosition;
+		if ( _solvingRank[tileValue] < _solvedCount )
+		{
+			_solvedCount = _solvingRank[tileValue];
+		}
+		if ( _numberOfMoves == _moves.length )
+		{
+			_moves = Arrays.copyOf( _moves, _moves.length * 2 );
+		}
+		_moves[_numberOfMoves++] = indexOf( tilePosition );
+	}
+
+	// Positions and the relationships between them, as in PuzzleData and PuzzlePosition.
+	int position( int row, int column ) { return ( row * _width ) + column; }
+	int rowOf( int tilePosition ) { return _rowOf[tilePosition]; }
+	int columnOf( int tilePosition ) { return _columnOf[tilePosition]; }
+	int indexOf( int tilePosition ) { return ( rowOf( tilePosition ) * _columns ) + columnOf( tilePosition ); }
+	boolean isValid( int tilePosition ) { return ( rowOf( tilePosition ) < _rows ) && ( columnOf( tilePosition ) < _columns ); }
+	boolean isNextTo( int tilePosition, int otherPosition ) {
+		return ( Math.abs( rowOf( tilePosition ) - rowOf( otherPosition ) ) + Math.abs( columnOf( tilePosition ) - columnOf( otherPosition ) ) ) == 1;
+	}
+
+	int above( int tilePosition ) { return ( ( ! isValid( tilePosition ) ) || ( rowOf( tilePosition ) == 0 ) ) ? _invalidPosition : tilePosition - _width; }
+	int below( int tilePosition ) { return ( ( ! isValid( tilePosition ) ) || ( rowOf( tilePosition ) == _rows - 1 ) ) ? _invalidPosition : tilePosition + _width; }
+	int left( int tilePosition ) { return ( ( ! isValid( tilePosition ) ) || ( columnOf( tilePosition ) == 0 ) ) ? _invalidPosition : tilePosition - 1; }
+	int right( int tilePosition ) { return ( ( ! isValid( tilePosition ) ) || ( columnOf( tilePosition ) == _columns - 1 ) ) ? _invalidPosition : tilePosition + 1; }
+
+	boolean isAbove( int tilePosition, int otherPosition ) { return rowOf( tilePosition ) < rowOf( otherPosition ); }
+	boolean isBelow( int tilePosition, int otherPosition ) { return rowOf( tilePosition ) > rowOf( otherPosition ); }
+	boolean isToLeftOf( int tilePosition, int otherPosition ) { return columnOf( tilePosition ) < columnOf( otherPosition ); }
+	boolean isToRightOf( int tilePosition, int otherPosition ) { return columnOf( tilePosition ) > columnOf( otherPosition ); }
+	boolean isSameRow( int tilePosition, int otherPosition ) { return rowOf( tilePosition ) == rowOf( otherPosition ); }
+	boolean isSameColumn( int tilePosition, int otherPosition ) { return columnOf( tilePosition ) == columnOf( otherPosition ); }
+
+	boolean isBlank( int tilePosition ) { return _tileValues[tilePosition] == _blankValue; }
+	int targetOf( int tileValue ) { return position( ( tileValue - 1 ) / _columns, ( tileValue - 1 ) % _columns ); }
+
+	// The value of the lowest tile not in its target position, in the order used by AutoData.getLowestUnsolvedValue :
+	// row by row down to the last two rows, then those a column at a time. It returns 0 when the puzzle is solved.
+	// Instead of checking from the first tile every time, the count of tiles known to be solved is kept, and cut back by
+	// moveTile whenever one of those tiles moves.
+	int getLowestUnsolvedValue() {
+		while ( ( _solvedCount < _solvingOrder.length ) &&
+			( _tilePositions[_solvingOrder[_solvedCount]] == targetOf( _solvingOrder[_solvedCount] ) ) )
+		{
+			_solvedCount++;
+		}
+		return ( _solvedCount < _solvingOrder.length ) ? _solvingOrder[_solvedCount] : 0;
+	}
+
+	void buildSolvingOrder() {
+		_solvingOrder = AutoData.getSolvingOrder( _rows, _columns );
+		_solvingRank = new int[_blankValue + 1];
+		Arrays.fill( _solvingRank, Integer.MAX_VALUE );
+		for ( int rank = 0; rank < _solvingOrder.length; rank++ )
+		{
+			_solvingRank[_solvingOrder[rank]] = rank;
+		}
+	}
+
+	// Note the tile the solution is moving on to (as a SolutionEvent would).
+	void recordSolvingValue( int tileValue ) {
+		if ( _numberOfSolvingValues == _solvingValues.length )
+		{
+			_solvingMoves = Arrays.copyOf( _solvingMoves, _solvingMoves.length * 2 );
+			_solvingValues = Arrays.copyOf( _solvingValues, _solvingValues.length * 2 );
+		}
+		_solvingMoves[_numberOfSolvingValues] = _numberOfMoves;
+		_solvingValues[_numberOfSolvingValues++] = tileValue;
+	}
+
+	// Starting a move sets up its frame, as the constructor of its class would.
+	void startMove( int depth, int kind, int tileValue, int targetPosition ) {
+		_kind[depth] = kind;
+		_value[depth] = tileValue;
+		_target[depth] = targetPosition;
+		_stage[depth] = 0;
+	}
+
+	void startMoveTile( int depth, int tileValue ) {
+		startMove( depth, MOVE_TILE, tileValue, _blankPosition );
+	}
+
+	void startMoveTileAt( int depth, int tilePosition ) {
+		startMoveTile( depth, _tileValues[tilePosition] );
+	}
+
+	void startMoveBlank( int depth, int kind, int targetPosition ) {
+		startMove( depth, kind, _blankValue, targetPosition );
+	}
+
+	void startRotate( int depth, int targetPosition ) {
+		startMove( depth, ROTATE_BLANK_TO, _tileValues[targetPosition], targetPosition );
+		calculateRotateReference( depth );
+	}
+
+	void startRotate( int depth, int targetPosition, int referencePosition ) {
+		startMove( depth, ROTATE_BLANK_TO, _tileValues[targetPosition], targetPosition );
+		_reference[depth] = referencePosition;
+	}
+
+	void startAntiRotate( int depth, int targetPosition ) {
+		startMove( depth, ANTI_ROTATE_BLANK_TO, _tileValues[targetPosition], targetPosition );
+		calculateAntiRotateReference( depth );
+	}
+
+	void startAntiRotate( int depth, int targetPosition, int referencePosition ) {
+		startMove( depth, ANTI_ROTATE_BLANK_TO, _tileValues[targetPosition], targetPosition );
+		_reference[depth] = referencePosition;
+	}
+
+	void startMakeTileRotatable( int depth, int tileValue ) {
+		startMove( depth, MAKE_TILE_ROTATABLE, tileValue, _tilePositions[tileValue] );
+		calculateNextMove( depth );
+	}
+
+	void startSolveNormal( int depth, int tileValue ) {
+		startMove( depth, SOLVE_NORMAL, tileValue, targetOf( tileValue ) );
+		startMakeTileRotatable( depth + 1, tileValue );
+		if ( isComplete( depth + 1 ) )
+		{
+			calculateNextMove( depth );
+		}
+	}
+
+	// The staged moves (SolveFromLeft, SolveLastColumn, SolveRightColumn and SolveLastRow) may start part way through.
+	void startStagedMove( int depth, int kind, int tileValue, int initStage ) {
+		startMove( depth, kind, tileValue, targetOf( tileValue ) );
+		_stage[depth] = initStage;
+		calculateNextMove( depth );
+	}
+
+	void startSolveTileValue( int depth, int tileValue ) {
+		startMove( depth, SOLVE_TILE_VALUE, tileValue, targetOf( tileValue ) );
+		calculateNextMove( depth );
+	}
+
+	// As PuzzleMove.isComplete, and the overriding versions for the simple moves.
+	boolean isComplete( int depth ) {
+		switch ( _kind[depth] )
+		{
+		case NO_MOVE:			return true;
+		case MOVE_TILE:			return _tilePositions[_value[depth]] == _target[depth];
+		case MOVE_BLANK_RIGHT_TO:	return ! isToLeftOf( _blankPosition, _target[depth] );
+		case MOVE_BLANK_LEFT_TO:	return ! isToRightOf( _blankPosition, _target[depth] );
+		case MOVE_BLANK_UP_TO:		return ! isBelow( _blankPosition, _target[depth] );
+		case MOVE_BLANK_DOWN_TO:	return ! isAbove( _blankPosition, _target[depth] );
+		case ROTATE_BLANK_TO:
+		case ANTI_ROTATE_BLANK_TO:	return _blankPosition == _target[depth];
+		default:
+			if ( _kind[depth + 1] == NO_MOVE )
+			{
+				return true;
+			}
+			else if ( isComplete( depth + 1 ) )
+			{
+				calculateNextMove( depth );
+				if ( _kind[depth + 1] == NO_MOVE )
+				{
+					return true;
+				}
+				else
+				{
+					return isComplete( depth + 1 );
+				}
+			}
+			else
+			{
+				return false;
+			}
+		}
+	}
+
+	// As PuzzleMove.getTileToMove, and the overriding versions for the simple moves.
+	int getTileToMove( int depth ) {
+		int blankPosition = _blankPosition;
+		int referencePosition = _reference[depth];
+		switch ( _kind[depth] )
+		{
+		case NO_MOVE:			return _invalidPosition;
+		case MOVE_TILE:			return _tilePositions[_value[depth]];
+		case MOVE_BLANK_RIGHT_TO:	return right( blankPosition );
+		case MOVE_BLANK_LEFT_TO:	return left( blankPosition );
+		case MOVE_BLANK_UP_TO:		return above( blankPosition );
+		case MOVE_BLANK_DOWN_TO:	return below( blankPosition );
+		case ROTATE_BLANK_TO:
+			if ( isToLeftOf( blankPosition, referencePosition ) )
+			{
+				return isAbove( blankPosition, referencePosition ) ? right( blankPosition ) : above( blankPosition );
+			}
+			else if ( isBelow( blankPosition, referencePosition ) )
+			{
+				return left( blankPosition );
+			}
+			else if ( isToRightOf( blankPosition, referencePosition ) )
+			{
+				return below( blankPosition );
+			}
+			return right( blankPosition );
+		case ANTI_ROTATE_BLANK_TO:
+			if ( isToLeftOf( blankPosition, referencePosition ) )
+			{
+				return isBelow( blankPosition, referencePosition ) ? right( blankPosition ) : below( blankPosition );
+			}
+			else if ( isAbove( blankPosition, referencePosition ) )
+			{
+				return left( blankPosition );
+			}
+			else if ( isToRightOf( blankPosition, referencePosition ) )
+			{
+				return above( blankPosition );
+			}
+			return right( blankPosition );
+		default:
+			return ( _kind[depth + 1] == NO_MOVE ) ? _invalidPosition : getTileToMove( depth + 1 );
+		}
+	}
+
+	// As RotateBlankTo.calculateReferencePosition.
+	void calculateRotateReference( int depth ) {
+		int blankPosition = _blankPosition;
+		int targetPosition = _target[depth];
+		if ( isToLeftOf( blankPosition, targetPosition ) )
+		{
+			if ( isBelow( blankPosition, targetPosition ) || isBlank( left( targetPosition ) ) )
+			{
+				_reference[depth] = below( targetPosition );
+			}
+			else
+			{
+				_reference[depth] = left( targetPosition );
+			}
+		}
+		else if ( isAbove( blankPosition, targetPosition ) )
+		{
+			_reference[depth] = isBlank( above( targetPosition ) ) ? left( targetPosition ) : above( targetPosition );
+		}
+		else if ( isToRightOf( blankPosition, targetPosition ) )
+		{
+			_reference[depth] = isBlank( right( targetPosition ) ) ? above( targetPosition ) : right( targetPosition );
+		}
+		else
+		{
+			_reference[depth] = isBlank( below( targetPosition ) ) ? right( targetPosition ) : below( targetPosition );
+		}
+	}
+
+	// As AntiRotateBlankTo.calculateReferencePosition.
+	void calculateAntiRotateReference( int depth ) {
+		int blankPosition = _blankPosition;
+		int targetPosition = _target[depth];
+		if ( isToRightOf( blankPosition, targetPosition ) )
+		{
+			if ( isBelow( blankPosition, targetPosition ) || isBlank( right( targetPosition ) ) )
+			{
+				_reference[depth] = below( targetPosition );
+			}
+			else
+			{
+				_reference[depth] = right( targetPosition );
+			}
+		}
+		else if ( isAbove( blankPosition, targetPosition ) )
+		{
+			_reference[depth] = isBlank( above( targetPosition ) ) ? right( targetPosition ) : above( targetPosition );
+		}
+		else if ( isToLeftOf( blankPosition, targetPosition ) )
+		{
+			_reference[depth] = isBlank( left( targetPosition ) ) ? above( targetPosition ) : left( targetPosition );
+		}
+		else
+		{
+			_reference[depth] = isBlank( below( targetPosition ) ) ? left( targetPosition ) : below( targetPosition );
+		}
+	}
+
+	// Work out the next part of the move at this depth, as the calculateNextMove method of its class would.
+	// The part is started as the frame at the next depth (or NO_MOVE there if there is nothing left to do).
+	void calculateNextMove( int depth ) {
+		_kind[depth + 1] = NO_MOVE;
+		switch ( _kind[depth] )
+		{
+		case SOLVE_TILE_PUZZLE:		calculateSolveTilePuzzle( depth ); break;
+		case SOLVE_TILE_VALUE:		calculateSolveTileValue( depth ); break;
+		case SOLVE_NORMAL:		calculateSolveNormal( depth ); break;
+		case SOLVE_FROM_LEFT:		calculateSolveFromLeft( depth ); break;
+		case SOLVE_LAST_COLUMN:		calculateSolveLastColumn( depth ); break;
+		case SOLVE_RIGHT_COLUMN:	calculateSolveRightColumn( depth ); break;
+		case SOLVE_LAST_ROW:		calculateSolveLastRow( depth ); break;
+		case MAKE_TILE_ROTATABLE:	calculateMakeTileRotatable( depth ); break;
+		default:			break;
+		}
+	}
+
+	// As SolveTilePuzzle.calculateNextMove.
+	void calculateSolveTilePuzzle( int depth ) {
+		int lowestUnsolvedValue = getLowestUnsolvedValue();
+		if ( lowestUnsolvedValue != 0 )
+		{
+			startSolveTileValue( depth + 1, lowestUnsolvedValue );
+		}
+		recordSolvingValue( lowestUnsolvedValue );
+	}
+
+	// As SolveTileValue.calculateNextMove.
+	void calculateSolveTileValue( int depth ) {
+		int tileValue = _value[depth];
+		int targetPosition = _target[depth];
+		int sourcePosition = _tilePositions[tileValue];
+		if ( sourcePosition == targetPosition )
+		{
+			return;
+		}
+		else if ( ! isValid( below( targetPosition ) ) )
+		{
+			startStagedMove( depth + 1, SOLVE_LAST_ROW, tileValue, 0 );
+		}
+		else if ( isToLeftOf( sourcePosition, targetPosition ) )
+		{
+			startStagedMove( depth + 1, SOLVE_FROM_LEFT, tileValue, 0 );
+		}
+		else if ( ! isValid( right( targetPosition ) ) )
+		{
+			startStagedMove( depth + 1, ( _columns == 2 ) ? SOLVE_RIGHT_COLUMN : SOLVE_LAST_COLUMN, tileValue, 0 );
+		}
+		else
+		{
+			startSolveNormal( depth + 1, tileValue );
+		}
+	}
+
+	// As MakeTileRotatable.calculateNextMove.
+	void calculateMakeTileRotatable( int depth ) {
+		int blankPosition = _blankPosition;
+		int targetPosition = _target[depth];
+		if ( isValid( above( targetPosition ) ) && isAbove( blankPosition, above( targetPosition ) ) )
+		{
+			startMoveBlank( depth + 1, MOVE_BLANK_DOWN_TO, above( targetPosition ) );
+		}
+		else if ( isValid( below( targetPosition ) ) && isBelow( blankPosition, below( targetPosition ) ) )
+		{
+			startMoveBlank( depth + 1, MOVE_BLANK_UP_TO, below( targetPosition ) );
+		}
+		else if ( isValid( left( targetPosition ) ) && isToLeftOf( blankPosition, targetPosition ) )
+		{
+			startMoveBlank( depth + 1, MOVE_BLANK_RIGHT_TO, left( targetPosition ) );
+		}
+		else if ( isValid( right( targetPosition ) ) && isToRightOf( blankPosition, targetPosition ) )
+		{
+			startMoveBlank( depth + 1, MOVE_BLANK_LEFT_TO, right( targetPosition ) );
+		}
+	}
+
+	// As SolveNormal.calculateNextMove.
+	void calculateSolveNormal( int depth ) {
+		int sub = depth + 1;
+		int tileValue = _value[depth];
+		int targetPosition = _target[depth];
+		int blankPosition = _blankPosition;
+		int sourcePosition = _tilePositions[tileValue];
+
+		if ( sourcePosition == targetPosition )
+		{
+			return;
+		}
+		else if ( above( sourcePosition ) == targetPosition )
+		{
+			if ( isBlank( above( sourcePosition ) ) )
+			{
+				if ( isValid( below( sourcePosition ) ) )
+				{
+					if ( isSameRow( targetPosition, targetOf( tileValue + 2 ) ) && ( _tileValues[above( right( sourcePosition ) )] == ( tileValue + 1 ) ) )
+					{
+						if ( isValid( right( sourcePosition ) ) && ( _tileValues[right( sourcePosition )] == ( tileValue + 2 ) ) )
+						{
+							startStagedMove( sub, SOLVE_FROM_LEFT, tileValue + 2, 2 );
+						}
+						else if ( isValid( right( right( sourcePosition ) ) ) && ( _tileValues[right( right( sourcePosition ) )] == ( tileValue + 2 ) ) )
+						{
+							startStagedMove( sub, SOLVE_LAST_COLUMN, tileValue + 2, 3 );
+						}
+						else
+						{
+							startMoveTile( sub, tileValue );
+						}
+					}
+					else
+					{
+						startMoveTile( sub, tileValue );
+					}
+				}
+				else
+				{
+					if ( isValid( right( right( sourcePosition ) ) ) && ( _tileValues[right( right( sourcePosition ) )] == ( tileValue + _columns ) ) )
+					{
+						startStagedMove( sub, SOLVE_LAST_ROW, tileValue + _columns, 3 );
+					}
+					else
+					{
+						startMoveTile( sub, tileValue );
+					}
+				}
+			}
+			else
+			{
+				startAntiRotate( sub, above( sourcePosition ), sourcePosition );
+			}
+		}
+		else if ( isToRightOf( blankPosition, sourcePosition ) )
+		{
+			if ( isSameRow( targetPosition, sourcePosition ) )
+			{
+				startRotate( sub, left( sourcePosition ), sourcePosition );
+			}
+			else
+			{
+				startAntiRotate( sub, above( sourcePosition ), sourcePosition );
+			}
+		}
+		else if ( isBelow( blankPosition, sourcePosition ) )
+		{
+			if ( isToRightOf( sourcePosition, targetPosition ) )
+			{
+				startRotate( sub, left( sourcePosition ) );
+			}
+			else if ( isToLeftOf( blankPosition, sourcePosition ) )
+			{
+				startRotate( sub, above( sourcePosition ) );
+			}
+			else
+			{
+				startAntiRotate( sub, above( sourcePosition ) );
+			}
+		}
+		else if ( isToLeftOf( blankPosition, sourcePosition ) )
+		{
+			if ( isToRightOf( sourcePosition, targetPosition ) )
+			{
+				if ( isAbove( blankPosition, sourcePosition ) )
+				{
+					startAntiRotate( sub, left( sourcePosition ) );
+				}
+				else
+				{
+					startMoveTileAt( sub, right( blankPosition ) );
+				}
+			}
+			else
+			{
+				startRotate( sub, above( sourcePosition ), sourcePosition );
+			}
+		}
+		else
+		{
+			startMoveTileAt( sub, below( blankPosition ) );
+		}
+	}
+
+	// As SolveFromLeft.calculateNextMove.
+	void calculateSolveFromLeft( int depth ) {
+		int sub = depth + 1;
+		int targetPosition = _target[depth];
+		int blankPosition = _blankPosition;
+		int sourcePosition = _tilePositions[_value[depth]];
+		_stage[depth]++;
+
+		if ( _stage[depth] == 1 )
+		{
+			if ( ! isToLeftOf( sourcePosition, targetPosition ) )
+			{
+				// No longer solving from left - do nothing
+			}
+			else if ( isToLeftOf( blankPosition, sourcePosition ) )
+			{
+				if ( isSameRow( above( sourcePosition ), targetPosition ) )
+				{
+					if ( isSameColumn( right( sourcePosition ), targetPosition ) )
+					{
+						if ( left( sourcePosition ) == blankPosition )
+						{
+							_stage[depth]++;
+						}
+						else
+						{
+							startRotate( sub, left( sourcePosition ) );
+						}
+					}
+					else
+					{
+						startAntiRotate( sub, right( sourcePosition ) );
+					}
+				}
+				else if ( isAbove( blankPosition, sourcePosition ) )
+				{
+					startRotate( sub, above( sourcePosition ), left( sourcePosition ) );
+				}
+				else
+				{
+					startRotate( sub, above( sourcePosition ), sourcePosition );
+				}
+			}
+			else if ( isBelow( blankPosition, sourcePosition ) )
+			{
+				startAntiRotate( sub, right( sourcePosition ) );
+			}
+			else if ( isToRightOf( blankPosition, sourcePosition ) )
+			{
+				if ( isSameRow( blankPosition, sourcePosition ) )
+				{
+					startMoveTileAt( sub, left( blankPosition ) );
+				}
+				else if ( isSameColumn( blankPosition, right( sourcePosition ) ) )
+				{
+					startRotate( sub, right( sourcePosition ), sourcePosition );
+				}
+				else
+				{
+					startRotate( sub, right( sourcePosition ) );
+				}
+			}
+			else
+			{
+				startMoveTileAt( sub, below( blankPosition ) );
+			}
+		}
+
+		if ( _stage[depth] == 1 )
+		{
+			_stage[depth] = 0;
+		}
+		if ( _stage[depth] == 2 )
+		{
+			startMoveTileAt( sub, left( above( sourcePosition ) ) );
+		}
+		if ( _stage[depth] == 3 )
+		{
+			startMoveTileAt( sub, above( sourcePosition ) );
+		}
+		if ( _stage[depth] == 4 )
+		{
+			startAntiRotate( sub, right( sourcePosition ), right( above( sourcePosition ) ) );
+		}
+		if ( _stage[depth] == 5 )
+		{
+			startAntiRotate( sub, below( left( sourcePosition ) ), below( sourcePosition ) );
+		}
+	}
+
+	// As SolveLastColumn.calculateNextMove.
+	void calculateSolveLastColumn( int depth ) {
+		int sub = depth + 1;
+		int targetPosition = _target[depth];
+		int blankPosition = _blankPosition;
+		int sourcePosition = _tilePositions[_value[depth]];
+		_stage[depth]++;
+
+		if ( ( _stage[depth] == 1 ) && ( sourcePosition != targetPosition ) )
+		{
+			if ( isBlank( above( sourcePosition ) ) )
+			{
+				startMoveTile( sub, _value[depth] );
+				_stage[depth] = 0;
+			}
+			else if ( above( sourcePosition ) == targetPosition )
+			{
+				_stage[depth]++;
+			}
+			else if ( isAbove( blankPosition, sourcePosition ) )
+			{
+				startRotate( sub, above( sourcePosition ), left( sourcePosition ) );
+				_stage[depth] = 0;
+			}
+			else
+			{
+				startRotate( sub, above( sourcePosition ), sourcePosition );
+				_stage[depth] = 0;
+			}
+		}
+		if ( _stage[depth] == 2 )
+		{
+			if ( isBlank( left( sourcePosition ) ) )
+			{
+				startMoveBlank( sub, MOVE_BLANK_LEFT_TO, left( left( sourcePosition ) ) );
+			}
+			else if ( isBlank( left( left( sourcePosition ) ) ) )
+			{
+				_stage[depth]++;
+			}
+			else if ( isBelow( blankPosition, sourcePosition ) )
+			{
+				startRotate( sub, left( left( sourcePosition ) ) );
+			}
+			else
+			{
+				startAntiRotate( sub, left( left( sourcePosition ) ), above( sourcePosition ) );
+			}
+		}
+		if ( _stage[depth] == 3 )
+		{
+			startRotate( sub, above( left( left( sourcePosition ) ) ), left( sourcePosition ) );
+		}
+		if ( _stage[depth] == 4 )
+		{
+			startRotate( sub, sourcePosition, left( sourcePosition ) );
+		}
+		if ( _stage[depth] == 5 )
+		{
+			startRotate( sub, left( targetPosition ) );
+		}
+		if ( _stage[depth] == 6 )
+		{
+			startAntiRotate( sub, below( left( left( targetPosition ) ) ) );
+		}
+	}
+
+	// As SolveRightColumn.calculateNextMove.
+	void calculateSolveRightColumn( int depth ) {
+		int sub = depth + 1;
+		int targetPosition = _target[depth];
+		int blankPosition = _blankPosition;
+		int sourcePosition = _tilePositions[_value[depth]];
+		_stage[depth]++;
+
+		if ( ( _stage[depth] == 1 ) && ( sourcePosition != targetPosition ) )
+		{
+			// Every branch but two starts a move and goes back to the first stage.
+			_stage[depth] = 0;
+			if ( isSameRow( above( sourcePosition ), targetPosition ) )
+			{
+				if ( above( sourcePosition ) == targetPosition )
+				{
+					if ( isBlank( above( sourcePosition ) ) )
+					{
+						startMoveTile( sub, _value[depth] );
+					}
+					else
+					{
+						_stage[depth] = 2;
+					}
+				}
+				else if ( ! isBelow( blankPosition, sourcePosition ) )
+				{
+					startRotate( sub, sourcePosition );
+				}
+				else if ( isToRightOf( blankPosition, sourcePosition ) )
+				{
+					startAntiRotate( sub, sourcePosition );
+				}
+				else
+				{
+					startRotate( sub, sourcePosition );
+					_reference[sub] = below( sourcePosition );
+				}
+			}
+			else if ( isSameRow( above( sourcePosition ), below( targetPosition ) ) )
+			{
+				if ( isAbove( sourcePosition, targetPosition ) )
+				{
+					if ( isBlank( below( sourcePosition ) ) )
+					{
+						startMoveTile( sub, _value[depth] );
+					}
+					else if ( isAbove( blankPosition, sourcePosition ) )
+					{
+						startRotate( sub, right( sourcePosition ), sourcePosition );
+					}
+					else
+					{
+						startAntiRotate( sub, right( sourcePosition ), sourcePosition );
+					}
+				}
+				else if ( isBlank( above( sourcePosition ) ) || isBlank( targetPosition ) )
+				{
+					// The tiles are positioned part way through stage 3 - moving to it will just continue the process
+					_stage[depth] = 3;
+				}
+				else
+				{
+					startRotate( sub, above( sourcePosition ) );
+				}
+			}
+			else if ( isBlank( above( sourcePosition ) ) )
+			{
+				startMoveTile( sub, _value[depth] );
+			}
+			else if ( isAbove( blankPosition, sourcePosition ) )
+			{
+				if ( isToLeftOf( sourcePosition, targetPosition ) )
+				{
+					startRotate( sub, right( sourcePosition ), sourcePosition );
+				}
+				else if ( isToLeftOf( blankPosition, sourcePosition ) )
+				{
+					startRotate( sub, above( sourcePosition ) );
+				}
+				else
+				{
+					startMoveTileAt( sub, below( blankPosition ) );
+				}
+			}
+			else if ( isBelow( blankPosition, sourcePosition ) )
+			{
+				if ( isToLeftOf( sourcePosition, targetPosition ) )
+				{
+					startAntiRotate( sub, right( sourcePosition ), sourcePosition );
+				}
+				else
+				{
+					startRotate( sub, above( sourcePosition ), sourcePosition );
+				}
+			}
+			else if ( isValid( right( sourcePosition ) ) )
+			{
+				startMoveTile( sub, _value[depth] );
+			}
+			else
+			{
+				startRotate( sub, above( sourcePosition ), sourcePosition );
+			}
+		}
+		if ( _stage[depth] == 2 )
+		{
+			if ( isBlank( below( sourcePosition ) ) )
+			{
+				_stage[depth]++;
+			}
+			else if ( isBlank( left( sourcePosition ) ) )
+			{
+				startAntiRotate( sub, below( sourcePosition ) );
+			}
+			else
+			{
+				startAntiRotate( sub, below( sourcePosition ), left( sourcePosition ) );
+			}
+		}
+		if ( _stage[depth] == 3 )
+		{
+			startAntiRotate( sub, left( targetPosition ) );
+		}
+		if ( _stage[depth] == 4 )
+		{
+			startAntiRotate( sub, above( sourcePosition ) );
+		}
+		if ( _stage[depth] == 5 )
+		{
+			startMoveTileAt( sub, sourcePosition );
+		}
+		if ( _stage[depth] == 6 )
+		{
+			startRotate( sub, above( left( sourcePosition ) ) );
+		}
+		if ( _stage[depth] == 7 )
+		{
+			startRotate( sub, sourcePosition );
+		}
+	}
+
+	// As SolveLastRow.calculateNextMove.
+	void calculateSolveLastRow( int depth ) {
+		int sub = depth + 1;
+		int targetPosition = _target[depth];
+		int blankPosition = _blankPosition;
+		int sourcePosition = _tilePositions[_value[depth]];
+		_stage[depth]++;
+
+		if ( ( _stage[depth] == 1 ) && ( sourcePosition != targetPosition ) )
+		{
+			// Every branch but two starts a move and goes back to the first stage.
+			_stage[depth] = 0;
+			if ( isSameColumn( left( sourcePosition ), targetPosition ) )
+			{
+				if ( left( sourcePosition ) == targetPosition )
+				{
+					if ( isBlank( left( sourcePosition ) ) )
+					{
+						startMoveTile( sub, _value[depth] );
+					}
+					else
+					{
+						_stage[depth] = 2;
+					}
+				}
+				else if ( ! isToRightOf( blankPosition, sourcePosition ) )
+				{
+					startAntiRotate( sub, sourcePosition );
+				}
+				else if ( isBelow( blankPosition, sourcePosition ) )
+				{
+					startRotate( sub, sourcePosition );
+				}
+				else
+				{
+					startAntiRotate( sub, sourcePosition, below( sourcePosition ) );
+				}
+			}
+			else if ( isSameColumn( left( sourcePosition ), right( targetPosition ) ) )
+			{
+				if ( isAbove( sourcePosition, targetPosition ) )
+				{
+					if ( isBlank( below( sourcePosition ) ) )
+					{
+						startMoveTile( sub, _value[depth] );
+					}
+					else if ( isToLeftOf( blankPosition, sourcePosition ) )
+					{
+						startAntiRotate( sub, below( sourcePosition ), sourcePosition );
+					}
+					else
+					{
+						startRotate( sub, below( sourcePosition ), sourcePosition );
+					}
+				}
+				else if ( isBlank( left( sourcePosition ) ) || isBlank( targetPosition ) )
+				{
+					// The tiles are positioned part way through stage 3 - moving to it will just continue the process
+					_stage[depth] = 3;
+				}
+				else
+				{
+					startAntiRotate( sub, left( sourcePosition ) );
+				}
+			}
+			else if ( isBlank( left( sourcePosition ) ) )
+			{
+				startMoveTile( sub, _value[depth] );
+			}
+			else if ( isToLeftOf( blankPosition, sourcePosition ) )
+			{
+				if ( isAbove( sourcePosition, targetPosition ) )
+				{
+					startAntiRotate( sub, below( sourcePosition ), sourcePosition );
+				}
+				else if ( isAbove( blankPosition, sourcePosition ) )
+				{
+					startAntiRotate( sub, left( sourcePosition ) );
+				}
+				else
+				{
+					startMoveTileAt( sub, right( blankPosition ) );
+				}
+			}
+			else if ( isToRightOf( blankPosition, sourcePosition ) )
+			{
+				if ( isAbove( sourcePosition, targetPosition ) )
+				{
+					startRotate( sub, below( sourcePosition ), sourcePosition );
+				}
+				else
+				{
+					startAntiRotate( sub, left( sourcePosition ), sourcePosition );
+				}
+			}
+			else if ( isValid( below( sourcePosition ) ) )
+			{
+				startMoveTile( sub, _value[depth] );
+			}
+			else
+			{
+				startAntiRotate( sub, left( sourcePosition ), sourcePosition );
+			}
+		}
+		if ( _stage[depth] == 2 )
+		{
+			if ( isBlank( right( sourcePosition ) ) )
+			{
+				_stage[depth]++;
+			}
+			else if ( isBlank( above( sourcePosition ) ) )
+			{
+				startRotate( sub, right( sourcePosition ) );
+			}
+			else
+			{
+				startRotate( sub, right( sourcePosition ), above( sourcePosition ) );
+			}
+		}
+		if ( _stage[depth] == 3 )
+		{
+			startRotate( sub, above( targetPosition ) );
+		}
+		if ( _stage[depth] == 4 )
+		{
+			startRotate( sub, left( sourcePosition ) );
+		}
+		if ( _stage[depth] == 5 )
+		{
+			startMoveTileAt( sub, sourcePosition );
+		}
+		if ( _stage[depth] == 6 )
+		{
+			startAntiRotate( sub, above( left( sourcePosition ) ) );
+		}
+		if ( _stage[depth] == 7 )
+		{
+			startAntiRotate( sub, sourcePosition );
+		}
+	}
+
+    }
@@ -0,0 +1,107 @@
+/*
+ * @(#)SolveOptimal.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+
+/**
+ * This is an alternative to SolveTilePuzzle which solves the whole puzzle in the fewest possible moves.
+ * The moves are all calculated up front by a search (see OptimalSearch), then played back a tile at a time.
+ */
+
+// The rule-based solution works out each move from the current arrangement, but the search must see the whole puzzle at once.
+// So the complete list of moves is calculated when the solution is created, on a copy of the puzzle data.
+// As with the other moves, the puzzle is only changed by whoever is performing the moves, so we check that each move has been made
+// before offering the next one. A move has been made when the blank has arrived in the position of the tile which was moved.
+// Listeners are told about each tile as it becomes the next one to move, and are sent 0 when the solution is complete.
+class SolveOptimal extends PuzzleSolution {
+	int	_moves[];		// The positions of the tiles to move, in order (see OptimalSearch)
+	int	_nextMove;		// The index of the next move to be made
+	long	_nodesExpanded;		// The size of the search which found the solution
+
+	// In the constructor, we must search for the solution using the usual estimate.
+	SolveOptimal ( PuzzleData data ) {
+		this( data, new LinearConflictHeuristic( data ) );
+	}
+
+	// In the constructor, we must search for the solution. A better estimate can make the search much faster.
+	SolveOptimal ( PuzzleData data, PuzzleHeuristic heuristic ) {
+		super( 0, new PuzzlePosition ( 0,0 ), data );
+		OptimalSearch search = new OptimalSearch( data, heuristic );
+		setMoves( search.solve(), search.getNodesExpanded() );
+	}
+
+	// The moves may have been found already (e.g. in the background, see BackgroundSolver), leaving only the playing back.
+	SolveOptimal ( PuzzleData data, int[] moves, long nodesExpanded ) {
+		super( 0, new PuzzlePosition ( 0,0 ), data );
+		setMoves( moves, nodesExpanded );
+	}
+
+	void setMoves( int[] moves, long nodesExpanded ) {
+		_moves = moves;
+		_nodesExpanded = nodesExpanded;
+		// An unsolvable puzzle has nothing to play back.
+		if ( _moves == null )
+		{
+			_moves = new int[0];
+		}
+		_nextMove = 0;
+		notifyNextTile();
+	}
+
+	// Return the number of moves in the complete solution.
+	int getSolutionLength() { return _moves.length; }
+
+	// Return a copy of the complete solution as the positions of the tiles to move, numbered row by row.
+	int[] getMoves() { return Arrays.copyOf( _moves, _moves.length ); }
+
+	// Return the number of arrangements examined in finding the solution.
+	long getNodesExpanded() { return _nodesExpanded; }
+
+	// Step past the next move once it has been made, then see if there are any left.
+	boolean isComplete () {
+		if ( ( _nextMove < _moves.length ) && ( getPuzzlePosition( blankTileValue() ).equals( getMovePosition( _nextMove ) ) ) )
+		{
+			_nextMove++;
+			notifyNextTile();
+		}
+		return ( _nextMove >= _moves.length );
+	}
+
+	PuzzlePosition getTileToMove () {
+		if ( _nextMove >= _moves.length )
+		{
+			return invalidPuzzlePosition();
+		}
+		else
+		{
+			return getMovePosition( _nextMove );
+		}
+	}
+
+	// Convert a move in the list to the position of the tile to move.
+	PuzzlePosition getMovePosition( int moveIndex ) {
+		int columns = getPuzzleData().getColumns();
+		return new PuzzlePosition ( _moves[moveIndex] / columns, _moves[moveIndex] % columns );
+	}
+
+	// Tell anyone who's interested which tile will move next (or 0 if the puzzle is solved).
+	void notifyNextTile () {
+		int tileValue = 0;
+		if ( _nextMove < _moves.length )
+		{
+			tileValue = getTileValue( getMovePosition( _nextMove ) );
+		}
+		if ( hasSolutionListeners() )
+		{
+			SolutionEvent solutionEvent = new SolutionEvent ( getPuzzleData(), tileValue );
+			notifyListeners(solutionEvent);
+		}
+	}
+
+    }
@@ -0,0 +1,113 @@
+/*
+ * @(#)SolvePlanned.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.util.*;
+
+/**
+ * This makes exactly the same moves as SolveTilePuzzle, but they are all planned up front (see SolutionPlanner)
+ * and then played back a tile at a time, so no moves have to be worked out while the puzzle is being solved.
+ */
+
+// As with SolveOptimal, the puzzle is only changed by whoever is performing the moves, so we check that each move has been made
+// before offering the next one. A move has been made when the blank has arrived in the position of the tile which was moved.
+// Listeners are told about each tile as the solution moves on to it, at the same points in the moves as SolveTilePuzzle would tell them.
+// If the rules get stuck (which SolveTilePuzzle would do too), the moves up to that point are played and the solution then ends,
+// without the puzzle being solved : isStuck tells that apart from a solution which finished.
+class SolvePlanned extends PuzzleSolution {
+	int	_moves[];		// The positions of the tiles to move, in order, numbered row by row
+	int	_nextMove;		// The index of the next move to be made
+	int	_solvingMoves[];	// The number of moves made when the solution moves on to each tile ...
+	int	_solvingValues[];	// ... and the value of that tile (or 0 when it is finished)
+	int	_nextSolvingValue;	// The index of the next of those to tell the listeners about
+	boolean	_stuck;			// The rules got stuck, so the moves don't solve the puzzle
+
+	SolvePlanned ( PuzzleData data ) {
+		this( data, plan( new SolutionPlanner( data ) ) );
+	}
+
+	// The moves may have been planned already (e.g. in the background, see BackgroundSolver), leaving only the playing back.
+	SolvePlanned ( PuzzleData data, SolutionPlanner planner ) {
+		super( 0, new PuzzlePosition ( 0,0 ), data );
+		_moves = planner.getMoves();
+		_solvingMoves = planner.getSolvingMoves();
+		_solvingValues = planner.getSolvingValues();
+		_stuck = planner.isStuck();
+		_nextMove = 0;
+		_nextSolvingValue = 0;
+		notifySolvingValues();
+	}
+
+	// Plan the moves, returning the planner. If the rules get stuck, the planner records it (see SolutionPlanner.isStuck)
+	// and whatever was planned is played.
+	static SolutionPlanner plan( SolutionPlanner planner ) {
+		try
+		{
+			planner.plan();
+		}
+		catch ( java.util.concurrent.CancellationException e )
+		{
+			throw e;	// Not stuck, just no longer wanted
+		}
+		catch ( IllegalStateException e )
+		{
+			// Recorded by the planner.
+		}
+		return planner;
+	}
+
+	// Did the rules get stuck, so that playing all the moves leaves the puzzle unsolved ?
+	boolean isStuck() { return _stuck; }
+
+	// Return the number of moves in the complete solution.
+	int getSolutionLength() { return _moves.length; }
+
+	// Return a copy of the complete solution as the positions of the tiles to move, numbered row by row.
+	int[] getMoves() { return Arrays.copyOf( _moves, _moves.length ); }
+
+	// Step past the next move once it has been made, then see if there are any left.
+	boolean isComplete () {
+		if ( ( _nextMove < _moves.length ) && ( getPuzzlePosition( blankTileValue() ).equals( getMovePosition( _nextMove ) ) ) )
+		{
+			_nextMove++;
+			notifySolvingValues();
+		}
+		return ( _nextMove >= _moves.length );
+	}
+
+	PuzzlePosition getTileToMove () {
+		if ( _nextMove >= _moves.length )
+		{
+			return invalidPuzzlePosition();
+		}
+		else
+		{
+			return getMovePosition( _nextMove );
+		}
+	}
+
+	// Convert a move in the list to the position of the tile to move.
+	PuzzlePosition getMovePosition( int moveIndex ) {
+		int columns = getPuzzleData().getColumns();
+		return new PuzzlePosition ( _moves[moveIndex] / columns, _moves[moveIndex] % columns );
+	}
+
+	// Tell anyone who's interested about the tiles the solution has moved on to by now.
+	void notifySolvingValues () {
+		while ( ( _nextSolvingValue < _solvingMoves.length ) && ( _solvingMoves[_nextSolvingValue] <= _nextMove ) )
+		{
+			int solvingValue = _solvingValues[_nextSolvingValue];
+			_nextSolvingValue++;
+			if ( hasSolutionListeners() )
+			{
+				notifyListeners( new SolutionEvent ( getPuzzleData(), solvingValue ) );
+			}
+		}
+	}
+
+    }
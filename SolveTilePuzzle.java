@@ -7,12 +7,8 @@
  *
  */
 
-import java.awt.*;
-import java.awt.event.*;
-import java.applet.*;
 import java.util.*;
 
-
 // Having laid the groundwork, we can develop a strategy to move the tile to their target positions (and the classes to support that strategy).
 // The overall approach is to solve the tile from left to right and from top to bottom.
 // So the first tile solved will be at the top left, then the one immediately to the right of it.
@@ -1064,8 +1060,11 @@ class SolveTilePuzzle extends PuzzleSolution {
 		}
 
 		// Tell anyone who's interested about the tile solution
-		SolutionEvent solutionEvent = new SolutionEvent ( getPuzzleData(), lowestUnsolvedValue );
-		notifyListeners(solutionEvent);
+		if ( hasSolutionListeners() )
+		{
+			SolutionEvent solutionEvent = new SolutionEvent ( getPuzzleData(), lowestUnsolvedValue );
+			notifyListeners(solutionEvent);
+		}
 
 	}
 
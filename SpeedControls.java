@@ -77,6 +77,9 @@ class SpeedControls extends Panel implements ActionListener
 		_puzzleSpeedChoice.add( "Normal" );
 		_puzzleSpeedChoice.add( "Faster" );
 		_puzzleSpeedChoice.add( "Fastest" );
+		_puzzleSpeedChoice.add( "Rapid" );
+		_puzzleSpeedChoice.add( "Very rapid" );
+		_puzzleSpeedChoice.add( "Maximum" );
 		_speedControls.add( _puzzleSpeedChoice );
 		rebuildAlternatives();
 	}
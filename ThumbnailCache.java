@@ -0,0 +1,117 @@
+/*
+ * @(#)ThumbnailCache.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.concurrent.*;
+
+/**
+ * The thumbnail of an image, scaled once (in the background) to the size it is shown at, so that painting the
+ * thumbnail is a straight copy rather than a scaling of the whole image.
+ */
+
+// A thumbnail is asked for at a size : if it has already been scaled to that size from the same image, it is returned
+// (a hit). Otherwise (a miss) it is scaled on a background thread, null is returned, and the given component is
+// repainted when the thumbnail is ready. Asking again with the same image and size while it is being scaled neither
+// counts nor starts another.
+// The image is halved repeatedly (each step smoothing the one before), then scaled the rest of the way, which looks
+// much better than scaling a large image straight down to a small one.
+class ThumbnailCache {
+
+	Image			_baseImage;
+	int			_width;
+	int			_height;
+	volatile BufferedImage	_thumbnail;		// null until it has been scaled
+	long			_generation;		// Incremented for each new image or size, so an old scaling is dropped
+	long			_hits;
+	long			_misses;
+
+	static ExecutorService	_scaler;		// Shared by all the thumbnails : they are few, and small
+
+	// Return the thumbnail of the image at the given size, or null if it isn't ready yet.
+	// When it is ready, the component is repainted.
+	synchronized Image getThumbnail( Image baseImage, int width, int height, Component component ) {
+		if ( ( baseImage == _baseImage ) && ( width == _width ) && ( height == _height ) )
+		{
+			BufferedImage thumbnail = _thumbnail;
+			if ( thumbnail != null )
+			{
+				_hits++;
+			}
+			return thumbnail;
+		}
+		_baseImage = baseImage;
+		_width = width;
+		_height = height;
+		_thumbnail = null;
+		long generation = ++_generation;
+		if ( ( baseImage == null ) || ( width <= 0 ) || ( height <= 0 ) || ! ImageLoader.isComplete( baseImage ) )
+		{
+//			Nothing to scale yet. Forget the request, so that it is made again when the image has loaded.
+			_baseImage = null;
+			return null;
+		}
+		_misses++;
+		getScaler().execute( () -> {
+			BufferedImage thumbnail = scale( baseImage, width, height );
+			synchronized ( this )
+			{
+				if ( generation != _generation )
+				{
+					return;
+				}
+				_thumbnail = thumbnail;
+			}
+			component.repaint();
+		} );
+		return null;
+	}
+
+	synchronized long getHits() { return _hits; }
+	synchronized long getMisses() { return _misses; }
+
+	static synchronized ExecutorService getScaler() {
+		if ( _scaler == null )
+		{
+			_scaler = Executors.newSingleThreadExecutor( runnable -> {
+				Thread thread = new Thread( runnable, "ThumbnailCache" );
+				thread.setDaemon( true );
+				return thread;
+			} );
+		}
+		return _scaler;
+	}
+
+	// Scale the image down to the given size, halving it as far as possible first.
+	static BufferedImage scale( Image baseImage, int width, int height ) {
+		int imageType = ( ( baseImage instanceof Transparency ) && ( ( (Transparency) baseImage ).getTransparency() == Transparency.OPAQUE ) )
+				? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+		Image image = baseImage;
+		int imageWidth = baseImage.getWidth( null );
+		int imageHeight = baseImage.getHeight( null );
+		while ( ( ( imageWidth / 2 ) >= width ) && ( ( imageHeight / 2 ) >= height ) )
+		{
+			imageWidth /= 2;
+			imageHeight /= 2;
+			image = scaleStep( image, imageWidth, imageHeight, imageType );
+		}
+		return scaleStep( image, width, height, imageType );
+	}
+
+	static BufferedImage scaleStep( Image image, int width, int height, int imageType ) {
+		BufferedImage scaledImage = new BufferedImage( width, height, imageType );
+		Graphics2D g = scaledImage.createGraphics();
+		g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR );
+		g.setRenderingHint( RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY );
+		g.drawImage( image, 0, 0, width, height, null );
+		g.dispose();
+		return scaledImage;
+	}
+
+    }
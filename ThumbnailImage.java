@@ -31,6 +31,7 @@ class ThumbnailImage extends Canvas
 	int calculatedWidth = 0;
 	int calculatedHeight = 0;
 	Image			_baseImage = null;
+	ThumbnailCache		_thumbnailCache = new ThumbnailCache();	// The image scaled to the thumbnail's size
 	private static final long serialVersionUID = 1L;
 
 	ThumbnailImage ( Image baseImage ) {
@@ -47,6 +48,8 @@ class ThumbnailImage extends Canvas
 
 	public Image getImage( ) { return _baseImage; }
 
+	public ThumbnailCache getThumbnailCache( ) { return _thumbnailCache; }
+
 //	Build the scaled image of the data
 	public void buildDisplayFromData()
 	{
@@ -127,9 +130,16 @@ class ThumbnailImage extends Canvas
 	}
 
 //	Override paint() to draw the scaled image
+//	The image is only scaled when its size changes (in the background, see ThumbnailCache) : until then it is scaled as it's drawn.
 	public void paint(Graphics g){
 		super.paint(g);
 		buildDisplayFromData();
+		Image thumbnail = _thumbnailCache.getThumbnail( getImage(), calculatedWidth, calculatedHeight, this );
+		if ( thumbnail != null )
+		{
+			g.drawImage( thumbnail, 0, 0, null );
+			return;
+		}
 		g.drawImage( getImage(),
 				0,
 				0,
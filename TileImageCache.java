@@ -0,0 +1,223 @@
+/*
+ * @(#)TileImageCache.java	1.0 18-October-2026  Nigel Whitley
+ *
+ * Copyright (c) 2001-2026 Nigel Whitley. All Rights Reserved.
+ *
+ * This software is released under the terms of the GPL. For details, see license.txt.
+ *
+ */
+
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * The tiles of an image puzzle, each cut from the base image and scaled to the size it is shown at,
+ * so that drawing a tile is a straight copy rather than a scaled one from the (perhaps very large) base image.
+ */
+
+// The tiles are cut when the layout (the image, the number of rows and columns, or the tile size) changes, and thrown away
+// when it changes again. They are kept within a memory budget : if they don't all fit, those drawn least recently are
+// dropped and cut again if they are needed. A tile too big for the budget on its own isn't kept at all, and is drawn
+// scaled from the base image as it always was.
+// Each tile is scaled exactly as PuzzleImageDisplay used to scale it onto the screen, so the picture is the same.
+class TileImageCache {
+	Image	_baseImage;
+	int	_rows;
+	int	_columns;
+	int	_tileWidth;
+	int	_tileHeight;
+	long	_maxBytes;
+	long	_cachedBytes;
+	int	_cachedTiles;
+	Image	_tileImages[] = new Image[0];	// The tile for each value (less 1), or null if it isn't cut
+	// The cut tiles are also kept in a list from the most to the least recently drawn, linked through these arrays by value (less 1).
+	// Arrays are used rather than a LinkedHashMap so that drawing a tile creates no objects, even for puzzles with many tiles.
+	int	_older[] = new int[0];
+	int	_newer[] = new int[0];
+	int	_newest = NONE;
+	int	_oldest = NONE;
+
+	static final int NONE = -1;
+
+	static final long DEFAULT_MAX_BYTES = 64L << 20;
+	static final int BYTES_PER_PIXEL = 4;
+
+	TileImageCache() {
+		this( DEFAULT_MAX_BYTES );
+	}
+
+	TileImageCache( long maxBytes ) {
+		_maxBytes = maxBytes;
+	}
+
+	synchronized void setMaxBytes( long maxBytes ) {
+		_maxBytes = maxBytes;
+		evict();
+	}
+
+	synchronized long getMaxBytes() { return _maxBytes; }
+	synchronized long getCachedBytes() { return _cachedBytes; }
+	synchronized int getCachedTiles() { return _cachedTiles; }
+
+	// Throw away the tiles, e.g. because the base image has changed.
+	synchronized void clear() {
+		for ( int tile = _newest; tile != NONE; tile = _older[tile] )
+		{
+			_tileImages[tile].flush();
+			_tileImages[tile] = null;
+		}
+		_newest = NONE;
+		_oldest = NONE;
+		_cachedTiles = 0;
+		_cachedBytes = 0;
+	}
+
+	// Note the layout the tiles are to be cut for, throwing away any cut for a different one.
+	// Returns true if the layout has changed.
+	synchronized boolean setLayout( Image baseImage, int rows, int columns, int tileWidth, int tileHeight ) {
+		if ( ( baseImage == _baseImage ) && ( rows == _rows ) && ( columns == _columns )
+		     && ( tileWidth == _tileWidth ) && ( tileHeight == _tileHeight ) )
+		{
+			return false;
+		}
+		clear();
+		_baseImage = baseImage;
+		_rows = rows;
+		_columns = columns;
+		_tileWidth = tileWidth;
+		_tileHeight = tileHeight;
+		if ( _tileImages.length != ( rows * columns ) )
+		{
+			_tileImages = new Image[rows * columns];
+			_older = new int[rows * columns];
+			_newer = new int[rows * columns];
+		}
+		return true;
+	}
+
+	// Cut every tile (or as many as the budget allows), so that the first full draw is quick too.
+	synchronized void prepare( GraphicsConfiguration configuration ) {
+		for ( int tileValue = 1; tileValue <= _rows * _columns; tileValue++ )
+		{
+			if ( ( _cachedBytes + getTileBytes() ) > _maxBytes )
+			{
+				break;
+			}
+			getTileImage( tileValue, configuration );
+		}
+	}
+
+	// The memory taken by one tile.
+	long getTileBytes() {
+		return (long) Math.max( _tileWidth - 1, 0 ) * Math.max( _tileHeight - 1, 0 ) * BYTES_PER_PIXEL;
+	}
+
+	// Return the tile for the value, cutting it if need be.
+	// Returns null if it can't be kept (the base image hasn't finished loading, or the tile is too big for the budget).
+	synchronized Image getTileImage( int tileValue, GraphicsConfiguration configuration ) {
+		int tile = tileValue - 1;
+		if ( ( tile < 0 ) || ( tile >= _tileImages.length ) )
+		{
+			return null;
+		}
+		Image tileImage = _tileImages[tile];
+		if ( tileImage != null )
+		{
+			unlink( tile );
+			linkNewest( tile );
+			return tileImage;
+		}
+		int width = _tileWidth - 1;
+		int height = _tileHeight - 1;
+		long tileBytes = getTileBytes();
+		if ( ( _baseImage == null ) || ( width <= 0 ) || ( height <= 0 ) || ( tileBytes > _maxBytes ) || ! isBaseImageLoaded() )
+		{
+			return null;
+		}
+
+		tileImage = createTileImage( width, height, configuration );
+		int sourceWidth = _baseImage.getWidth( null ) / _columns;
+		int sourceHeight = _baseImage.getHeight( null ) / _rows;
+		int targetRow = ( tileValue - 1 ) / _columns;
+		int targetColumn = ( tileValue - 1 ) % _columns;
+		Graphics g = tileImage.getGraphics();
+		g.drawImage( _baseImage,
+				0, 0, width, height,
+				sourceWidth * targetColumn,
+				sourceHeight * targetRow,
+				( sourceWidth * ( targetColumn + 1 ) ) - 1,
+				( sourceHeight * ( targetRow + 1 ) ) - 1,
+				null );
+		g.dispose();
+
+		_tileImages[tile] = tileImage;
+		linkNewest( tile );
+		_cachedTiles++;
+		_cachedBytes += tileBytes;
+		evict();
+		return tileImage;
+	}
+
+	// Drop the least recently drawn tiles until the rest fit the budget.
+	void evict() {
+		while ( ( _cachedBytes > _maxBytes ) && ( _oldest != NONE ) )
+		{
+			int tile = _oldest;
+			unlink( tile );
+			_tileImages[tile].flush();
+			_tileImages[tile] = null;
+			_cachedTiles--;
+			_cachedBytes -= getTileBytes();
+		}
+	}
+
+	void linkNewest( int tile ) {
+		_older[tile] = _newest;
+		_newer[tile] = NONE;
+		if ( _newest != NONE )
+		{
+			_newer[_newest] = tile;
+		}
+		_newest = tile;
+		if ( _oldest == NONE )
+		{
+			_oldest = tile;
+		}
+	}
+
+	void unlink( int tile ) {
+		if ( _newer[tile] != NONE )
+		{
+			_older[_newer[tile]] = _older[tile];
+		}
+		else
+		{
+			_newest = _older[tile];
+		}
+		if ( _older[tile] != NONE )
+		{
+			_newer[_older[tile]] = _newer[tile];
+		}
+		else
+		{
+			_oldest = _newer[tile];
+		}
+	}
+
+	// A tile cut from a partly loaded image would be kept with the missing part, so wait for the whole image.
+	boolean isBaseImageLoaded() {
+		return ImageLoader.isComplete( _baseImage );
+	}
+
+	// Make the tile suit the screen where possible, so that copying it is quick.
+	// It keeps any transparency in the base image, so the tile's background shows through as before.
+	Image createTileImage( int width, int height, GraphicsConfiguration configuration ) {
+		int transparency = ( _baseImage instanceof Transparency ) ? ( (Transparency) _baseImage ).getTransparency() : Transparency.BITMASK;
+		if ( configuration != null )
+		{
+			return configuration.createCompatibleImage( width, height, transparency );
+		}
+		return new BufferedImage( width, height, ( transparency == Transparency.OPAQUE ) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB );
+	}
+
+    }
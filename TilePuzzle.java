@@ -24,7 +24,7 @@ import java.beans.*;
  * Can be run either as a standalone application by
  * typing "java TilePuzzle" or as an applet in a suitable browser.
  */
-public class TilePuzzle extends Applet implements Runnable, PuzzleListener, SolutionListener
+public class TilePuzzle extends Applet implements PuzzleListener, SolutionListener
 {
 	boolean			_runAsApplet = true;			// Default to thinking this is run as an applet
 	private static final long serialVersionUID = 1L;
@@ -50,10 +50,14 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 //	Used when puzzle is drawn with an image
 	String			_imageName = null;
 	Image			_baseImage = null;
+	String			_loadedImageName = null;		// The name of the image in _baseImage, once it has loaded
+	ImageLoader		_imageLoader = new ImageLoader();	// Loads the chosen image in the background
 	ThumbnailImage		_thumbnailImage = null;
 
-	Thread			_puzzleThread = null;			// The thread that displays images
-	int			_moveDelay = 300;			// The delay time between automatic moves
+	MoveScheduler		_moveScheduler = new MoveScheduler( this::nextAutoMove );	// Makes the automatic moves, on the event thread
+	BackgroundSolver	_backgroundSolver;			// Works out the solution in the background after each change
+	HintEngine		_hintEngine;				// Suggests the next move, for the current size of puzzle
+	int			_slideMillis = 120;			// The time a moving tile takes to slide across (0 for none)
 	int			_fontSize;				// The default font size for the puzzle
 	PuzzleMove _autoSolution = null;
 	int			_previousChangedTile = 0;		// Used to control display of "movable" tiles
@@ -74,14 +78,18 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 
 //			Record the name of the image to use.
 			setImageName ( getParam("img", "puzzle.jpg") );
+
+//			The time (in milliseconds) a moving tile takes to slide across : 0 makes the tiles jump.
+			_slideMillis = Integer.parseInt( getParam("slide", Integer.toString( _slideMillis ) ) );
 		}
 		else {
 			_puzzleStyle = new String( "ButtonStyle" );
 		}
 
 		_puzzleSize = new Dimension ( _defaultPuzzleSize );
-		setData ( new AutoData( _puzzleSize ) );
-		getData().addPuzzleListener( this );
+		setData ( new AutoData( _puzzleSize.height, _puzzleSize.width ) );
+		getData().addPuzzleListener( this, EnumSet.complementOf( EnumSet.of( PuzzleEventKind.MESSAGE ) ), false );	// The messages are for the information panel
+		_backgroundSolver = new BackgroundSolver( getData(), this::solutionPrepared );
 		setLayout(new BorderLayout());
 		_informationPanel = new InformationPanel( getData() );
 		add("South", _informationPanel);
@@ -108,6 +116,10 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 		setInformationPanel( _informationPanel );
 
 		rebuildPuzzle( );
+
+//		From here on the puzzle is changed only on the event thread (clicks, the move scheduler, the image loader),
+//		which also paints it. Any other thread reads it through getSnapshot and changes it through post.
+		getData().setOwner( EventQueue::invokeLater, EventQueue::isDispatchThread );
 	}
 
 	public void destroy() {
@@ -120,25 +132,13 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 	}
 
 	public void start() {
-		_puzzleThread = new Thread(this);
-		_puzzleThread.start();
+		_moveScheduler.start();
 		repaint();
 	}
 
 	public void stop() {
-		_puzzleThread = null;
-	}
-
-	public void run() {
-		Thread me = Thread.currentThread();
-		while (_puzzleThread == me) {
-			try {
-				Thread.sleep( _moveDelay );
-				nextAutoMove();
-			}
-			catch (InterruptedException e) {
-			}
-		}
+		_moveScheduler.stop();
+		_backgroundSolver.cancel();
 	}
 
 	public void processEvent(AWTEvent e) {
@@ -185,11 +185,11 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 
 //	This is the method from the PuzzleListener interface. When the puzzle needs to change, this method should be told about it (i.e called)
 	public void puzzleChange(PuzzleEvent puzzleEvent) {
-//		The associated event passes the position where the puzzle may change : extract it for later use.
-		String puzzleCommand = puzzleEvent.getActionCommand();
-
+//		Each kind of event has its own case : the switch goes straight to it, rather than testing the command against each in turn.
+		switch ( puzzleEvent.getKind() )
+		{
 //		Move a tile
-		if ( puzzleCommand.equals("Click") )
+		case CLICK:
 		{
 			PuzzlePosition affectedTile = ((PositionEvent) puzzleEvent).getPuzzlePosition();
 //			A user event (tile click), will switch solving to manual from automatic.
@@ -218,12 +218,14 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 				else
 				{
 					setInformation("Click a tile - " + Integer.toString( _totalMoves ) + " moves" );
+					_backgroundSolver.prepare();
 				}
 			}
 
 			_regularControls.showControls( );
+			break;
 		}
-		else if ( puzzleCommand.equals("NextSolve") )
+		case NEXT_SOLVE:
 		{
 
 			PuzzlePosition affectedTile = ((PositionEvent) puzzleEvent).getPuzzlePosition();
@@ -238,27 +240,25 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			}
 			else
 			{
-				setInformation("Puzzle solved ! - " + Integer.toString( _totalMoves ) + " moves");
+				showSolutionFinished();
 //				_totalMoves = 0;
 			}
 
 			_regularControls.showControls( );
+			break;
 		}
 //		Shuffle, recalculate the automatic solution and display the new arrangement
-		else if ( puzzleCommand.equals("Shuffle") ) {
+		case SHUFFLE:
+		{
 			boolean wasAutoSolving = getData().isAutoSolving();
 			setAutoSolving( false );
 			getData().clearAutoSolution( );
 			getData().setSolvingValue( 0 );
 			setInformation("Shuffling puzzle..." );
 			getData().shufflePuzzle();
+			_backgroundSolver.prepare();
 			if ( wasAutoSolving ) {
-				setAutoSolution( new SolveTilePuzzle ( getData() ) );
-				_previousChangedTile = getData().getLowestUnsolvedValue();
-				getData().setSolvingValue( getData().getLowestUnsolvedValue() );
-				_puzzleDisplay.drawTile(getData().getPuzzlePosition( _previousChangedTile ) );
-				setAutoSolving( true );
-				setInformation("Solving " + Integer.toString( _previousChangedTile ) );
+				startAutoSolving();
 			}
 			else {
 				setInformation("Click a tile" );
@@ -266,9 +266,10 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			_regularControls.showControls( );
 			_puzzleDisplay.repaint();
 			_totalMoves = 0;			// No moves since the last shuffle.
+			break;
 		}
 //		Switch between automatic and manual solving
-		else if ( puzzleCommand.equals("Solve") )
+		case SOLVE:
 		{
 //			Is the computer doing the hard work ?
 			if ( getData().isAutoSolving() )
@@ -287,32 +288,26 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			}
 			else
 			{
-//				Calculate the automatic solution.
-				setAutoSolution( new SolveTilePuzzle ( getData() ) );
-
-//				Switch to automatic, and redraw the target tile.
-				_previousChangedTile = getData().getLowestUnsolvedValue();
-				_puzzleDisplay.drawTile(getData().getPuzzlePosition(_previousChangedTile) );
-				setAutoSolving( true );
+//				Switch to automatic, with the solution worked out in the background.
+				startAutoSolving();
 			}
 			_regularControls.showControls( );
 			_puzzleDisplay.repaint();
+			break;
 		}
 //		Have the computer make a single move from the automatic solution
-		else if ( puzzleCommand.equals("NextMove") )
+		case NEXT_MOVE:
 		{
 //			If the puzzle is solving automatically, switch to manual.
 			if ( getData().isAutoSolving() )
 			{
 				setAutoSolving( false );
 			}
-			else
+
+//			If there is no automatic solution assigned (or it is still being worked out), create one.
+			if ( getData().getAutoSolution() == null)
 			{
-//				If there is no automatic solution assigned, create one.
-				if ( getData().getAutoSolution() == null)
-				{
-					setAutoSolution( new SolveTilePuzzle ( getData() ) );
-				}
+				setAutoSolution( createAutoSolution() );
 			}
 
 //			If the puzzle is not already solved, make the next move.
@@ -324,16 +319,38 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			else
 			{
 
-//				Puzzle solved, so tell the user and clear the automatic solution.
+//				Solution finished, so tell the user and clear the automatic solution.
 				getData().clearAutoSolution ();
-				setInformation("Puzzle solved ! - " + Integer.toString( _totalMoves ) + " moves");
+				showSolutionFinished();
 				_totalMoves = 0;
 				( (AutoDisplay) _puzzleDisplay).repaint();
 			}
 			_regularControls.showControls( );
 
+			break;
+		}
+//		Suggest the next move to the user
+		case HINT:
+		{
+			int hintIndex = getHintIndex();
+			PuzzlePosition hintTile = ( hintIndex == HintEngine.NO_HINT ) ? getData().invalidPuzzlePosition()
+						: new PuzzlePosition( getData().getRowOfIndex( hintIndex ), getData().getColumnOfIndex( hintIndex ) );
+			getData().notifyListeners( new PositionEvent( this, hintTile, "ShowHint" ) );
+			break;
+		}
+//		Highlight the tile suggested as the next move, until a tile is moved
+		case SHOW_HINT:
+		{
+			PuzzlePosition hintTile = ((PositionEvent) puzzleEvent).getPuzzlePosition();
+			if ( getData().isValidPuzzlePosition( hintTile ) && ! getData().isAutoSolving() )
+			{
+				getData().setHintValue( getData().getTileValue( hintTile ) );
+				_puzzleDisplay.drawTile( hintTile );
+				setInformation( "Try moving " + Integer.toString( getData().getTileValue( hintTile ) ) + " - " + Integer.toString( _totalMoves ) + " moves" );
+			}
+			break;
 		}
-		else if ( puzzleCommand.equals("Resize") )
+		case RESIZE:
 		{
 			remove(_regularControls);
 			doLayout();
@@ -346,9 +363,10 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			repaint();
 			validate();
 			_totalMoves = 0;			// No moves since the last shuffle.
+			break;
 		}
 //		Display the style controls
-		else if ( puzzleCommand.equals("Style") )
+		case STYLE:
 		{
 			remove(_regularControls);
 			_styleControls.setStyle( _puzzleStyle );
@@ -356,9 +374,10 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			_styleControls.rebuildAlternatives();
 			doLayout();
 			validate();
+			break;
 		}
 //		Display the style controls
-		else if ( puzzleCommand.equals("Speed") )
+		case SPEED:
 		{
 			remove(_regularControls);
 			_speedControls.setSpeed( _puzzleSpeed );
@@ -367,24 +386,24 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			_speedControls.showControls();
 			doLayout();
 			validate();
+			break;
 		}
-		else if ( puzzleCommand.equals("UseImage") )
+		case USE_IMAGE:
 		{
 			_puzzleStyle = "ImageStyle";
 			setImageName( ( (DisplayEvent) puzzleEvent).getImageName() );
-			ImageIcon tmpIcon = new ImageIcon(getImageName());
-			setImage ( tmpIcon.getImage() );
 
+//			The image is loaded in the background : the thumbnail is added when it arrives (see imageLoaded).
 			remove(_styleControls);
 			add("North", _regularControls );
 			_regularControls.rebuildAlternatives();
-			addThumbnailImage( getImage() );
 			doLayout();
 			validate();
 			rebuildPuzzleDisplay();
+			break;
 		}
 //		Accept the changes from the Style or Resize controls
-		else if ( puzzleCommand.equals("StyleOK") )
+		case STYLE_OK:
 		{
 //			If the Style controls are on display, replace them with the Regular controls
 //			and rebuild the puzzle display in the new style.
@@ -415,18 +434,20 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 				}
 			}
 //			setInformation("Style changed");
+			break;
 		}
 //		Discard the changes from the Style or Resize controls and replace them with the Regular controls
-		else if ( puzzleCommand.equals("StyleCancel") )
+		case STYLE_CANCEL:
 		{
 			remove(_styleControls);
 			add("North", _regularControls );
 			_regularControls.rebuildAlternatives();
 			doLayout();
 			validate();
+			break;
 		}
 //		Accept the changes from the Style or Resize controls
-		else if ( puzzleCommand.equals("ResizeOK") )
+		case RESIZE_OK:
 		{
 			Dimension puzzleSize = _resizeControls.getPuzzleSize();
 			if ( puzzleSize != null )
@@ -452,9 +473,10 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 					setInformation("Invalid puzzle size - use smaller values");
 				}
 			}
+			break;
 		}
 //		Accept the changes from the Style or Resize controls
-		else if ( puzzleCommand.equals("SpeedOK") )
+		case SPEED_OK:
 		{
 //			If the Style controls are on display, replace them with the Regular controls
 //			and rebuild the puzzle display in the new style.
@@ -466,27 +488,30 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			doLayout();
 			validate();
 			rebuildPuzzleDisplay();
+			break;
 		}
 //		Discard the changes from the Style or Resize controls and replace them with the Regular controls
-		else if ( puzzleCommand.equals("SpeedCancel") )
+		case SPEED_CANCEL:
 		{
 			remove(_speedControls);
 			add("North", _regularControls );
 			_regularControls.rebuildAlternatives();
 			doLayout();
 			validate();
+			break;
 		}
 //		Discard the changes from the Style or Resize controls and replace them with the Regular controls
-		else if ( puzzleCommand.equals("ResizeCancel") )
+		case RESIZE_CANCEL:
 		{
 			remove(_resizeControls);
 			add("North", _regularControls );
 			_regularControls.rebuildAlternatives();
 			doLayout();
 			validate();
+			break;
 		}
 //		Accept the changes from the Style or Resize controls
-		else if ( puzzleCommand.equals("ResetPuzzle") )
+		case RESET_PUZZLE:
 		{
 //			Replace the Resize controls on display with the Regular controls, rebuild the puzzle in the new size.
 //			recreate the puzzle in the new size and remove any existing automatic solution.
@@ -500,12 +525,17 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 			rebuildPuzzleDisplay();
 			_totalMoves = 0;			// No moves since the last shuffle.
 			setInformation("Puzzle reset");
+			break;
 		}
 //		Display a thumbnail image in the information panel
-		else if ( puzzleCommand.equals("AddThumbnail") )
+		case ADD_THUMBNAIL:
 		{
 //			After the base image has been loaded, a thumbnail image must be displayed
 			addThumbnailImage( getImage() );
+			break;
+		}
+		default:
+			break;
 		}
 	}
 
@@ -526,6 +556,36 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 //	Return the image to be used in the puzzle when it's displayed as a PuzzleImageDisplay
 	public String getStyle( ) { return _puzzleStyle; }
 
+//	Start loading the named image in the background, dropping any image still being loaded.
+//	The image is decoded no larger than the screen, since the puzzle can't be shown any larger.
+	void loadImage( ) {
+		String imageName = getImageName();
+		setImage( null );
+		_loadedImageName = null;
+		setInformation( "Loading " + new File( imageName ).getName() );
+		Dimension screenSize = getToolkit().getScreenSize();
+		_imageLoader.load( imageName, screenSize.width, screenSize.height, image -> imageLoaded( imageName, image ) );
+	}
+
+//	The image has been loaded (on the event thread) : show it in the puzzle and as the thumbnail.
+	void imageLoaded( String imageName, Image image ) {
+		if ( image == null )
+		{
+			setInformation( "Unable to load " + new File( imageName ).getName() );
+			return;
+		}
+		setImage( image );
+		_loadedImageName = imageName;
+		if ( _puzzleDisplay instanceof PuzzleImageDisplay )
+		{
+			( (PuzzleImageDisplay) _puzzleDisplay ).setImage( image );
+			_puzzleDisplay.repaint();
+			addThumbnailImage( image );
+			validate();
+		}
+		setInformation( "" );
+	}
+
 	public void rebuildPuzzle( ) {
 		rebuildPuzzleData();
 		rebuildPuzzleDisplay();
@@ -533,7 +593,7 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 
 //	Build the data describing the tile layout in the puzzle, then use it for the display
 	public void rebuildPuzzleData( ) {
-		getData().buildPuzzleData( _puzzleSize );
+		getData().buildPuzzleData( _puzzleSize.height, _puzzleSize.width );
 		if ( _puzzleDisplay != null )
 		{
 			_puzzleDisplay.setData( getData() );
@@ -576,11 +636,10 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 //				For an applet, build a display based on an image.
 				setImage ( getImage( getDocumentBase(), getImageName() ) );
 			}
-			else
+			else if ( ( getImage() == null ) || ! getImageName().equals( _loadedImageName ) )
 			{
-				// Added for loading a new image
-				ImageIcon tmpIcon = new ImageIcon(getImageName());
-				setImage ( tmpIcon.getImage() );
+//				Load the new image in the background. Until it arrives, the display shows the tile numbers.
+				loadImage();
 			}
 
 
@@ -656,8 +715,7 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 //		Move the affected tile, then redraw it and the blank tile (with which it has been interchanged).
 		PuzzlePosition blankTile = getData().getPuzzlePosition(getData().blankTileValue());
 		getData().moveTile ( affectedTile );
-		_puzzleDisplay.drawTile(affectedTile);
-		_puzzleDisplay.drawTile(blankTile);
+		_puzzleDisplay.drawMove( affectedTile, blankTile, getSlideMillis() );
 		_totalMoves++;			// Increment the move total to reflect this move.
 
 	}
@@ -692,7 +750,8 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 
 //	This method performs the next "automatic" tile move. When not solving the puzzle automatically, this method does nothing.
 //	If the puzzle is solving automatically, it will only move a tile if a solution exists and is not complete.
-	public void nextAutoMove () {
+//	It is called on the event thread by the move scheduler, and returns true if a tile was moved.
+	public boolean nextAutoMove () {
 		if ( ( _puzzleDisplay != null ) && getData().isAutoSolving() )
 		{
 
@@ -702,52 +761,179 @@ public class TilePuzzle extends Applet implements Runnable, PuzzleListener, Solu
 				{
 					PuzzleEvent puzzleEvent = new PositionEvent ( this, getData().getAutoSolution().getTileToMove(), "NextSolve" );
 					getData().notifyListeners(puzzleEvent);
+					return true;
 				}
 				else
 				{
 					setAutoSolving ( false );
 					getData().setAutoSolving ( false );
-					setInformation ( "Puzzle solved ! - " + Integer.toString( _totalMoves ) + " moves" );
+					showSolutionFinished();
 					_regularControls.showControls( );
 					_puzzleDisplay.repaint();
 				}
 			}
 		}
+		return false;
 	}
 
-//	This method connects the solution to the Puzzle data.
-//	It also adds a listener for the solution (so we can know when things change), and forgets the previous changed tile.
+//	The automatic solution has made all its moves. Only say the puzzle is solved if it is : the rules can get stuck
+//	on some puzzles of awkward shapes (see SolvePlanned), which leaves the puzzle unsolved.
+	void showSolutionFinished () {
+		if ( getData().isSolved() )
+		{
+			setInformation( "Puzzle solved ! - " + Integer.toString( _totalMoves ) + " moves" );
+		}
+		else
+		{
+			setInformation( "The solver got stuck - " + Integer.toString( _totalMoves ) + " moves" );
+		}
+	}
+
+//	The time a moving tile should take to slide across. Automatic moves slide no longer than the time between them,
+//	so that the slides keep up with the moves (and at the highest rates, the tiles simply jump).
+	int getSlideMillis( ) {
+		int slideMillis = _slideMillis;
+		if ( getData().isAutoSolving() )
+		{
+			slideMillis = (int) Math.min( slideMillis, 1000 / _moveScheduler.getRate() );
+		}
+		return ( slideMillis < MoveScheduler.FRAME_MILLIS ) ? 0 : slideMillis;
+	}
+
+//	Set the rate of the automatic moves from the name of the speed.
 	public void setSpeed( String puzzleSpeed ) {
 		if ( puzzleSpeed.equals( "Slowest") )
 		{
-			_moveDelay = 2000;			// The delay time between automatic moves
+			_moveScheduler.setRate( 0.5 );		// Moves per second
 			_puzzleSpeed = "Slowest";
 		}
 		else if ( puzzleSpeed.equals( "Slower") )
 		{
-			_moveDelay = 1000;			// The delay time between automatic moves
+			_moveScheduler.setRate( 1 );
 			_puzzleSpeed = "Slower";
 		}
 		else if ( puzzleSpeed.equals( "Faster") )
 		{
-			_moveDelay = 250;			// The delay time between automatic moves
+			_moveScheduler.setRate( 4 );
 			_puzzleSpeed = "Faster";
 		}
 		else if ( puzzleSpeed.equals( "Fastest") )
 		{
-			_moveDelay = 100;			// The delay time between automatic moves
+			_moveScheduler.setRate( 10 );
 			_puzzleSpeed = "Fastest";
 		}
+		else if ( puzzleSpeed.equals( "Rapid") )
+		{
+			_moveScheduler.setRate( 100 );
+			_puzzleSpeed = "Rapid";
+		}
+		else if ( puzzleSpeed.equals( "Very rapid") )
+		{
+			_moveScheduler.setRate( 1000 );
+			_puzzleSpeed = "Very rapid";
+		}
+		else if ( puzzleSpeed.equals( "Maximum") )
+		{
+			_moveScheduler.setRate( MoveScheduler.MAXIMUM_RATE );
+			_puzzleSpeed = "Maximum";
+		}
 		else
 		{
-			_moveDelay = 500;			// The delay time between automatic moves
+			_moveScheduler.setRate( 2 );
 			_puzzleSpeed = "Average";
 		}
 	}
 
+//	Build the automatic solution for the current arrangement of the puzzle, taking the one worked out in the background if it's ready.
+//	The choice of solver belongs to the (display free) PuzzleSolver, so the puzzle is solved the same way with or without a display.
+//	Solving on the spot mustn't wait for the pattern databases the background solver may still be opening (or building).
+	public PuzzleSolution createAutoSolution( ) {
+		PuzzleSolution autoSolution = _backgroundSolver.takeSolution();
+		return ( autoSolution != null ) ? autoSolution : PuzzleSolver.createSolutionNow( getData() );
+	}
+
+//	Find the best next move (as a position numbered row by row), or HintEngine.NO_HINT if the puzzle is solved.
+//	When the puzzle is small enough for the shortest solution, and that has been worked out in the background, its first move is the hint.
+//	Otherwise the hint engine looks ahead for as long as it is allowed (a few milliseconds).
+	int getHintIndex( ) {
+		int rows = getData().getRows();
+		int columns = getData().getColumns();
+		if ( PuzzleSolver.isSolvedOptimally( rows, columns ) )
+		{
+			PuzzleSolution autoSolution = _backgroundSolver.takeSolution();
+			if ( ( autoSolution != null ) && ! autoSolution.isComplete() )
+			{
+				PuzzlePosition hintTile = autoSolution.getTileToMove();
+				return getData().getIndex( hintTile.getRow(), hintTile.getColumn() );
+			}
+		}
+		if ( ( _hintEngine == null ) || ! _hintEngine.isFor( rows, columns ) )
+		{
+			_hintEngine = new HintEngine( rows, columns );
+		}
+		return _hintEngine.getHint( getData() );
+	}
+
+//	Switch to automatic solving. The solution has normally been worked out in the background since the puzzle last changed.
+//	If it hasn't been finished yet, the solving starts without it, and the moves begin as soon as it is ready (see solutionPrepared),
+//	so the controls answer straight away however long the solution takes to find.
+	void startAutoSolving( ) {
+		PuzzleSolution autoSolution = _backgroundSolver.takeSolution();
+		if ( _backgroundSolver.getFailure() != null )
+		{
+			showSolveFailure( _backgroundSolver.getFailure() );
+			return;
+		}
+		if ( autoSolution == null )
+		{
+			_backgroundSolver.prepare();
+			setAutoSolving( true );
+			setInformation( "Working out the solution..." );
+			return;
+		}
+		useAutoSolution( autoSolution );
+	}
+
+//	Start solving automatically with the solution, redrawing the target tile.
+	void useAutoSolution( PuzzleSolution autoSolution ) {
+		setAutoSolution( autoSolution );
+		_previousChangedTile = getData().getLowestUnsolvedValue();
+		getData().setSolvingValue( _previousChangedTile );
+		_puzzleDisplay.drawTile(getData().getPuzzlePosition( _previousChangedTile ) );
+		setAutoSolving( true );
+		setInformation("Solving " + Integer.toString( _previousChangedTile ) );
+	}
+
+//	The background solver calls this (on the event thread) when it has the solution ready, or has failed to find it.
+//	If the automatic solving has been waiting for it, the moves start now (or the user is told why they can't).
+	void solutionPrepared( ) {
+		if ( getData().isAutoSolving() && ( getData().getAutoSolution() == null ) )
+		{
+			PuzzleSolution autoSolution = _backgroundSolver.takeSolution();
+			if ( autoSolution != null )
+			{
+				useAutoSolution( autoSolution );
+				_regularControls.showControls( );
+				_puzzleDisplay.repaint();
+			}
+			else if ( _backgroundSolver.getFailure() != null )
+			{
+				showSolveFailure( _backgroundSolver.getFailure() );
+			}
+		}
+	}
+
+//	The solution couldn't be worked out, so go back to manual solving and say why, rather than leave the user waiting.
+	void showSolveFailure( RuntimeException failure ) {
+		setAutoSolving( false );
+		setInformation( "Unable to solve the puzzle - " + failure.getMessage() );
+		_regularControls.showControls( );
+		_puzzleDisplay.repaint();
+	}
+
 //	This method connects the solution to the Puzzle data.
 //	It also adds a listener for the solution (so we can know when things change), and forgets the previous changed tile.
-	public void setAutoSolution( SolveTilePuzzle autoSolution ) {
+	public void setAutoSolution( PuzzleSolution autoSolution ) {
 		getData().setAutoSolution ( autoSolution );
 		getData().addSolutionListener ( this );
 		_previousChangedTile = 0;
@@ -1,24 +1,52 @@
-javac Random1.java
+javac PuzzleRandom.java
 javac PuzzlePosition.java
+javac PuzzleEventKind.java
 javac PuzzleEvent.java
+javac PuzzleEventBus.java
+javac PuzzleSnapshot.java
 javac PositionEvent.java
 javac MessageEvent.java
 javac DisplayEvent.java
 javac PuzzleListener.java
 javac SolutionEvent.java
 javac SolutionListener.java
+javac PuzzleState.java
 javac PuzzleData.java
 javac PuzzleMove.java
 javac PuzzleSolution.java
 javac AutoData.java
 javac SolveTilePuzzle.java
+javac PuzzleHeuristic.java
+javac LinearConflictHeuristic.java
+javac OptimalSearch.java
+javac SolveOptimal.java
+javac SolutionPlanner.java
+javac SolvePlanned.java
+javac PuzzleStrategy.java
+javac PuzzleSolver.java
+javac BackgroundSolver.java
+javac HintEngine.java
+javac PuzzleCorpus.java
+javac PuzzleBatch.java
+javac PatternDatabase.java
+javac PatternDatabaseBuilder.java
+javac ParallelPatternDatabaseBuilder.java
+javac PatternDatabaseFile.java
+javac DistanceTable.java
+javac DistanceTableBuilder.java
+javac CompactDistanceTable.java
+javac CompactDistanceTableBuilder.java
+javac AdditivePatternHeuristic.java
 javac PuzzleDisplay.java
 javac AutoDisplay.java
 javac WindowCloseAdapter.java
 javac PuzzleDrawnAdapter.java
 javac PuzzleDrawnDisplay.java
+javac ImageLoader.java
+javac TileImageCache.java
 javac PuzzleImageDisplay.java
 javac PuzzleButtonDisplay.java
+javac ThumbnailCache.java
 javac ThumbnailImage.java
 javac InformationPanel.java
 javac RegularControls.java
@@ -26,4 +54,7 @@ javac ResizeControls.java
 javac FilePreviewer.java
 javac StyleControls.java
 javac SpeedControls.java
+javac MoveScheduler.java
 javac TilePuzzle.java
+javac PuzzleBenchmark.java
+javac PuzzleChecks.java